@@ -279,8 +279,8 @@ const Column = ({ color, name, id, tasks, membersList, submitNewTask, handleTask
                                                     <TaskInfo task={task} />
                                                     <EditTaskModal task={task} editTask={handleEditTask} membersList={membersList} />
                                                     <div className="relative">
-                                                        <CommentsModal comments={task.comments} taskId={task._id} submitNewComment={submitNewComment} commenterName={user.name} commenterId={user._id} />
-                                                        {task.comments?.length > 0 && (
+                                                        <CommentsModal commentCount={task.commentCount} taskId={task._id} submitNewComment={submitNewComment} commenterName={user.name} commenterId={user._id} />
+                                                        {task.commentCount > 0 && (
                                                             <span className="absolute -top-1 -right-1 flex h-2 w-2">
                                                                 <span className="animate-ping absolute inline-flex h-full w-full rounded-full bg-primary-400 opacity-75"></span>
                                                                 <span className="relative inline-flex rounded-full h-2 w-2 bg-primary-500"></span>
@@ -2,11 +2,30 @@ import { Button, Dialog, DialogBody, Textarea } from '@material-tailwind/react';
 import { MessageSquareText } from 'lucide-react';
 import React, { useState } from 'react'
 import { useForm } from "react-hook-form";
+import { useDispatch } from 'react-redux';
+import { getComments } from '../../redux/Slices/admin/taskSlice';
 
-const CommentsModal = ({ comments, taskId, submitNewComment, commenterName, commenterId }) => {
+const CommentsModal = ({ commentCount, taskId, submitNewComment, commenterName, commenterId }) => {
+    const dispatch = useDispatch();
     const [open, setOpen] = useState(false);
-    const handleOpen = () => setOpen(!open);
-    const totalComments = comments.length;
+    const [comments, setComments] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    // Comments are fetched a page at a time when the dialog opens
+    const loadComments = (before) => {
+        dispatch(getComments({ taskId, before })).then((data) => {
+            if (data?.payload?.success) {
+                setComments((current) => before ? [...current, ...data.payload.comments] : data.payload.comments);
+                setNextCursor(data.payload.nextCursor);
+            }
+        })
+    }
+    const handleOpen = () => {
+        if (!open) {
+            loadComments();
+        }
+        setOpen(!open);
+    }
+    const totalComments = commentCount || 0;
     const { register, handleSubmit, reset } = useForm();
     const onSubmit = (data) => {
         const formData = {
@@ -46,8 +65,8 @@ const CommentsModal = ({ comments, taskId, submitNewComment, commenterName, comm
                                     Post comment
                                 </Button>
                             </form>
-                            {comments && comments.map((comment, index) => (
-                                <article key={index} class="p-3 text-base bg-white dark:bg-dark-secondary rounded-lg mb-3 border border-transparent dark:border-gray-900/50">
+                            {comments.map((comment) => (
+                                <article key={comment._id} class="p-3 text-base bg-white dark:bg-dark-secondary rounded-lg mb-3 border border-transparent dark:border-gray-900/50">
                                     <footer class="flex justify-between items-center mb-2">
                                         <div class="flex items-center">
                                             <p class="inline-flex items-center mr-3 text-sm text-gray-900 dark:text-white font-semibold">
@@ -55,7 +74,7 @@ const CommentsModal = ({ comments, taskId, submitNewComment, commenterName, comm
                                                     class="mr-2 w-6 h-6 rounded-full"
                                                     src={`https://ui-avatars.com/api/?background=random&name=${comment.commenterName}`} />{comment.commenterName}</p>
                                             <p class="text-sm text-gray-600 dark:text-gray-400 "><time pubdate datetime="2022-02-08"
-                                                title="February 8th, 2022">{comment.createdAt}</time></p>
+                                                title="February 8th, 2022">{new Date(comment.createdAt).toLocaleString()}</time></p>
                                         </div>
 
                                     </footer>
@@ -63,6 +82,11 @@ const CommentsModal = ({ comments, taskId, submitNewComment, commenterName, comm
 
                                 </article>
                             ))}
+                            {nextCursor && (
+                                <Button variant="text" color="blue" onClick={() => loadComments(nextCursor)} className="w-full">
+                                    Load older comments
+                                </Button>
+                            )}
                         </div>
                     </section>
 
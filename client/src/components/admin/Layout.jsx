@@ -7,7 +7,7 @@ import { useDispatch, useSelector } from 'react-redux';
 import { fetchNotifications } from '../../redux/Slices/notificationSlice';
 import { toast } from 'react-toastify';
 import { socket } from '../../utils/auth';
-import { getAllChats, getRecentChats } from '../../redux/Slices/chatSlice';
+import { getLatestChats, getRecentChats } from '../../redux/Slices/chatSlice';
 
 const adminSidebarMenuItems = [
     {
@@ -48,7 +48,7 @@ export const Layout = ({ isSidebarCollapsed }) => {
         socket.on("connect", () => { });
         socket.on("chatNotification", (members) => {
             if (members.members.includes(user._id)) {
-                dispatch(getAllChats())
+                dispatch(getLatestChats())
                 dispatch(getRecentChats())
                 // toast.info(members.message)
             }
@@ -67,7 +67,7 @@ export const Layout = ({ isSidebarCollapsed }) => {
                     className={`flex w-full flex-col ${isSidebarCollapsed ? "" : "md:pl-72"
                         }`}
                 >
-                    <Navbar notifications={notifications} />
+                    <Navbar notifications={notifications} count={count} />
                     <div className="flex-1 w-full dark:bg-dark-bg overflow-auto bg-gray-200 transition-colors duration-300">
                         <Outlet />
                     </div>
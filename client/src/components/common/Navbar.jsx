@@ -5,11 +5,12 @@ import { setIsSidebarCollapsed, setIsDarkMode } from "../../redux/Slices/globalS
 import { Bell, Menu, Moon, Settings, Sun, User } from "lucide-react";
 import { logout } from "../../redux/Slices/authSlice";
 import { Badge, Button, List, ListItem, Popover, PopoverContent, PopoverHandler, Typography } from "@material-tailwind/react";
-import { clearNotification, fetchNotifications, markAsReadNotifications } from "../../redux/Slices/notificationSlice";
+import { clearNotification, fetchNotifications, fetchOlderNotifications, markAsReadNotifications } from "../../redux/Slices/notificationSlice";
 
 const Navbar = (notifications) => {
     const dispatch = useDispatch();
     const user = useSelector((state) => state.auth.user)
+    const nextCursor = useSelector((state) => state.notify.nextCursor)
     const isSidebarCollapsed = useSelector(
         (state) => state.global.isSidebarCollapsed
     );
@@ -84,9 +85,9 @@ const Navbar = (notifications) => {
                             } className="w-full p-2">Mark All As Read</Button>
                         </div>
                         <div className="mt-6">
-                            {notifications.notifications.length > 0 ? notifications.notifications.map((notification, index) => (
+                            {notifications.notifications.length > 0 ? notifications.notifications.map((notification) => (
 
-                                <div key={index} className={`flex flex-col items-start mb-2 w-full p-3 rounded-lg text-start leading-tight outline-none ${notification.status == 1 ? `bg-blue-gray-100 text-blue-gray-900` : `bg-gray-50 text-blue-gray-600`}`}>
+                                <div key={notification._id} className={`flex flex-col items-start mb-2 w-full p-3 rounded-lg text-start leading-tight outline-none ${notification.status == 1 ? `bg-blue-gray-100 text-blue-gray-900` : `bg-gray-50 text-blue-gray-600`}`}>
                                     <Typography variant="h6">
                                         {notification.title}
                                     </Typography>
@@ -99,6 +100,11 @@ const Navbar = (notifications) => {
                                     No new notifications
                                 </Typography>
                             }
+                            {nextCursor && (
+                                <Button variant="text" color="blue" onClick={() => dispatch(fetchOlderNotifications(user._id))} className="w-full p-2">
+                                    Load more
+                                </Button>
+                            )}
                         </div>
                     </PopoverContent>
                 </Popover>
@@ -257,7 +257,7 @@ const Column = ({ color, name, id, tasks, membersList, submitNewTask, handleTask
                                             </div>
                                             <div className="flex gap-3 items-center">
                                                 <EditTaskModal task={task} editTask={handleEditTask} membersList={membersList} />
-                                                <CommentsModal comments={task.comments} taskId={task._id} submitNewComment={submitNewComment} commenterName={user.name} commenterId={user._id} />
+                                                <CommentsModal commentCount={task.commentCount} taskId={task._id} submitNewComment={submitNewComment} commenterName={user.name} commenterId={user._id} />
                                                 <TaskInfo task={task} />
                                             </div>
                                         </div>
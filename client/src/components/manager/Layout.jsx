@@ -6,7 +6,7 @@ import { Home, Briefcase, CalendarCheck, MessageCircle } from 'lucide-react';
 import { useDispatch, useSelector } from 'react-redux';
 import { fetchNotifications } from '../../redux/Slices/notificationSlice';
 import { socket } from '../../utils/auth';
-import { getAllChats, getRecentChats } from '../../redux/Slices/chatSlice';
+import { getLatestChats, getRecentChats } from '../../redux/Slices/chatSlice';
 
 const managerSidebarMenuItems = [
     {
@@ -53,7 +53,7 @@ export const Layout = ({ isSidebarCollapsed }) => {
         });
         socket.on("chatNotification", (members) => {
             if (members.members.includes(user._id)) {
-                dispatch(getAllChats())
+                dispatch(getLatestChats())
                 dispatch(getRecentChats())
                 // toast.info(members.message)
             }
@@ -1,11 +1,12 @@
 import React, { useState } from 'react'
-import { fetchActivityLogs } from '../../redux/Slices/activitySlice'
+import { fetchActivityLogs, fetchMoreActivityLogs } from '../../redux/Slices/activitySlice'
 import { Button, Dialog, Timeline, TimelineConnector, TimelineHeader, TimelineIcon, TimelineItem, Typography } from '@material-tailwind/react'
 import { useDispatch, useSelector } from 'react-redux'
 import { ArrowRightLeft, Bell, CirclePlus, SquarePen, Trash2 } from 'lucide-react'
 
 const ActivityLog = ({ projectId }) => {
     const activityList = useSelector((state) => state.activityLogSlice.activityList)
+    const nextCursor = useSelector((state) => state.activityLogSlice.nextCursor)
 
     const [open, setOpen] = useState(false);
 
@@ -22,18 +23,24 @@ const ActivityLog = ({ projectId }) => {
         }
     }
     const handleOpen = () => {
-        dispatch(fetchActivityLogs(projectId))
+        if (!open) {
+            dispatch(fetchActivityLogs(projectId))
+        }
         setOpen(!open)
     };
 
+    const handleLoadMore = () => {
+        dispatch(fetchMoreActivityLogs({ projectId, cursor: nextCursor }))
+    };
+
     const dispatch = useDispatch();
     return (
         <div>
             <Button onClick={handleOpen} color="blue">Activity Logs</Button>
             <Dialog open={open} handler={handleOpen} className='p-4 h-3/4 overflow-auto bg-white dark:bg-dark-bg border border-transparent dark:border-gray-900'>
                 <Timeline>
-                    {activityList.map((activity, index) => (
-                        <TimelineItem key={index} className="h-24">
+                    {activityList.map((activity) => (
+                        <TimelineItem key={activity._id} className="h-24">
                             <TimelineConnector className="!w-[78px]" />
                             <TimelineHeader className="relative rounded-xl border border-blue-gray-50 bg-white dark:bg-dark-secondary py-1 pl-4 pr-8 shadow-lg shadow-blue-gray-900/5 dark:shadow-none dark:border-gray-900">
                                 <TimelineIcon className="p-3" variant="ghost">
@@ -47,7 +54,7 @@ const ActivityLog = ({ projectId }) => {
 
                                     <div className='flex gap-10'>
                                         <Typography variant="small" color="gray" className="font-normal dark:text-gray-400">
-                                            User : {activity.userId.name}
+                                            User : {activity.userId?.name}
                                         </Typography>
                                         <Typography variant="small" color="gray" className="font-normal dark:text-gray-400">
                                             {new Date(activity.createdAt).toLocaleString('en-US', {
@@ -64,6 +71,11 @@ const ActivityLog = ({ projectId }) => {
                         </TimelineItem>
                     ))}
                 </Timeline>
+                {nextCursor && (
+                    <div className="flex justify-center pt-4">
+                        <Button variant="text" color="blue" onClick={handleLoadMore}>Load more</Button>
+                    </div>
+                )}
             </Dialog>
         </div>
     )
@@ -235,7 +235,7 @@ const Column = ({ color, name, id, tasks, submitNewTask, handleTaskDelete, submi
                                                 }
                                             </div>
                                             <div className="flex gap-3">
-                                                <CommentsModal comments={task.comments} taskId={task._id} submitNewComment={submitNewComment} commenterName={user.name} commenterId={user._id} />
+                                                <CommentsModal commentCount={task.commentCount} taskId={task._id} submitNewComment={submitNewComment} commenterName={user.name} commenterId={user._id} />
                                                 <TaskInfo task={task} />
                                             </div>
                                         </div>
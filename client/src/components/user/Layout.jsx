@@ -7,7 +7,7 @@ import { useDispatch, useSelector } from 'react-redux';
 import { fetchNotifications } from '../../redux/Slices/notificationSlice';
 import { toast } from 'react-toastify';
 import { socket } from '../../utils/auth';
-import { getAllChats, getRecentChats } from '../../redux/Slices/chatSlice';
+import { getLatestChats, getRecentChats } from '../../redux/Slices/chatSlice';
 
 const userSidebarMenuItems = [
     {
@@ -57,7 +57,7 @@ export const Layout = ({ isSidebarCollapsed }) => {
         });
         socket.on("chatNotification", (members) => {
             if (members.members.includes(user._id)) {
-                dispatch(getAllChats())
+                dispatch(getLatestChats())
                 dispatch(getRecentChats())
                 // toast.info(members.message)
             }
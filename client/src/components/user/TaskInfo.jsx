@@ -110,25 +110,23 @@ const TaskInfo = ({ task }) => {
                     </div>
 
                     <div className="mt-3">
-                        <h3 className="font-semibold text-gray-800">Comments</h3>
-                        {task.comments.length > 0 ? (
-                            task.comments.map((comment, index) => (
-                                <article key={index} class="p-2 text-base bg-white rounded-lg ">
-                                    <footer class="flex justify-between items-center mb-2">
-                                        <div class="flex items-center">
-                                            <p class="inline-flex items-center mr-3 text-sm text-gray-800">
-                                                <img
-                                                    class="mr-2 w-6 h-6 rounded-full"
-                                                    src={`https://ui-avatars.com/api/?background=random&name=${comment.commenterName}`} />{comment.commenterName}</p>
-                                            <p class="text-sm text-gray-600 "><time pubdate datetime="2022-02-08"
-                                                title="February 8th, 2022">{comment.createdAt}</time></p>
-                                        </div>
+                        <h3 className="font-semibold text-gray-800">Comments ({task.commentCount || 0})</h3>
+                        {task.commentCount > 0 && task.lastComment ? (
+                            <article class="p-2 text-base bg-white rounded-lg ">
+                                <footer class="flex justify-between items-center mb-2">
+                                    <div class="flex items-center">
+                                        <p class="inline-flex items-center mr-3 text-sm text-gray-800">
+                                            <img
+                                                class="mr-2 w-6 h-6 rounded-full"
+                                                src={`https://ui-avatars.com/api/?background=random&name=${task.lastComment.commenterName}`} />{task.lastComment.commenterName}</p>
+                                        <p class="text-sm text-gray-600 "><time pubdate datetime="2022-02-08"
+                                            title="February 8th, 2022">{new Date(task.lastComment.createdAt).toLocaleString()}</time></p>
+                                    </div>
 
-                                    </footer>
-                                    <p class="text-gray-500 ">{comment.content}</p>
+                                </footer>
+                                <p class="text-gray-500 ">{task.lastComment.content}</p>
 
-                                </article>
-                            ))
+                            </article>
                         ) : (
                             <p className="text-gray-600">No comments yet.</p>
                         )}
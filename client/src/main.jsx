@@ -5,7 +5,13 @@ import App from "./App.jsx";
 import store from "./redux/store";
 import { Provider } from "react-redux";
 import { BrowserRouter } from "react-router-dom";
+import { socket } from "./utils/auth";
 
+// Hooks for the Selenium wait engine (selenium-tests AppWait), dev server only
+if (import.meta.env.DEV) {
+  window.__PMS_STORE__ = store;
+  window.__PMS_SOCKET__ = socket;
+}
 
 createRoot(document.getElementById("root")).render(
   <StrictMode>
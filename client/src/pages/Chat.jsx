@@ -12,7 +12,7 @@ import { useDispatch, useSelector } from 'react-redux';
 import { getAllUsers } from '../redux/Slices/userSlice';
 import { Send } from 'lucide-react';
 import { useForm } from 'react-hook-form';
-import { clearUser, getAllChats, getRecentChats, markAsReadChats, sendChat, setUser } from '../redux/Slices/chatSlice';
+import { clearUser, getAllChats, getLatestChats, getOlderChats, getRecentChats, markAsReadChats, sendChat, setUser } from '../redux/Slices/chatSlice';
 
 const Chat = () => {
     const dispatch = useDispatch()
@@ -21,6 +21,7 @@ const Chat = () => {
     const recentChats = useSelector((state) => state.chat.recentChats);
     const chatUser = useSelector((state) => state.chat.chatUser)
     const allChats = useSelector((state) => state.chat.allChats)
+    const chatCursor = useSelector((state) => state.chat.chatCursor)
     const user = useSelector((state) => state.auth.user)
     const me = useSelector((state) => state.auth.user)
 
@@ -31,9 +32,10 @@ const Chat = () => {
             ...data,
             receiver: chatUser.id
         }
-        dispatch(sendChat(chatData));
-        dispatch(getAllChats());
-        dispatch(getRecentChats())
+        dispatch(sendChat(chatData)).then(() => {
+            dispatch(getLatestChats());
+            dispatch(getRecentChats())
+        });
         reset()
     }
 
@@ -43,11 +45,13 @@ const Chat = () => {
         dispatch(clearUser())
     }, [])
 
+    // Follow new messages, but stay put when older ones are loaded above
+    const newestChatId = allChats[allChats.length - 1]?._id;
     useEffect(() => {
         if (lastChat.current) {
             lastChat.current.scrollIntoView({ behavior: "smooth" });
         }
-    }, [allChats, chatUser]);
+    }, [newestChatId, chatUser]);
 
     return (
         <div className='p-6'>
@@ -97,9 +101,16 @@ const Chat = () => {
                             {chatUser.name}
                         </div>
                         <div className='grow gap-2 m-2 overflow-auto'>
+                            {chatCursor && (
+                                <div className="flex justify-center my-2">
+                                    <Button size="sm" variant="text" color="blue" onClick={() => dispatch(getOlderChats())}>
+                                        Load earlier messages
+                                    </Button>
+                                </div>
+                            )}
                             {allChats.map((chat, index) => (
                                 <div
-                                    key={index}
+                                    key={chat._id}
                                     ref={index === allChats.length - 1 ? lastChat : null}
                                     className={`flex ${user._id == chat.sender ? "justify-end" : ""}`}>
                                     <div className={`flex flex-col m-1 w-full max-w-[320px] py-2 px-3 shadow-sm ${user._id == chat.sender ? "bg-primary-600 text-white rounded-l-xl rounded-tr-xl" : "bg-white dark:bg-dark-secondary text-gray-900 dark:text-white border border-gray-100 dark:border-gray-900 rounded-r-xl rounded-tl-xl"}`}>
@@ -12,7 +12,7 @@ export const Analytics = () => {
     const projectsList = useSelector((state) => state.adminProject.projectsList);
     const isSidebarCollapsed = useSelector((state) => state.global.isSidebarCollapsed);
     const isProjectSelected = useSelector((state) => state.adminColumns.isProjectSelected);
-    const { priority, columns, taskPerColumn } = useSelector((state) => state.adminAnalytics)
+    const { priority, columns, taskPerColumn, burndown } = useSelector((state) => state.adminAnalytics)
 
     // Common options for dark mode visibility
     const commonOptions = {
@@ -90,6 +90,28 @@ export const Analytics = () => {
     }
 
 
+    // Daily snapshots: open tasks left and tasks completed that day
+    const burndownChartConfig = {
+        series: [
+            { name: 'Remaining', type: 'line', data: burndown.remaining },
+            { name: 'Completed', type: 'column', data: burndown.throughput },
+        ],
+        options: {
+            ...commonOptions,
+            chart: {
+                ...commonOptions.chart,
+                height: 350,
+                type: 'line',
+            },
+            stroke: {
+                width: [3, 0],
+            },
+            xaxis: {
+                categories: burndown.days.map((day) => new Date(day).toLocaleDateString()),
+            },
+        },
+    }
+
     const selectedProject = useSelector((state) => state.adminColumns.filters.selectedProject);
 
     const handleProjectSelection = (projectId) => {
@@ -146,6 +168,20 @@ export const Analytics = () => {
                             <Chart options={barChartConfig.options} series={barChartConfig.series} type="bar" height={350} width={500} />
                         </CardBody>
                     </Card>
+                    <Card className="bg-white dark:bg-dark-secondary border border-gray-100 dark:border-gray-900 shadow-sm transition-all duration-300">
+                        <CardBody>
+                            <Typography variant='h3' className="dark:text-white">
+                                Burndown
+                            </Typography>
+                            {burndown.days.length > 0 ? (
+                                <Chart options={burndownChartConfig.options} series={burndownChartConfig.series} type="line" height={350} width={500} />
+                            ) : (
+                                <Typography className="dark:text-gray-400">
+                                    No daily snapshots yet
+                                </Typography>
+                            )}
+                        </CardBody>
+                    </Card>
 
                 </div>
             )}
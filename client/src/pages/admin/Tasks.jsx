@@ -11,7 +11,8 @@ import {
     DialogBody,
     Dialog
 } from '@material-tailwind/react';
-import { fetchColumns, updateTaskOrder, updateLocalTaskOrder, setSelectedProjectId, createColumn, setDuedate, setPriority, setSearch } from '../../redux/Slices/admin/columnSlice';
+import { fetchColumns, refreshColumns, applyDelta, updateTaskOrder, updateLocalTaskOrder, setSelectedProjectId, createColumn, setDuedate, setPriority, setSearch } from '../../redux/Slices/admin/columnSlice';
+import { useBoardSync } from '../../utils/boardSync';
 import { useForm } from 'react-hook-form';
 import { getAllProjects } from '../../redux/Slices/admin/projectSlice';
 import { toast } from 'react-toastify';
@@ -31,6 +32,8 @@ export const Tasks = () => {
     const isSidebarCollapsed = useSelector((state) => state.global.isSidebarCollapsed);
     const isProjectSelected = useSelector((state) => state.adminColumns.isProjectSelected);
     const filters = useSelector((state) => state.adminColumns.filters);
+    const board = useSelector((state) => state.adminColumns.board);
+    const needsResync = useSelector((state) => state.adminColumns.needsResync);
 
 
     const [open, setOpen] = useState(false);
@@ -67,7 +70,7 @@ export const Tasks = () => {
         dispatch(createColumn(columnData)).then((data) => {
             if (data?.payload?.success) {
                 toast.success(data?.payload?.message)
-                dispatch(fetchColumns());
+                dispatch(refreshColumns());
 
             } else {
                 toast.error(data?.payload?.message)
@@ -81,7 +84,7 @@ export const Tasks = () => {
         dispatch(createTask(data)).then((data) => {
             if (data?.payload?.success) {
                 toast.success(data?.payload?.message)
-                dispatch(fetchColumns());
+                dispatch(refreshColumns());
 
             } else {
                 toast.error(data?.payload?.message)
@@ -93,7 +96,7 @@ export const Tasks = () => {
         dispatch(editTask(data)).then((data) => {
             if (data?.payload.success) {
                 toast.success(data?.payload?.message)
-                dispatch(fetchColumns());
+                dispatch(refreshColumns());
             } else {
                 toast.error(data?.payload?.message)
             }
@@ -116,7 +119,7 @@ export const Tasks = () => {
         dispatch(deleteTask(taskId)).then((data) => {
             if (data?.payload?.success) {
                 toast.success(data?.payload?.message)
-                dispatch(fetchColumns());
+                dispatch(refreshColumns());
             } else {
                 toast.error(data?.payload?.message)
             }
@@ -131,44 +134,27 @@ export const Tasks = () => {
         const sourceColumnId = columnsList[source.droppableId]._id;
         const destColumnId = columnsList[destination.droppableId]._id;
         const destColumnName = columnsList[destination.droppableId].name;
-        if (sourceColumnId === destColumnId) {
-            const reorderedTasks = Array.from(columnsList[source.droppableId].tasks);
-            const [removedTask] = reorderedTasks.splice(source.index, 1);
-            reorderedTasks.splice(destination.index, 0, removedTask);
-            dispatch(updateLocalTaskOrder({
-                sourceColumnId,
-                destColumnId,
-                destColumnName,
-                sourceIndex: source.index,
-                destIndex: destination.index,
-                task: removedTask,
-            }));
-            await Promise.all(
-                reorderedTasks.map((task, index) => {
-                    return dispatch(updateTaskOrder({
-                        taskId: task._id,
-                        newColumnId: sourceColumnId,
-                        newIndex: index,
-                    }));
-                })
-            );
-        }
-        else {
-            const draggedTask = columnsList[source.droppableId].tasks[source.index];
-            dispatch(updateLocalTaskOrder({
-                sourceColumnId,
-                destColumnId,
-                destColumnName,
-                sourceIndex: source.index,
-                destIndex: destination.index,
-                task: draggedTask,
-            }));
-            dispatch(updateTaskOrder({
-                taskId: draggableId,
-                newColumnId: destColumnId,
-                newIndex: destination.index,
-            }));
-        }
+        const draggedTask = columnsList[source.droppableId].tasks[source.index];
+        // The cards on either side of the drop point; the server ranks the
+        // dragged card between them, so no other card is renumbered
+        const destTasks = columnsList[destination.droppableId].tasks.filter((task) => task._id !== draggableId);
+        const prevTaskId = destTasks[destination.index - 1]?._id;
+        const nextTaskId = destTasks[destination.index]?._id;
+
+        dispatch(updateLocalTaskOrder({
+            sourceColumnId,
+            destColumnId,
+            destColumnName,
+            sourceIndex: source.index,
+            destIndex: destination.index,
+            task: draggedTask,
+        }));
+        dispatch(updateTaskOrder({
+            taskId: draggableId,
+            newColumnId: destColumnId,
+            prevTaskId,
+            nextTaskId,
+        }));
     };
 
     useEffect(() => {
@@ -183,6 +169,14 @@ export const Tasks = () => {
         }
     }, [filters.selectedProject, dispatch]);
 
+    useBoardSync({
+        projectId: filters.selectedProject,
+        board,
+        needsResync,
+        applyDelta,
+        fetchColumns,
+    });
+
     return (
         <div className="p-6 min-h-screen">
             <div className="flex flex-col md:flex-row justify-between items-center mb-8 gap-4">
@@ -11,7 +11,8 @@ import {
     DialogBody,
     Dialog
 } from '@material-tailwind/react';
-import { fetchColumns, updateTaskOrder, updateLocalTaskOrder, setSelectedProjectId, createColumn, setPriority, setSearch, setDuedate } from '../../redux/Slices/manager/columnSlice';
+import { fetchColumns, refreshColumns, applyDelta, updateTaskOrder, updateLocalTaskOrder, setSelectedProjectId, createColumn, setPriority, setSearch, setDuedate } from '../../redux/Slices/manager/columnSlice';
+import { useBoardSync } from '../../utils/boardSync';
 import { useForm } from 'react-hook-form';
 import { motion } from 'framer-motion';
 import { getAllProjects } from '../../redux/Slices/manager/projectSlice';
@@ -31,6 +32,8 @@ export const Tasks = () => {
     const isSidebarCollapsed = useSelector((state) => state.global.isSidebarCollapsed);
     const isProjectSelected = useSelector((state) => state.managerColumns.isProjectSelected);
     const filters = useSelector((state) => state.managerColumns.filters);
+    const board = useSelector((state) => state.managerColumns.board);
+    const needsResync = useSelector((state) => state.managerColumns.needsResync);
 
     const [open, setOpen] = useState(false);
     const handleOpen = () => setOpen(!open);
@@ -66,7 +69,7 @@ export const Tasks = () => {
         dispatch(createColumn(columnData)).then((data) => {
             if (data?.payload?.success) {
                 toast.success(data?.payload?.message)
-                dispatch(fetchColumns());
+                dispatch(refreshColumns());
 
             } else {
                 toast.error(data?.payload?.message)
@@ -80,7 +83,7 @@ export const Tasks = () => {
         dispatch(createTask(data)).then((data) => {
             if (data?.payload?.success) {
                 toast.success(data?.payload?.message)
-                dispatch(fetchColumns());
+                dispatch(refreshColumns());
                 dispatch(getAllTasks(filters.selectedProject))
             } else {
                 toast.error(data?.payload?.message)
@@ -92,7 +95,7 @@ export const Tasks = () => {
         dispatch(editTask(data)).then((data) => {
             if (data?.payload.success) {
                 toast.success(data?.payload?.message)
-                dispatch(fetchColumns());
+                dispatch(refreshColumns());
             } else {
                 toast.error(data?.payload?.message)
             }
@@ -115,7 +118,7 @@ export const Tasks = () => {
         dispatch(deleteTask(taskId)).then((data) => {
             if (data?.payload?.success) {
                 toast.success(data?.payload?.message)
-                dispatch(fetchColumns());
+                dispatch(refreshColumns());
             } else {
                 toast.error(data?.payload?.message)
             }
@@ -130,44 +133,27 @@ export const Tasks = () => {
         const sourceColumnId = columnsList[source.droppableId]._id;
         const destColumnId = columnsList[destination.droppableId]._id;
         const destColumnName = columnsList[destination.droppableId].name;
-        if (sourceColumnId === destColumnId) {
-            const reorderedTasks = Array.from(columnsList[source.droppableId].tasks);
-            const [removedTask] = reorderedTasks.splice(source.index, 1);
-            reorderedTasks.splice(destination.index, 0, removedTask);
-            dispatch(updateLocalTaskOrder({
-                sourceColumnId,
-                destColumnId,
-                destColumnName,
-                sourceIndex: source.index,
-                destIndex: destination.index,
-                task: removedTask,
-            }));
-            await Promise.all(
-                reorderedTasks.map((task, index) => {
-                    return dispatch(updateTaskOrder({
-                        taskId: task._id,
-                        newColumnId: sourceColumnId,
-                        newIndex: index,
-                    }));
-                })
-            );
-        }
-        else {
-            const draggedTask = columnsList[source.droppableId].tasks[source.index];
-            dispatch(updateLocalTaskOrder({
-                sourceColumnId,
-                destColumnId,
-                destColumnName,
-                sourceIndex: source.index,
-                destIndex: destination.index,
-                task: draggedTask,
-            }));
-            dispatch(updateTaskOrder({
-                taskId: draggableId,
-                newColumnId: destColumnId,
-                newIndex: destination.index,
-            }));
-        }
+        const draggedTask = columnsList[source.droppableId].tasks[source.index];
+        // The cards on either side of the drop point; the server ranks the
+        // dragged card between them, so no other card is renumbered
+        const destTasks = columnsList[destination.droppableId].tasks.filter((task) => task._id !== draggableId);
+        const prevTaskId = destTasks[destination.index - 1]?._id;
+        const nextTaskId = destTasks[destination.index]?._id;
+
+        dispatch(updateLocalTaskOrder({
+            sourceColumnId,
+            destColumnId,
+            destColumnName,
+            sourceIndex: source.index,
+            destIndex: destination.index,
+            task: draggedTask,
+        }));
+        dispatch(updateTaskOrder({
+            taskId: draggableId,
+            newColumnId: destColumnId,
+            prevTaskId,
+            nextTaskId,
+        }));
     };
 
     useEffect(() => {
@@ -182,6 +168,14 @@ export const Tasks = () => {
         }
     }, [filters.selectedProject, dispatch]);
 
+    useBoardSync({
+        projectId: filters.selectedProject,
+        board,
+        needsResync,
+        applyDelta,
+        fetchColumns,
+    });
+
     return (
         <>
             <div className="flex flex-col md:flex-row justify-between items-center mb-8 gap-4 px-6 pt-6">
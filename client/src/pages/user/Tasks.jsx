@@ -8,7 +8,8 @@ import {
     Input,
     Button,
 } from '@material-tailwind/react';
-import { fetchColumns, updateTaskOrder, updateLocalTaskOrder, setSelectedProjectId, setPriority, setSearch, setDuedate } from '../../redux/Slices/user/columnSlice';
+import { fetchColumns, refreshColumns, applyDelta, updateTaskOrder, updateLocalTaskOrder, setSelectedProjectId, setPriority, setSearch, setDuedate } from '../../redux/Slices/user/columnSlice';
+import { useBoardSync } from '../../utils/boardSync';
 import { getAllProjects } from '../../redux/Slices/user/projectSlice';
 import { toast } from 'react-toastify';
 import { createTask, addComment, deleteTask, getAllTasks } from '../../redux/Slices/user/taskSlice';
@@ -25,6 +26,9 @@ export const Tasks = () => {
     const isSidebarCollapsed = useSelector((state) => state.global.isSidebarCollapsed);
     const isProjectSelected = useSelector((state) => state.userColumns.isProjectSelected);
     const filters = useSelector((state) => state.userColumns.filters);
+    const board = useSelector((state) => state.userColumns.board);
+    const needsResync = useSelector((state) => state.userColumns.needsResync);
+    const { user } = useSelector((state) => state.auth);
 
     const onSearchChange = ({ target }) => setSearchText(target.value);
 
@@ -53,7 +57,7 @@ export const Tasks = () => {
         dispatch(createTask(data)).then((data) => {
             if (data?.payload?.success) {
                 toast.success(data?.payload?.message)
-                dispatch(fetchColumns());
+                dispatch(refreshColumns());
                 dispatch(getAllTasks(filters.selectedProject))
             } else {
                 toast.error(data?.payload?.message)
@@ -76,7 +80,7 @@ export const Tasks = () => {
         dispatch(deleteTask(taskId)).then((data) => {
             if (data?.payload?.success) {
                 toast.success(data?.payload?.message)
-                dispatch(fetchColumns());
+                dispatch(refreshColumns());
             } else {
                 toast.error(data?.payload?.message)
             }
@@ -91,44 +95,27 @@ export const Tasks = () => {
         const sourceColumnId = columnsList[source.droppableId]._id;
         const destColumnId = columnsList[destination.droppableId]._id;
         const destColumnName = columnsList[destination.droppableId].name;
-        if (sourceColumnId === destColumnId) {
-            const reorderedTasks = Array.from(columnsList[source.droppableId].tasks);
-            const [removedTask] = reorderedTasks.splice(source.index, 1);
-            reorderedTasks.splice(destination.index, 0, removedTask);
-            dispatch(updateLocalTaskOrder({
-                sourceColumnId,
-                destColumnId,
-                destColumnName,
-                sourceIndex: source.index,
-                destIndex: destination.index,
-                task: removedTask,
-            }));
-            await Promise.all(
-                reorderedTasks.map((task, index) => {
-                    return dispatch(updateTaskOrder({
-                        taskId: task._id,
-                        newColumnId: sourceColumnId,
-                        newIndex: index,
-                    }));
-                })
-            );
-        }
-        else {
-            const draggedTask = columnsList[source.droppableId].tasks[source.index];
-            dispatch(updateLocalTaskOrder({
-                sourceColumnId,
-                destColumnId,
-                destColumnName,
-                sourceIndex: source.index,
-                destIndex: destination.index,
-                task: draggedTask,
-            }));
-            dispatch(updateTaskOrder({
-                taskId: draggableId,
-                newColumnId: destColumnId,
-                newIndex: destination.index,
-            }));
-        }
+        const draggedTask = columnsList[source.droppableId].tasks[source.index];
+        // The cards on either side of the drop point; the server ranks the
+        // dragged card between them, so no other card is renumbered
+        const destTasks = columnsList[destination.droppableId].tasks.filter((task) => task._id !== draggableId);
+        const prevTaskId = destTasks[destination.index - 1]?._id;
+        const nextTaskId = destTasks[destination.index]?._id;
+
+        dispatch(updateLocalTaskOrder({
+            sourceColumnId,
+            destColumnId,
+            destColumnName,
+            sourceIndex: source.index,
+            destIndex: destination.index,
+            task: draggedTask,
+        }));
+        dispatch(updateTaskOrder({
+            taskId: draggableId,
+            newColumnId: destColumnId,
+            prevTaskId,
+            nextTaskId,
+        }));
     };
 
     useEffect(() => {
@@ -142,6 +129,15 @@ export const Tasks = () => {
         }
     }, [filters.selectedProject, dispatch]);
 
+    useBoardSync({
+        projectId: filters.selectedProject,
+        board,
+        needsResync,
+        applyDelta,
+        fetchColumns,
+        viewerId: user._id,
+    });
+
     return (
         <>
             <div className="flex flex-col md:flex-row justify-between items-center mb-8 gap-4 px-6 pt-6">
@@ -3,30 +3,41 @@ import { getToken } from "../../utils/auth";
 import axios from "axios";
 import { API_BASE_URL } from "../../appConfig";
 
+const requestActivityLogs = async (projectId, cursor) => {
+  try {
+    const token = getToken();
+    const response = await axios.get(
+      `${API_BASE_URL}/api/activity/fetchActivityLogs/${projectId}`,
+      {
+        params: cursor ? { cursor } : {},
+        headers: {
+          Authorization: `Bearer ${token}`,
+        },
+      }
+    );
+    return response.data;
+  } catch (error) {
+    return error.response.data;
+  }
+};
+
+// First page of a project's activity, newest first
 export const fetchActivityLogs = createAsyncThunk(
   "api/activity/fetchActivityLogs",
-  async (projectId) => {
-    try {
-      const token = getToken();
-      const response = await axios.get(
-        `${API_BASE_URL}/api/activity/fetchActivityLogs/${projectId}`,
-        {
-          headers: {
-            Authorization: `Bearer ${token}`,
-          },
-        }
-      );
-      return response.data;
-    } catch (error) {
-      return error.response.data;
-    }
-  }
+  async (projectId) => requestActivityLogs(projectId)
+);
+
+// Next page, appended to the list
+export const fetchMoreActivityLogs = createAsyncThunk(
+  "api/activity/fetchMoreActivityLogs",
+  async ({ projectId, cursor }) => requestActivityLogs(projectId, cursor)
 );
 
 const activitySlice = createSlice({
   name: "activityLogSlice",
   initialState: {
     activityList: [],
+    nextCursor: null,
   },
   reducers: {},
   extraReducers: (builder) => {
@@ -35,9 +46,19 @@ const activitySlice = createSlice({
         state.activityList = action.payload.success
           ? action.payload.activityLogs
           : [];
+        state.nextCursor = action.payload.success
+          ? action.payload.nextCursor
+          : null;
       })
       .addCase(fetchActivityLogs.rejected, (state, action) => {
         state.activityList = [];
+        state.nextCursor = null;
+      })
+      .addCase(fetchMoreActivityLogs.fulfilled, (state, action) => {
+        if (action.payload.success) {
+          state.activityList.push(...action.payload.activityLogs);
+          state.nextCursor = action.payload.nextCursor;
+        }
       });
   },
 });
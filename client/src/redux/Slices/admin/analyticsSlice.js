@@ -27,6 +27,7 @@ const initialState = {
   priority: [],
   columns: [],
   taskPerColumn: [],
+  burndown: { days: [], remaining: [], throughput: [] },
 };
 
 const analyticsSlice = createSlice({
@@ -39,6 +40,7 @@ const analyticsSlice = createSlice({
         state.priority = action.payload.data.priority;
         state.columns = action.payload.data.label;
         state.taskPerColumn = action.payload.data.series;
+        state.burndown = action.payload.data.burndown;
       }
     });
   },
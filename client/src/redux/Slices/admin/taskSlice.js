@@ -82,6 +82,27 @@ export const addComment = createAsyncThunk("/api/addComment", async (data) => {
   }
 });
 
+export const getComments = createAsyncThunk(
+  "/api/getComments",
+  async ({ taskId, before }) => {
+    const token = getToken();
+    try {
+      const response = await axios.get(
+        `${API_BASE_URL}/api/admin/getComments/${taskId}`,
+        {
+          params: { before },
+          headers: {
+            Authorization: `Bearer ${token}`,
+          },
+        }
+      );
+      return response.data;
+    } catch (error) {
+      return error.response.data;
+    }
+  }
+);
+
 export const getAllTasks = createAsyncThunk(
   "/api/getAllTasks",
   async (projectId) => {
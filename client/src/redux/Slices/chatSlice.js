@@ -41,12 +41,59 @@ export const getAllChats = createAsyncThunk(
   }
 );
 
+export const getOlderChats = createAsyncThunk(
+  "getOlderChats",
+  async (_, { getState }) => {
+    try {
+      const { chat } = getState();
+      const token = getToken();
+      const response = await axios.get(
+        `${API_BASE_URL}/api/chat/getAllChats/${chat.chatUser.id}`,
+        {
+          params: { before: chat.chatCursor },
+          headers: {
+            Authorization: `Bearer ${token}`,
+          },
+        }
+      );
+      return response.data;
+    } catch (error) {
+      return error.response.data;
+    }
+  }
+);
+
+// Newest page of the open conversation, merged into what is already loaded
+// (older pages included) when a message arrives or is sent
+export const getLatestChats = createAsyncThunk(
+  "getLatestChats",
+  async (_, { getState }) => {
+    try {
+      const { chat } = getState();
+      const token = getToken();
+      const response = await axios.get(
+        `${API_BASE_URL}/api/chat/getAllChats/${chat.chatUser.id}`,
+        {
+          headers: {
+            Authorization: `Bearer ${token}`,
+          },
+        }
+      );
+      return { ...response.data, chatUserId: chat.chatUser.id };
+    } catch (error) {
+      return error.response.data;
+    }
+  },
+  {
+    condition: (_, { getState }) => Boolean(getState().chat.chatUser),
+  }
+);
+
 export const sendChat = createAsyncThunk(
   "sendChat",
-  async (data, { dispatch }) => {
+  async (data) => {
     try {
       const token = getToken();
-      dispatch(getAllChats());
       const response = await axios.post(
         `${API_BASE_URL}/api/chat/sendChat`,
         data,
@@ -88,6 +135,8 @@ const chatSlice = createSlice({
   initialState: {
     recentChats: [],
     allChats: [],
+    // Cursor for the next page of older messages; null when there are none
+    chatCursor: null,
     chatUser: null,
   },
   reducers: {
@@ -107,7 +156,40 @@ const chatSlice = createSlice({
         state.recentChats = action.payload.recentChats;
       })
       .addCase(getAllChats.fulfilled, (state, action) => {
-        state.allChats = action.payload.chats;
+        if (action.payload.success) {
+          // Pages come newest first; the chat window shows oldest first
+          state.allChats = [...action.payload.chats].reverse();
+          state.chatCursor = action.payload.nextCursor;
+        }
+      })
+      .addCase(getLatestChats.fulfilled, (state, action) => {
+        if (
+          !action.payload.success ||
+          action.payload.chatUserId !== state.chatUser?.id
+        ) {
+          return;
+        }
+        if (state.allChats.length === 0) {
+          state.chatCursor = action.payload.nextCursor;
+        }
+        const loaded = new Set(state.allChats.map((chat) => chat._id));
+        const added = action.payload.chats.filter(
+          (chat) => !loaded.has(chat._id)
+        );
+        state.allChats = [...state.allChats, ...added].sort(
+          (a, b) =>
+            new Date(a.createdAt) - new Date(b.createdAt) ||
+            (a._id < b._id ? -1 : 1)
+        );
+      })
+      .addCase(getOlderChats.fulfilled, (state, action) => {
+        if (action.payload.success) {
+          state.allChats = [
+            ...[...action.payload.chats].reverse(),
+            ...state.allChats,
+          ];
+          state.chatCursor = action.payload.nextCursor;
+        }
       });
   },
 });
@@ -6,6 +6,7 @@ import { API_BASE_URL } from "../../appConfig";
 const initialState = {
     notifications:[],
     count:0,
+    nextCursor:null,
 }
 
 export const fetchNotifications = createAsyncThunk(
@@ -28,6 +29,27 @@ export const fetchNotifications = createAsyncThunk(
     }
 )
 
+export const fetchOlderNotifications = createAsyncThunk(
+    "/notification/fetchOlderNotifications",
+    async (userId, { getState }) => {
+        const token = getToken();
+        try{
+            const response = await axios.get(
+                `${API_BASE_URL}/notification/fetchNotifications/${userId}`,
+                {
+                    params: { before: getState().notify.nextCursor },
+                    headers: {
+                        Authorization: `Bearer ${token}`,
+                    }
+                }
+            );
+            return response.data;
+        }catch (error){
+            return error.response.data;
+        }
+    }
+)
+
 export const clearNotification = createAsyncThunk(
     "notification/clearNotifications",
     async (userId) => {
@@ -79,14 +101,27 @@ const notificationSlice = createSlice({
             .addCase(fetchNotifications.fulfilled,(state,action)=>{
                 state.notifications = action.payload.success? action.payload.notifications:[];
                 state.count = action.payload.success? action.payload.count:0;
+                state.nextCursor = action.payload.success? action.payload.nextCursor:null;
+            })
+            .addCase(fetchOlderNotifications.fulfilled,(state,action)=>{
+                if(action.payload.success){
+                    state.notifications = [...state.notifications, ...action.payload.notifications];
+                    state.count = action.payload.count;
+                    state.nextCursor = action.payload.nextCursor;
+                }
             })
             .addCase(markAsReadNotifications.fulfilled,(state,action)=>{
-                state.notifications = action.payload.success? action.payload.notifications:[];
-                state.count = 0;
+                if(action.payload.success){
+                    state.notifications.forEach((notification)=>{
+                        notification.status = 2;
+                    });
+                    state.count = 0;
+                }
             })
             .addCase(clearNotification.fulfilled,(state,action)=>{
                 state.notifications = [];
                 state.count = 0;
+                state.nextCursor = null;
             })
     }
 })
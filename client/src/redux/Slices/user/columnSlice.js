@@ -1,5 +1,6 @@
 import { createSlice, createAsyncThunk } from "@reduxjs/toolkit";
-import { getToken } from "../../../utils/auth";
+import { getToken, socket } from "../../../utils/auth";
+import { applyBoardDelta } from "../../../utils/boardSync";
 import { API_BASE_URL } from "../../../appConfig";
 import axios from "axios";
 import { toast } from "react-toastify";
@@ -47,29 +48,42 @@ const updateTaskPosition = async (taskId, data) => {
 
 export const updateTaskOrder = createAsyncThunk(
   "columns/updateTaskOrder",
-  async ({ taskId, newColumnId, newIndex }, { dispatch }) => {
+  async ({ taskId, newColumnId, prevTaskId, nextTaskId }, { dispatch, rejectWithValue }) => {
     try {
       const response = await updateTaskPosition(taskId, {
         columnId: newColumnId,
-        order: newIndex,
+        prevTaskId,
+        nextTaskId,
       });
 
       if (!response.success) {
+        // Undo the optimistic move
+        dispatch(fetchColumns());
         return rejectWithValue(response.message);
       }
 
-      dispatch(fetchColumns());
-      return { taskId, newColumnId, newIndex };
+      // The server's board delta confirms the move; no reload needed
+      return { taskId, newColumnId };
     } catch (error) {
       return rejectWithValue(error.response.data);
     }
   }
 );
 
+// Live board deltas keep the board current; reload only while offline
+export const refreshColumns = () => (dispatch) => {
+  if (!socket.connected) {
+    dispatch(fetchColumns());
+  }
+};
+
 const columnsSlice = createSlice({
   name: "userColumns",
   initialState: {
     columnsList: [],
+    board: null,
+    needsResync: false,
+    latestDelta: null,
     status: "idle",
     error: null,
     isProjectSelected: false,
@@ -125,6 +139,11 @@ const columnsSlice = createSlice({
     setSelectedProjectId: (state, action) => {
       state.filters.selectedProject = action.payload;
       state.isProjectSelected = true;
+      state.board = null;
+      state.latestDelta = null;
+    },
+    applyDelta: (state, action) => {
+      applyBoardDelta(state, action.payload.delta, action.payload.viewerId);
     },
     setPriority: (state, action) => {
       state.filters.priority = action.payload;
@@ -142,6 +161,16 @@ const columnsSlice = createSlice({
         state.columnsList = action.payload.success
           ? action.payload.columnsWithTasks
           : [];
+        state.board = action.payload.success ? action.payload.board : null;
+        // A delta newer than this board arrived while it was loading
+        const { board, latestDelta } = state;
+        state.needsResync = Boolean(
+          board &&
+            latestDelta &&
+            latestDelta.epoch === board.epoch &&
+            latestDelta.version > board.version
+        );
+        state.latestDelta = null;
         state.status = "succeeded";
       })
       .addCase(fetchColumns.rejected, (state, action) => {
@@ -160,6 +189,7 @@ const columnsSlice = createSlice({
 
 export const {
   updateLocalTaskOrder,
+  applyDelta,
   setSelectedProjectId,
   setDuedate,
   setPriority,
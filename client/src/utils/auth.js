@@ -19,13 +19,24 @@ export const getToken = () => {
 
 export const setToken = (token) => {
     localStorage.setItem('token', token);
+    // Reconnect so the server puts the socket in the new user's rooms
+    socket.disconnect().connect();
 }
 
 export const removeToken = () => {
     localStorage.removeItem('token');
+    socket.disconnect();
 }
 
+// The server only accepts authenticated sockets; the token is read on every
+// (re)connect so it is always the current one.
 export const socket = io(API_BASE_URL, {
     transports: ["websocket", "polling"],
-    withCredentials: true
-})
\ No newline at end of file
+    withCredentials: true,
+    autoConnect: false,
+    auth: (cb) => cb({ token: getToken() })
+})
+
+if (getToken()) {
+    socket.connect();
+}
\ No newline at end of file
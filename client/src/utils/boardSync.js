@@ -0,0 +1,206 @@
+import { useEffect, useRef } from 'react';
+import { useDispatch } from 'react-redux';
+import { socket } from './auth';
+
+const findTask = (columnsList, taskId) => {
+    for (const column of columnsList) {
+        const index = column.tasks.findIndex((task) => task._id === taskId);
+        if (index !== -1) {
+            return { column, index };
+        }
+    }
+    return null;
+};
+
+// Returns the removed task, or null when it is not on the board
+const removeTask = (columnsList, taskId) => {
+    const found = findTask(columnsList, taskId);
+    return found ? found.column.tasks.splice(found.index, 1)[0] : null;
+};
+
+// Cards are kept sorted by their rank (task.order), ties by id, as the server sorts them
+const comesBefore = (a, b) => a.order < b.order || (a.order === b.order && a._id < b._id);
+
+const insertTask = (columnsList, task) => {
+    const column = columnsList.find((col) => col._id === task.columnId);
+    if (!column) {
+        return false;
+    }
+    const index = column.tasks.findIndex((other) => comesBefore(task, other));
+    column.tasks.splice(index === -1 ? column.tasks.length : index, 0, task);
+    return true;
+};
+
+const hasFilters = (filters) => Boolean(filters.priority || filters.dueDate || filters.search);
+
+/**
+ * Applies one board delta from the server to a column slice's state (inside
+ * a reducer). Deltas are idempotent, so ones already contained in the loaded
+ * board are harmless. Whenever a delta cannot be applied safely (a version
+ * gap, a new column, a task that may or may not match the active filters),
+ * it sets state.needsResync and the page reloads the board instead.
+ *
+ * viewerId is set on boards that only show the viewer's own tasks.
+ */
+export const applyBoardDelta = (state, delta, viewerId) => {
+    if (delta.projectId !== state.filters.selectedProject) {
+        return;
+    }
+    const { board } = state;
+    if (!board) {
+        // Board still loading; remember that it may already be behind
+        state.latestDelta = { epoch: delta.epoch, version: delta.version };
+        return;
+    }
+    if (delta.version <= board.version && delta.epoch === board.epoch) {
+        return;
+    }
+    if (delta.epoch !== board.epoch || delta.version > board.version + 1) {
+        state.needsResync = true;
+        return;
+    }
+    board.version = delta.version;
+
+    const columnsList = state.columnsList;
+    const visibleToViewer = (task) =>
+        !viewerId || task.assignees.some((assignee) => assignee._id === viewerId);
+
+    switch (delta.type) {
+        case 'task.moved': {
+            const task = removeTask(columnsList, delta.taskId);
+            if (task) {
+                insertTask(columnsList, {
+                    ...task,
+                    columnId: delta.columnId,
+                    state: delta.state,
+                    order: delta.order,
+                });
+            }
+            break;
+        }
+        case 'task.deleted':
+            removeTask(columnsList, delta.taskId);
+            break;
+        case 'task.created':
+        case 'task.edited': {
+            if (hasFilters(state.filters)) {
+                state.needsResync = true;
+                break;
+            }
+            const existing = findTask(columnsList, delta.task._id);
+            if (!visibleToViewer(delta.task)) {
+                removeTask(columnsList, delta.task._id);
+            } else if (existing) {
+                existing.column.tasks[existing.index] = {
+                    ...existing.column.tasks[existing.index],
+                    ...delta.task,
+                };
+            } else if (delta.type === 'task.created') {
+                insertTask(columnsList, delta.task);
+            } else {
+                state.needsResync = true;
+            }
+            break;
+        }
+        case 'task.commented': {
+            const existing = findTask(columnsList, delta.taskId);
+            if (existing) {
+                const task = existing.column.tasks[existing.index];
+                task.commentCount = delta.commentCount;
+                task.lastComment = delta.lastComment;
+            }
+            break;
+        }
+        case 'tasks.bulk': {
+            // Priority or assignee changes may affect the active filters
+            const affectsFilters = delta.changes.some((change) => change.priority || change.assignees);
+            if (affectsFilters && hasFilters(state.filters)) {
+                state.needsResync = true;
+                break;
+            }
+            delta.changes.forEach(({ taskId, deleted, ...fields }) => {
+                const existing = findTask(columnsList, taskId);
+                if (existing && !deleted && !fields.columnId) {
+                    const updated = { ...existing.column.tasks[existing.index], ...fields };
+                    if (visibleToViewer(updated)) {
+                        existing.column.tasks[existing.index] = updated;
+                    } else {
+                        existing.column.tasks.splice(existing.index, 1);
+                    }
+                    return;
+                }
+                const task = removeTask(columnsList, taskId);
+                if (deleted) {
+                    return;
+                }
+                if (!task) {
+                    // Newly assigned to this viewer, so not on the board yet
+                    if (fields.assignees && visibleToViewer(fields)) {
+                        state.needsResync = true;
+                    }
+                    return;
+                }
+                const updated = { ...task, ...fields };
+                if (visibleToViewer(updated)) {
+                    insertTask(columnsList, updated);
+                }
+            });
+            break;
+        }
+        default:
+            state.needsResync = true;
+    }
+};
+
+/**
+ * Subscribes the open board to live deltas over the socket. On (re)connect
+ * it sends the board version it has, so the server replays only what was
+ * missed; when that is no longer possible the board is reloaded.
+ */
+export const useBoardSync = ({
+    projectId,
+    board,
+    needsResync,
+    applyDelta,
+    fetchColumns,
+    viewerId,
+}) => {
+    const dispatch = useDispatch();
+    const boardRef = useRef(board);
+    boardRef.current = board;
+
+    useEffect(() => {
+        if (!projectId) {
+            return undefined;
+        }
+        const subscribe = () => {
+            const current = boardRef.current;
+            socket.emit('board:subscribe', current
+                ? { projectId, epoch: current.epoch, version: current.version }
+                : { projectId });
+        };
+        const handleDelta = (delta) => dispatch(applyDelta({ delta, viewerId }));
+        const handleResync = (data) => {
+            if (data.projectId === projectId) {
+                dispatch(fetchColumns());
+            }
+        };
+
+        subscribe();
+        socket.on('connect', subscribe);
+        socket.on('boardDelta', handleDelta);
+        socket.on('board:resync', handleResync);
+        return () => {
+            socket.off('connect', subscribe);
+            socket.off('boardDelta', handleDelta);
+            socket.off('board:resync', handleResync);
+            socket.emit('board:unsubscribe', { projectId });
+        };
+    }, [projectId, viewerId, dispatch]);
+
+    useEffect(() => {
+        if (needsResync) {
+            dispatch(fetchColumns());
+        }
+    }, [needsResync, dispatch]);
+};
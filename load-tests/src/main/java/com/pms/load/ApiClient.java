@@ -0,0 +1,160 @@
+package com.pms.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Thin HTTP client for the PMS REST API. Every call is timed and recorded
+ * against a route label (e.g. "PUT /api/admin/updateTaskPosition/:taskId")
+ * so the report groups by endpoint rather than by concrete URL.
+ */
+final class ApiClient {
+
+    static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration timeout;
+
+    ApiClient(LoadConfig config, Executor executor) {
+        this.baseUrl = config.baseUrl;
+        this.timeout = config.requestTimeout;
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(config.requestTimeout)
+            .executor(executor)
+            .build();
+    }
+
+    JsonNode get(EndpointMetrics metrics, String route, String path, Map<String, String> query, String token) {
+        HttpRequest.Builder request = newRequest(path + queryString(query), token).GET();
+        return send(metrics, route, request.build());
+    }
+
+    JsonNode postJson(EndpointMetrics metrics, String route, String path, Object body, String token) {
+        return sendJson(metrics, route, path, "POST", body, token);
+    }
+
+    JsonNode putJson(EndpointMetrics metrics, String route, String path, Object body, String token) {
+        return sendJson(metrics, route, path, "PUT", body, token);
+    }
+
+    /**
+     * Sends a multipart/form-data body the same way the React client does for
+     * createTask: repeated "field[]" parts for arrays, no file parts.
+     */
+    JsonNode postMultipart(EndpointMetrics metrics, String route, String path,
+                           Map<String, Object> fields, String token) {
+        String boundary = "----pms-load-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (field.getValue() instanceof List<?> values) {
+                for (Object value : values) {
+                    writePart(body, boundary, field.getKey() + "[]", String.valueOf(value));
+                }
+            } else {
+                writePart(body, boundary, field.getKey(), String.valueOf(field.getValue()));
+            }
+        }
+        body.writeBytes(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest request = newRequest(path, token)
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+            .build();
+        return send(metrics, route, request);
+    }
+
+    private JsonNode sendJson(EndpointMetrics metrics, String route, String path,
+                              String method, Object body, String token) {
+        try {
+            byte[] payload = JSON.writeValueAsBytes(body);
+            HttpRequest request = newRequest(path, token)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build();
+            return send(metrics, route, request);
+        } catch (Exception e) {
+            throw new LoadFailure(route + " could not serialise request: " + e.getMessage());
+        }
+    }
+
+    private HttpRequest.Builder newRequest(String pathAndQuery, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+            .timeout(timeout);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode send(EndpointMetrics metrics, String route, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            metrics.record(route, elapsedMicros(start), false);
+            throw new LoadFailure(route + " interrupted");
+        } catch (Exception e) {
+            metrics.record(route, elapsedMicros(start), false);
+            throw new LoadFailure(route + " failed: " + e.getClass().getSimpleName());
+        }
+        long micros = elapsedMicros(start);
+        boolean ok = response.statusCode() >= 200 && response.statusCode() < 300;
+        metrics.record(route, micros, ok);
+        if (!ok) {
+            throw new LoadFailure(route + " returned HTTP " + response.statusCode());
+        }
+        try {
+            byte[] bytes = response.body();
+            return bytes.length == 0 ? MissingNode.getInstance() : JSON.readTree(bytes);
+        } catch (Exception e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    private static void writePart(ByteArrayOutputStream out, String boundary, String name, String value) {
+        String part = "--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+            + value + "\r\n";
+        out.writeBytes(part.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String queryString(Map<String, String> query) {
+        if (query == null || query.isEmpty()) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner("&", "?", "");
+        query.forEach((key, value) -> joiner.add(
+            URLEncoder.encode(key, StandardCharsets.UTF_8) + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return joiner.toString();
+    }
+
+    private static long elapsedMicros(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000L;
+    }
+
+    /** A failed step; aborts the current virtual client's workflow. */
+    static final class LoadFailure extends RuntimeException {
+        LoadFailure(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.pms.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One virtual client. Replays the same journey as the Selenium suite
+ * (register → login → dashboard → create project) and then keeps working
+ * the board: load columns, add a card, drag it across columns and chat.
+ */
+final class BoardWorkflow implements Runnable {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final String PASSWORD = "Load@123";
+
+    private final ApiClient api;
+    private final EndpointMetrics metrics;
+    private final LoadConfig config;
+    // Last registered user, used as the chat partner of the next client
+    private final AtomicReference<String> lastUserId;
+
+    BoardWorkflow(ApiClient api, EndpointMetrics metrics, LoadConfig config, AtomicReference<String> lastUserId) {
+        this.api = api;
+        this.metrics = metrics;
+        this.config = config;
+        this.lastUserId = lastUserId;
+    }
+
+    @Override
+    public void run() {
+        try {
+            runJourney();
+        } catch (ApiClient.LoadFailure ignored) {
+            // Already counted as an error against the failing endpoint
+        }
+    }
+
+    private void runJourney() {
+        long clientNo = SEQUENCE.incrementAndGet();
+        String email = "load_" + System.currentTimeMillis() + "_" + clientNo + "@example.com";
+
+        // ---------- Register & Login ----------
+        api.postJson(metrics, "POST /auth/register", "/auth/register",
+            Map.of("name", "Load User", "email", email, "password", PASSWORD), null);
+        JsonNode login = api.postJson(metrics, "POST /auth/login", "/auth/login",
+            Map.of("email", email, "password", PASSWORD), null);
+        String token = login.path("token").asText();
+        String userId = login.path("user").path("_id").asText();
+        if (token.isEmpty() || userId.isEmpty()) {
+            throw new ApiClient.LoadFailure("login returned no token");
+        }
+        String partnerId = lastUserId.getAndSet(userId);
+
+        api.get(metrics, "GET /auth/checkAuth", "/auth/checkAuth", null, token);
+
+        // ---------- Dashboard ----------
+        api.get(metrics, "GET /api/admin/getDashboard", "/api/admin/getDashboard", null, token);
+        api.get(metrics, "GET /api/admin/getDashboardTable", "/api/admin/getDashboardTable", null, token);
+
+        // ---------- Create Project ----------
+        Map<String, Object> project = new LinkedHashMap<>();
+        project.put("name", "Load Project " + clientNo);
+        project.put("description", "Created by the load generator");
+        project.put("projectManager", userId);
+        project.put("teamMembers", List.of(userId));
+        JsonNode created = api.postJson(metrics, "POST /api/admin/createProject", "/api/admin/createProject",
+            project, token);
+        String projectId = created.path("project").path("_id").asText();
+        api.get(metrics, "GET /api/admin/getAllProjects", "/api/admin/getAllProjects", null, token);
+
+        // ---------- Board ----------
+        List<String> columnIds = loadBoard(token, projectId, userId);
+        if (columnIds.isEmpty()) {
+            throw new ApiClient.LoadFailure("project " + projectId + " has no columns");
+        }
+
+        for (int i = 0; i < config.boardIterations; i++) {
+            Map<String, Object> task = new LinkedHashMap<>();
+            task.put("name", "Load task " + i);
+            task.put("description", "Fix api endpoint latency under load");
+            task.put("priority", "Medium");
+            task.put("dueDate", "2030-01-01");
+            task.put("projectId", projectId);
+            task.put("createdBy", userId);
+            task.put("columnId", columnIds.get(0));
+            task.put("state", "Todo");
+            task.put("assignees", List.of(userId));
+            JsonNode createdTask = api.postMultipart(metrics, "POST /api/admin/createTask", "/api/admin/createTask",
+                task, token);
+            String taskId = createdTask.path("task").path("_id").asText();
+
+            // Drag the new card to the end of the next column (never straight into Completed)
+            String target = columnIds.get(Math.min(1, columnIds.size() - 1));
+            api.putJson(metrics, "PUT /api/admin/updateTaskPosition/:taskId",
+                "/api/admin/updateTaskPosition/" + taskId, Map.of("columnId", target), token);
+
+            loadBoard(token, projectId, userId);
+
+            if (partnerId != null) {
+                api.postJson(metrics, "POST /api/chat/sendChat", "/api/chat/sendChat",
+                    Map.of("receiver", partnerId, "chat", "ping " + ThreadLocalRandom.current().nextInt()), token);
+            }
+        }
+
+        api.get(metrics, "GET /api/chat/getRecentChats", "/api/chat/getRecentChats", null, token);
+        api.get(metrics, "GET /api/admin/getAnalytics/:projectId", "/api/admin/getAnalytics/" + projectId, null, token);
+    }
+
+    /**
+     * Loads the board both as the admin sees it and as a team member sees it,
+     * returning the admin view's column ids in display order.
+     */
+    private List<String> loadBoard(String token, String projectId, String userId) {
+        JsonNode board = api.get(metrics, "GET /api/admin/getColumns", "/api/admin/getColumns",
+            Map.of("filters[selectedProject]", projectId), token);
+        api.get(metrics, "GET /api/user/getColumns", "/api/user/getColumns",
+            Map.of("filters[selectedProject]", projectId, "userId", userId), token);
+
+        List<String> columnIds = new ArrayList<>();
+        for (JsonNode column : board.path("columnsWithTasks")) {
+            columnIds.add(column.path("_id").asText());
+        }
+        return columnIds;
+    }
+}
@@ -0,0 +1,79 @@
+package com.pms.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency and error counters for one load stage.
+ */
+final class EndpointMetrics {
+
+    private static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final Map<String, Stats> byEndpoint = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long micros, boolean ok) {
+        Stats stats = byEndpoint.computeIfAbsent(endpoint, k -> new Stats());
+        stats.latency.record(micros);
+        if (!ok) {
+            stats.errors.increment();
+        }
+    }
+
+    void printReport(PrintStream out, String stageLabel, double elapsedSeconds) {
+        out.println("--------------------------------------------------------------------------------------------");
+        out.println("  STAGE " + stageLabel + "  (" + String.format("%.1f", elapsedSeconds) + "s)");
+        out.println("--------------------------------------------------------------------------------------------");
+        out.println(String.format("  %-42s %8s %7s %9s %9s %9s %9s",
+            "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms"));
+        long allCount = 0;
+        for (Map.Entry<String, Stats> entry : new TreeMap<>(byEndpoint).entrySet()) {
+            Stats stats = entry.getValue();
+            long count = stats.latency.count();
+            allCount += count;
+            out.println(String.format("  %-42s %8d %7d %9.1f %9.1f %9.1f %9.1f",
+                entry.getKey(), count, stats.errors.sum(), count / elapsedSeconds,
+                millis(stats.latency.percentileMicros(50)),
+                millis(stats.latency.percentileMicros(95)),
+                millis(stats.latency.percentileMicros(99))));
+        }
+        out.println(String.format("  %-42s %8d %7s %9.1f", "TOTAL", allCount, "", allCount / elapsedSeconds));
+    }
+
+    void appendCsv(Path file, String stageLabel, double elapsedSeconds) throws IOException {
+        boolean writeHeader = !Files.exists(file);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (writeHeader) {
+                writer.write("stage,endpoint,count,errors,throughput,p50_ms,p95_ms,p99_ms,max_ms\n");
+            }
+            for (Map.Entry<String, Stats> entry : new TreeMap<>(byEndpoint).entrySet()) {
+                Stats stats = entry.getValue();
+                long count = stats.latency.count();
+                writer.write(String.format(Locale.ROOT, "%s,\"%s\",%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+                    stageLabel, entry.getKey(), count, stats.errors.sum(), count / elapsedSeconds,
+                    millis(stats.latency.percentileMicros(50)),
+                    millis(stats.latency.percentileMicros(95)),
+                    millis(stats.latency.percentileMicros(99)),
+                    millis(stats.latency.maxMicros())));
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
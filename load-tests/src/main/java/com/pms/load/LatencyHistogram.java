@@ -0,0 +1,66 @@
+package com.pms.load;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-spaced buckets (~1% relative error),
+ * so thousands of client threads can record into it without contention and
+ * memory stays flat no matter how long the run is.
+ */
+final class LatencyHistogram {
+
+    private static final double GROWTH = 1.01;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    // 1 microsecond .. ~2 minutes
+    private static final long MAX_MICROS = 120_000_000L;
+    private static final int BUCKETS = bucketOf(MAX_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    void record(long micros) {
+        long clamped = Math.max(1L, Math.min(micros, MAX_MICROS));
+        counts.incrementAndGet(bucketOf(clamped));
+        total.increment();
+        max.accumulate(micros);
+    }
+
+    long count() {
+        return total.sum();
+    }
+
+    long maxMicros() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile value in (0, 100]
+     * @return upper bound of the bucket holding that percentile, in microseconds
+     */
+    long percentileMicros(double percentile) {
+        long n = count();
+        if (n == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(n * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros());
+            }
+        }
+        return maxMicros();
+    }
+
+    private static int bucketOf(long micros) {
+        return (int) (Math.log(micros) / LOG_GROWTH);
+    }
+
+    private static long upperBound(int bucket) {
+        return (long) Math.ceil(Math.pow(GROWTH, bucket + 1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.pms.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load run settings, read from system properties so a run can be tuned
+ * straight from the command line:
+ *
+ *   mvn compile exec:java -Dload.baseUrl=http://localhost:8800 -Dload.arrivalRates=50,100,200,400
+ *
+ * Each entry in load.arrivalRates is one stage: new virtual clients arrive at
+ * that many per second for load.stageSeconds, and the report is printed per
+ * stage so the point where latency bends upwards is easy to spot.
+ */
+public final class LoadConfig {
+
+    final String baseUrl;
+    final List<Integer> arrivalRates;
+    final Duration stageDuration;
+    final int maxClients;
+    final int boardIterations;
+    final Duration requestTimeout;
+    final String csvReport;
+
+    private LoadConfig() {
+        this.baseUrl = stripTrailingSlash(System.getProperty("load.baseUrl", "http://localhost:8800"));
+        this.arrivalRates = parseRates(System.getProperty("load.arrivalRates", "20,50,100"));
+        this.stageDuration = Duration.ofSeconds(Long.getLong("load.stageSeconds", 30L));
+        this.maxClients = Integer.getInteger("load.maxClients", 5000);
+        this.boardIterations = Integer.getInteger("load.boardIterations", 5);
+        this.requestTimeout = Duration.ofSeconds(Long.getLong("load.timeoutSeconds", 30L));
+        this.csvReport = System.getProperty("load.csv", "load-report.csv");
+    }
+
+    public static LoadConfig fromSystemProperties() {
+        return new LoadConfig();
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private static List<Integer> parseRates(String value) {
+        List<Integer> rates = new ArrayList<>();
+        for (String part : value.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int rate = Integer.parseInt(trimmed);
+            if (rate <= 0) {
+                throw new IllegalArgumentException("load.arrivalRates must be positive, got " + rate);
+            }
+            rates.add(rate);
+        }
+        if (rates.isEmpty()) {
+            throw new IllegalArgumentException("load.arrivalRates must name at least one stage");
+        }
+        return rates;
+    }
+
+    @Override
+    public String toString() {
+        return "baseUrl=" + baseUrl
+            + ", arrivalRates=" + arrivalRates + "/s"
+            + ", stage=" + stageDuration.getSeconds() + "s"
+            + ", maxClients=" + maxClients
+            + ", boardIterations=" + boardIterations;
+    }
+}
@@ -0,0 +1,107 @@
+package com.pms.load;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ============================================================
+ *  LOAD TEST - Project Management System
+ * ============================================================
+ *  Drives the board workflows straight against the REST API
+ *  (no browser) from thousands of concurrent clients.
+ *
+ *  Run:  mvn compile exec:java -Dload.arrivalRates=50,100,200
+ *
+ *  Clients arrive at a fixed rate per stage (open model), so a
+ *  slow server shows up as growing latency instead of being
+ *  hidden by clients that wait politely. Once a stage's clients
+ *  have finished, p50/p95/p99 and throughput per endpoint are
+ *  printed and appended to the CSV report.
+ * ============================================================
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+
+        System.out.println("============================================");
+        System.out.println("  STARTING LOAD TEST");
+        System.out.println("  " + config);
+        System.out.println("============================================");
+
+        ExecutorService clients = newClientExecutor();
+        ApiClient api = new ApiClient(config, clients);
+        AtomicReference<String> lastUserId = new AtomicReference<>();
+        int launched = 0;
+
+        for (int stage = 0; stage < config.arrivalRates.size() && launched < config.maxClients; stage++) {
+            int rate = config.arrivalRates.get(stage);
+            EndpointMetrics metrics = new EndpointMetrics();
+            String label = (stage + 1) + "@" + rate + "/s";
+            System.out.println("\n>>> STAGE " + label + " <<<");
+
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+            long stageStart = System.nanoTime();
+            long stageEnd = stageStart + config.stageDuration.toNanos();
+            long nextArrival = stageStart;
+            List<Future<?>> inFlight = new ArrayList<>();
+
+            while (nextArrival < stageEnd && launched < config.maxClients) {
+                long wait = nextArrival - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                inFlight.add(clients.submit(new BoardWorkflow(api, metrics, config, lastUserId)));
+                launched++;
+                nextArrival += intervalNanos;
+            }
+
+            // Let this stage's clients finish so its numbers are not cut short
+            for (Future<?> client : inFlight) {
+                try {
+                    client.get();
+                } catch (ExecutionException e) {
+                    System.out.println("   ⚠️ Client crashed: " + e.getCause());
+                }
+            }
+
+            double elapsed = (System.nanoTime() - stageStart) / 1e9;
+            metrics.printReport(System.out, label, elapsed);
+            metrics.appendCsv(Path.of(config.csvReport), label, elapsed);
+        }
+
+        clients.shutdown();
+
+        System.out.println("============================================");
+        System.out.println("  LOAD TEST COMPLETED - " + launched + " clients");
+        System.out.println("  Report: " + Path.of(config.csvReport).toAbsolutePath());
+        System.out.println("============================================");
+        System.exit(0);
+    }
+
+    /**
+     * Virtual threads when the JVM has them (Java 21+), so thousands of
+     * blocked HTTP clients cost almost nothing; a cached pool otherwise,
+     * which keeps the module building on the Java 17 toolchain the
+     * Selenium suite uses.
+     */
+    private static ExecutorService newClientExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("   INFO: Virtual threads unavailable, falling back to platform threads");
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
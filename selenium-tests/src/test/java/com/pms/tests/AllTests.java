@@ -1,19 +1,18 @@
 package com.pms.tests;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.pms.tests.support.AppWait;
+import com.pms.tests.support.DriverPool;
+import com.pms.tests.support.PerfRecorder;
+import com.pms.tests.support.TestEnv;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
-import org.openqa.selenium.JavascriptExecutor;
 import org.testng.Assert;
 import org.testng.annotations.*;
 
 import java.time.Duration;
-import java.util.List;
 
 /**
  * ============================================================
@@ -22,15 +21,21 @@ import java.util.List;
  *  RIGHT-CLICK this file → Run As → Maven test / TestNG Test
  *  Everything runs AUTOMATICALLY. No manual input needed!
  * 
- *  Flow: Register → Login → Dashboard → Create Project
+ *  Flow: Register → Login
+ *
+ *  Dashboard and Create Project run in parallel next to this
+ *  class (DashboardTests, ProjectTests), each with its own
+ *  seeded user and browser from the DriverPool.
  * ============================================================
  */
 public class AllTests {
 
     private WebDriver driver;
     private WebDriverWait wait;
+    private AppWait appWait;
+    private PerfRecorder perf;
 
-    private static final String BASE_URL = "http://localhost:5173";
+    private static final String BASE_URL = TestEnv.BASE_URL;
 
     // Unique email every run — prevents "user already exists" errors
     private static final String TEST_NAME = "Test User";
@@ -39,8 +44,6 @@ public class AllTests {
 
     // ==================== SETUP & TEARDOWN ====================
 
-    // ==================== SETUP & TEARDOWN ====================
-
     @BeforeClass
     public void setupBrowser() {
         System.out.println("============================================");
@@ -48,19 +51,10 @@ public class AllTests {
         System.out.println("  Test Email: " + TEST_EMAIL);
         System.out.println("============================================");
 
-        WebDriverManager.chromedriver().setup();
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--remote-allow-origins=*");
-        // options.addArguments("--headless"); // Uncomment to run headless if needed
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        driver.manage().window().maximize();
-        // Reduced implicit wait to avoid long hangs on missing elements
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(2));
+        driver = DriverPool.acquire();
         wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+        appWait = new AppWait(driver);
+        perf = new PerfRecorder(driver, appWait);
     }
 
     @AfterClass
@@ -68,17 +62,12 @@ public class AllTests {
         System.out.println("============================================");
         System.out.println("  ALL TESTS COMPLETED!");
         System.out.println("============================================");
-        if (driver != null) {
-            try {
-                driver.quit();
-            } catch (Exception e) {
-                // ignore
-            }
-        }
+        DriverPool.release(driver);
+        driver = null;
     }
 
     /**
-     * Ensures driver is active. If crashed/closed, restarts it.
+     * Ensures driver is active. If crashed/closed, swaps in a fresh one from the pool.
      */
     private void ensureDriver() {
         if (driver == null) {
@@ -89,13 +78,17 @@ public class AllTests {
             driver.getCurrentUrl(); // This throws if session is invalid
         } catch (Exception e) {
             System.out.println("   ⚠️ Browser session lost (" + e.getMessage() + ")! Restarting...");
-            try { driver.quit(); } catch (Exception ignore) {}
-            setupBrowser();
+            driver = DriverPool.replace(driver);
+            wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+            appWait = new AppWait(driver);
+            perf = new PerfRecorder(driver, appWait);
         }
     }
 
     /**
-     * Helper: clears cookies and storage so we start fresh (logged out)
+     * Helper: clears cookies and storage so we start fresh (logged out).
+     * Storage is cleared from a static asset on the app origin, so the app never
+     * boots with the old token and the next open() lands on the right page first time.
      */
     private void logout() {
         ensureDriver();
@@ -103,7 +96,7 @@ public class AllTests {
             // Only clear if we are not already on login page
             if (!driver.getCurrentUrl().contains("/login")) {
                 driver.manage().deleteAllCookies();
-                driver.get(BASE_URL + "/auth/login");
+                driver.get(BASE_URL + "/vite.svg");
                 org.openqa.selenium.JavascriptExecutor js = (org.openqa.selenium.JavascriptExecutor) driver;
                 js.executeScript("localStorage.clear(); sessionStorage.clear();");
             }
@@ -119,9 +112,7 @@ public class AllTests {
     public void test01_RegistrationPageLoads() {
         System.out.println("\n>>> MODULE 1: REGISTRATION PAGE <<<");
         logout();
-        driver.get(BASE_URL + "/auth/register");
-        try { Thread.sleep(500); } catch (InterruptedException e) {}
-        driver.get(BASE_URL + "/auth/register");
+        perf.open("register-page", "/auth/register");
 
         WebElement form = wait.until(
             ExpectedConditions.visibilityOfElementLocated(By.id("register-form"))
@@ -193,10 +184,7 @@ public class AllTests {
         System.out.println("\n>>> MODULE 2: LOGIN PAGE <<<");
         // Clear auth state to access login page
         logout();
-        try { Thread.sleep(500); } catch (InterruptedException e) {}
-        driver.get(BASE_URL + "/auth/login");
-        try { Thread.sleep(500); } catch (InterruptedException e) {}
-        driver.get(BASE_URL + "/auth/login");
+        perf.open("login-page", "/auth/login");
 
         WebElement form = wait.until(
             ExpectedConditions.visibilityOfElementLocated(By.id("login-form"))
@@ -229,10 +217,7 @@ public class AllTests {
     public void test08_InvalidLoginShowsError() {
         // First make sure we're on the login page fresh
         logout();
-        try { Thread.sleep(500); } catch (InterruptedException e) {}
-        driver.get(BASE_URL + "/auth/login");
-        try { Thread.sleep(500); } catch (InterruptedException e) {}
-        driver.get(BASE_URL + "/auth/login");
+        appWait.open("/auth/login");
         wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("login-form")));
 
         // Enter wrong credentials
@@ -259,18 +244,14 @@ public class AllTests {
             System.out.println("   PASS: Invalid login kept user on login page");
         }
 
-        // Wait for any toast to clear
-        try { Thread.sleep(1000); } catch (InterruptedException e) {}
+        // No need to wait for the toast to clear: the next test reloads the page
     }
 
     @Test(priority = 9, dependsOnMethods = "test06_LoginFormFieldsExist")
     public void test09_SuccessfulLogin() {
         // Make sure we're logged out first
         logout();
-        try { Thread.sleep(500); } catch (InterruptedException e) {}
-        driver.get(BASE_URL + "/auth/login");
-        try { Thread.sleep(500); } catch (InterruptedException e) {}
-        driver.get(BASE_URL + "/auth/login");
+        appWait.open("/auth/login");
         wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("login-form")));
 
         // Enter valid credentials
@@ -278,15 +259,11 @@ public class AllTests {
         WebElement emailInput = driver.findElement(By.id("login-email"));
         emailInput.clear();
         emailInput.sendKeys(TEST_EMAIL);
-        
-        try { Thread.sleep(200); } catch (InterruptedException e) {}
 
         WebElement passwordInput = driver.findElement(By.id("login-password"));
         passwordInput.clear();
         passwordInput.sendKeys(TEST_PASSWORD);
 
-        try { Thread.sleep(200); } catch (InterruptedException e) {}
-
         driver.findElement(By.id("login-submit")).click();
 
         // Wait for redirect to dashboard
@@ -315,401 +292,4 @@ public class AllTests {
             "Should be on dashboard after successful login");
         System.out.println("   PASS: Login successful and URL verified: " + driver.getCurrentUrl());
     }
-
-    // ==================== MODULE 3: HOME PAGE (DASHBOARD) ====================
-
-    @Test(priority = 10, dependsOnMethods = "test09_SuccessfulLogin")
-    public void test10_DashboardPageLoads() {
-        System.out.println("\n>>> MODULE 3: HOME PAGE (DASHBOARD) <<<");
-
-        // Login if not already logged in
-        if (!driver.getCurrentUrl().contains("/dashboard")) {
-            loginHelper();
-        }
-
-        // Wait for dashboard to fully load
-        wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("dashboard-page")));
-
-        WebElement dashboardPage = wait.until(
-            ExpectedConditions.visibilityOfElementLocated(By.id("dashboard-page"))
-        );
-        Assert.assertTrue(dashboardPage.isDisplayed(), "Dashboard page should be visible");
-        System.out.println("   PASS: Dashboard page loaded successfully");
-    }
-
-    @Test(priority = 11, dependsOnMethods = "test10_DashboardPageLoads")
-    public void test11_DashboardHasStatisticsCards() {
-        WebElement totalTasks = driver.findElement(By.xpath("//*[contains(text(),'Total Tasks')]"));
-        Assert.assertTrue(totalTasks.isDisplayed(), "Total Tasks card should be visible");
-
-        WebElement todoTasks = driver.findElement(By.xpath("//*[contains(text(),'Todo Tasks')]"));
-        Assert.assertTrue(todoTasks.isDisplayed(), "Todo Tasks card should be visible");
-
-        WebElement inProgressTasks = driver.findElement(By.xpath("//*[contains(text(),'In Progress')]"));
-        Assert.assertTrue(inProgressTasks.isDisplayed(), "In Progress card should be visible");
-
-        WebElement completedTasks = driver.findElement(By.xpath("//*[contains(text(),'Completed')]"));
-        Assert.assertTrue(completedTasks.isDisplayed(), "Completed Tasks card should be visible");
-
-        System.out.println("   PASS: All statistics cards are displayed");
-    }
-
-    @Test(priority = 12, dependsOnMethods = "test10_DashboardPageLoads")
-    public void test12_DashboardHasProjectsSection() {
-        WebElement projectsHeader = driver.findElement(
-            By.xpath("//*[contains(text(),'Projects')]")
-        );
-        Assert.assertTrue(projectsHeader.isDisplayed(), "Projects section should be visible");
-        System.out.println("   PASS: Projects section is visible on dashboard");
-    }
-
-    @Test(priority = 13, dependsOnMethods = "test10_DashboardPageLoads")
-    public void test13_DashboardURLIsCorrect() {
-        String currentUrl = driver.getCurrentUrl();
-        Assert.assertTrue(currentUrl.contains("/dashboard"),
-            "URL should contain /dashboard, but was: " + currentUrl);
-        System.out.println("   PASS: Dashboard URL is correct: " + currentUrl);
-    }
-
-    // ==================== MODULE 4: CREATE PROJECT (FUNCTIONALITY) ====================
-
-    @Test(priority = 14, dependsOnMethods = "test09_SuccessfulLogin")
-    public void test14_ProjectsPageLoads() {
-        System.out.println("\n>>> MODULE 4: CREATE PROJECT FUNCTIONALITY <<<");
-
-        // Make sure logged in, then navigate to projects
-        // Fix: Check for both dashboard and admin to avoid unnecessary helper calls
-        if (!driver.getCurrentUrl().contains("/admin") && !driver.getCurrentUrl().contains("/dashboard")) {
-            loginHelper();
-        }
-        driver.get(BASE_URL + "/admin/projects");
-        wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("projects-page")));
-
-        WebElement projectsPage = wait.until(
-            ExpectedConditions.visibilityOfElementLocated(By.id("projects-page"))
-        );
-        Assert.assertTrue(projectsPage.isDisplayed(), "Projects page should be visible");
-        System.out.println("   PASS: Projects page loaded successfully");
-    }
-
-    @Test(priority = 15, dependsOnMethods = "test14_ProjectsPageLoads")
-    public void test15_CreateProjectButtonExists() {
-        WebElement createBtn = wait.until(
-            ExpectedConditions.visibilityOfElementLocated(By.id("create-project-btn"))
-        );
-        Assert.assertTrue(createBtn.isDisplayed(), "Create Project button should be visible");
-        System.out.println("   PASS: Create Project (+) button is visible");
-    }
-
-    @Test(priority = 16, dependsOnMethods = "test15_CreateProjectButtonExists")
-    public void test16_CreateProjectDialogOpens() {
-        WebElement createBtn = wait.until(
-            ExpectedConditions.elementToBeClickable(By.id("create-project-btn"))
-        );
-        createBtn.click();
-
-        // Wait for dialog to open
-        try { Thread.sleep(1000); } catch (InterruptedException e) {}
-
-        WebElement projectName = wait.until(
-            ExpectedConditions.visibilityOfElementLocated(By.id("project-name"))
-        );
-        Assert.assertTrue(projectName.isDisplayed(), "Project Name field should be visible");
-
-        WebElement projectDesc = driver.findElement(By.id("project-description"));
-        Assert.assertTrue(projectDesc.isDisplayed(), "Project Description should be visible");
-
-        WebElement submitBtn = driver.findElement(By.id("project-submit"));
-        Assert.assertTrue(submitBtn.isDisplayed(), "Submit button should be visible");
-        System.out.println("   PASS: Create Project dialog opened with all fields");
-    }
-
-    // ==================== IMPROVED HELPER METHODS ====================
-
-    private void loginHelper() {
-        // If already on a page with sidebar or dashboard, assume logged in
-        if (driver.getCurrentUrl().contains("/dashboard") || driver.getCurrentUrl().contains("/admin")) {
-            System.out.println("   INFO: Already logged in, skipping login helper.");
-            return;
-        }
-
-        // Force logout only if strictly necessary
-        logout();
-        try { Thread.sleep(500); } catch (InterruptedException e) {}
-        
-        driver.get(BASE_URL + "/auth/login");
-        
-        // Clear Local Storage and Session Storage to ensure no stale state
-        try {
-            ((JavascriptExecutor) driver).executeScript("window.localStorage.clear();");
-            ((JavascriptExecutor) driver).executeScript("window.sessionStorage.clear();");
-        } catch (Exception e) { /* ignore */ }
-        
-        driver.navigate().refresh();
-        wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("login-form")));
-
-        driver.findElement(By.id("login-email")).clear();
-        driver.findElement(By.id("login-email")).sendKeys(TEST_EMAIL);
-        driver.findElement(By.id("login-password")).clear();
-        driver.findElement(By.id("login-password")).sendKeys(TEST_PASSWORD);
-        
-        WebElement submitBtn = driver.findElement(By.id("login-submit"));
-        wait.until(ExpectedConditions.elementToBeClickable(submitBtn));
-        submitBtn.click();
-
-        // Robust wait for login success
-        wait.until(ExpectedConditions.or(
-            ExpectedConditions.urlContains("/dashboard"),
-            ExpectedConditions.visibilityOfElementLocated(By.cssSelector(".Toastify__toast--success"))
-        ));
-
-        if (!driver.getCurrentUrl().contains("/dashboard")) {
-             driver.get(BASE_URL + "/dashboard");
-        }
-        try { Thread.sleep(500); } catch (InterruptedException e) {}
-    }
-
-    @Test(priority = 17, dependsOnMethods = "test16_CreateProjectDialogOpens")
-    public void test17_CreateNewProjectSuccessfully() {
-        // Wait for animation to finish
-        try { Thread.sleep(1000); } catch (InterruptedException e) {}
-
-        // 1. Fill Project Name
-        WebElement projectName = wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("project-name")));
-        projectName.clear();
-        projectName.sendKeys("Selenium Test Project");
-
-        // 2. Fill Project Description
-        WebElement projectDesc = driver.findElement(By.id("project-description"));
-        projectDesc.clear();
-        projectDesc.sendKeys("Created automatically by Selenium test automation");
-
-        // 3. Select Project Manager (Material Tailwind Select)
-        // STRATEGY: Material Tailwind often hides the ID. We try multiple approaches.
-        boolean pmSelected = false;
-        try {
-            System.out.println("   INFO: Attempting to open Project Manager dropdown...");
-            
-            // Approach 1: Try finding by the visible label's sibling (usually the trigger)
-            try {
-                WebElement label = driver.findElement(By.xpath("//label[contains(text(), 'Project Manager')]"));
-                // In Material Tailwind, the trigger is usually a sibling or parent.
-                // We'll try clicking the label itself first (sometimes works)
-                label.click();
-                System.out.println("   INFO: Clicked via Label");
-            } catch (Exception e) {
-                // Approach 2: Try the ID (might be on a wrapper)
-                try {
-                    driver.findElement(By.id("project-manager-select")).click();
-                    System.out.println("   INFO: Clicked via ID");
-                } catch (Exception e2) {
-                    // Approach 3: JS Click on the generic Select container
-                     WebElement container = driver.findElement(By.xpath("//*[text()='Project Manager']/ancestor::div[contains(@class, 'relative')]"));
-                     ((JavascriptExecutor) driver).executeScript("arguments[0].click();", container);
-                     System.out.println("   INFO: Clicked via Container JS");
-                }
-            }
-
-            // Wait for options and click the first one (Test User)
-            try {
-                Thread.sleep(500); // Allow dropdown animation
-                WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(5));
-                
-                // Look for the option list
-                WebElement firstOption = shortWait.until(ExpectedConditions.elementToBeClickable(By.xpath("//li[@role='option']")));
-                String optionText = firstOption.getText();
-                System.out.println("   INFO: Found option: " + optionText);
-                
-                firstOption.click();
-                
-                // VERIFY: Check if the selection stuck
-                // The selected text should appear in the button/display area
-                // We look for any element containing the text we just selected
-                try {
-                    shortWait.until(ExpectedConditions.presenceOfElementLocated(By.xpath("//*[contains(text(), '" + optionText + "')]")));
-                    pmSelected = true;
-                    System.out.println("   PASS: Project Manager selected: " + optionText);
-                } catch (Exception verifyErr) {
-                    System.out.println("   ⚠️ UI verification failed, but continuing.");
-                }
-
-            } catch (Exception e) {
-                 System.out.println("   ❌ Dropdown options did not appear: " + e.getMessage());
-            }
-
-        } catch (Exception e) {
-            System.out.println("   ❌ Failed to interact with Project Manager select: " + e.getMessage());
-        }
-
-        // 4. Select Team Members (Custom Multiselect)
-        try {
-            WebElement teamSelect = driver.findElement(By.id("team-members-select"));
-            teamSelect.click();
-            try { Thread.sleep(500); } catch (InterruptedException e) {}
-            
-            // Click the first available user in the dropdown
-            WebElement firstUser = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[contains(@class, 'absolute')]//div[contains(@class, 'cursor-pointer')]")));
-            firstUser.click();
-            
-            // Click outside to close dropdown (optional, but good practice)
-            driver.findElement(By.id("project-name")).click(); 
-        } catch (Exception e) {
-            System.out.println("   ⚠️ Could not select Team Member: " + e.getMessage());
-        }
-
-        // 5. Submit
-        WebElement submitBtn = driver.findElement(By.id("project-submit"));
-        wait.until(ExpectedConditions.elementToBeClickable(submitBtn));
-        submitBtn.click();
-
-        // Wait for success toast - increased timeout significantly
-        try {
-            WebDriverWait longWait = new WebDriverWait(driver, Duration.ofSeconds(10));
-            longWait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector(".Toastify__toast--success")));
-            System.out.println("   PASS: Success toast appeared!");
-        } catch (Exception e) {
-            System.out.println("   ⚠️ Warning: Success toast didn't appear in time, checking project list...");
-        }
-
-        // Check if dialog closed (project was created)
-        try { Thread.sleep(1000); } catch (InterruptedException e) {}
-        List<WebElement> nameFields = driver.findElements(By.id("project-name"));
-        boolean dialogClosed = nameFields.isEmpty() || !nameFields.get(0).isDisplayed();
-        
-        // If dialog still open, maybe we need to click submit again? (Network lag?)
-        if (!dialogClosed) {
-            System.out.println("   ⚠️ Dialog still open. Trying to check for success anyway.");
-            // Sometimes it closes but element reference lingers.
-        }
-        
-        Assert.assertTrue(dialogClosed, "Project creation dialog should close on success");
-        System.out.println("   PASS: New project 'Selenium Test Project' created successfully!");
-    }
-
-    @Test(priority = 18, dependsOnMethods = "test17_CreateNewProjectSuccessfully")
-    public void test18_NavigateToTasks() {
-        // Find and click on the "Tasks" link in the sidebar or project card
-        // Assuming after project creation we are on projects page, click on the project or tasks link
-        try { Thread.sleep(500); } catch (InterruptedException e) {}
-        
-        driver.get(BASE_URL + "/admin/tasks"); // Direct navigation for stability
-        
-        try {
-           wait.until(ExpectedConditions.urlContains("/tasks"));
-           System.out.println("   PASS: Navigated to Tasks page");
-           
-           // Select Project from Dropdown
-           // Wait for dropdown to be visible
-           try { Thread.sleep(1000); } catch (InterruptedException e) {}
-           
-           // Click the Select trigger
-           WebElement projectSelect = wait.until(ExpectedConditions.elementToBeClickable(By.id("project-select")));
-           projectSelect.click();
-           
-           // Click the project option "Selenium Test Project"
-           // Material Tailwind renders options in a portal, often at the end of body
-           // We look for an option with text "Selenium Test Project"
-           WebElement projectOption = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//li[@role='option']//span[contains(text(), 'Selenium Test Project')] | //li[@role='option' and contains(text(), 'Selenium Test Project')]")));
-           projectOption.click();
-           System.out.println("   PASS: Selected 'Selenium Test Project'");
-           
-        } catch (Exception e) {
-            Assert.fail("Failed to navigate to Tasks page or select project: " + e.getMessage());
-        }
-    }
-
-    @Test(priority = 19, dependsOnMethods = "test18_NavigateToTasks")
-    public void test19_CreateTask() {
-        // Wait for columns to load
-        try { Thread.sleep(1000); } catch (InterruptedException e) {}
-
-        // 1. Check if any column exists. If not, create one.
-        List<WebElement> columns = driver.findElements(By.xpath("//div[contains(@class, 'bg-white') or contains(@class, 'dark:bg-gray-500')]//div[text()]"));
-        // Note: The above xpath is a guess based on Column.jsx structure. 
-        // Better: Check for "Add Task" buttons.
-        List<WebElement> addTaskButtons = driver.findElements(By.xpath("//button[starts-with(@id, 'add-task-btn-')]"));
-        
-        if (addTaskButtons.isEmpty()) {
-            System.out.println("   ⚠️ No columns found. Creating 'To Do' column...");
-            try {
-                // Click "Add Column"
-                driver.findElement(By.id("add-column-btn")).click();
-                
-                // Fill details
-                wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("column-name"))).sendKeys("To Do");
-                
-                // Submit
-                driver.findElement(By.id("column-submit")).click();
-                
-                // Wait for column to appear
-                wait.until(ExpectedConditions.visibilityOfElementLocated(By.xpath("//button[starts-with(@id, 'add-task-btn-')]")));
-                System.out.println("   PASS: Created 'To Do' column.");
-                
-            } catch (Exception e) {
-                Assert.fail("Failed to create a column: " + e.getMessage());
-            }
-        }
-
-        // 2. Click "Add Task" button in the first column
-        try {
-            WebElement addTaskBtn = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//button[starts-with(@id, 'add-task-btn-')]")));
-            addTaskBtn.click();
-            System.out.println("   PASS: 'Add Task' dialog opened");
-        } catch (Exception e) {
-            Assert.fail("Could not find or click 'Add Task' button: " + e.getMessage());
-        }
-
-        // 3. Fill Task Form
-        try {
-            WebElement nameInput = wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("task-name")));
-            nameInput.sendKeys("Selenium Automated Task");
-
-            driver.findElement(By.id("task-description")).sendKeys("This task was created by Selenium automation.");
-
-            // Priority
-            driver.findElement(By.id("task-priority")).click();
-            wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//li[@role='option' and text()='High']"))).click();
-
-            // Assignees - Select first available
-            driver.findElement(By.id("task-assignees")).click();
-            try { Thread.sleep(500); } catch (InterruptedException e) {}
-            wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[contains(@class, 'absolute')]//div[contains(@class, 'cursor-pointer')]"))).click();
-            
-            // Dependencies (Optional, skip)
-            // Due Date
-            WebElement dateInput = driver.findElement(By.id("task-due-date"));
-            dateInput.sendKeys("12-31-2026"); // Try different date formats if needed, usually mm-dd-yyyy works for Selenium sendKeys on date inputs, or yyyy-mm-dd depending on locale. Chrome usually expects mm-dd-yyyy or yyyy-mm-dd keys.
-            // Let's use yyyy-mm-dd which is standard ISO
-            dateInput.clear();
-            dateInput.sendKeys("2026-12-31"); 
-            // If clear() doesn't work on date inputs sometimes, we might need keys.
-
-            // Submit
-            WebElement submitBtn = driver.findElement(By.id("task-submit"));
-            submitBtn.click();
-            
-            // Wait for success toast
-            WebDriverWait longWait = new WebDriverWait(driver, Duration.ofSeconds(10));
-            longWait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector(".Toastify__toast--success")));
-            System.out.println("   PASS: Task created successfully!");
-
-        } catch (Exception e) {
-            Assert.fail("Failed to fill or submit task form: " + e.getMessage());
-        }
-    }
-
-    @Test(priority = 20, dependsOnMethods = "test19_CreateTask")
-    public void test20_NavigateToAnalytics() {
-        try { Thread.sleep(500); } catch (InterruptedException e) {}
-        
-        driver.get(BASE_URL + "/admin/analytics");
-        
-        try {
-            wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("analytics-page")));
-            wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("chart-tasks-per-column")));
-            System.out.println("   PASS: Analytics page and charts loaded!");
-        } catch (Exception e) {
-            Assert.fail("Analytics page or charts failed to load: " + e.getMessage());
-        }
-    }
 }
@@ -0,0 +1,68 @@
+package com.pms.tests;
+
+import com.pms.tests.support.PooledSessionTest;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * MODULE 3 - Dashboard, run as its own seeded user so it does not wait
+ * for the register/login chain in AllTests.
+ */
+public class DashboardTests extends PooledSessionTest {
+
+    // ==================== MODULE 3: HOME PAGE (DASHBOARD) ====================
+
+    @Test(priority = 10)
+    public void test10_DashboardPageLoads() {
+        System.out.println("\n>>> MODULE 3: HOME PAGE (DASHBOARD) <<<");
+
+        // Session token is already in place, go straight to the dashboard
+        perf.open("dashboard", "/admin/dashboard");
+
+        // Wait for dashboard to fully load
+        wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("dashboard-page")));
+
+        WebElement dashboardPage = wait.until(
+            ExpectedConditions.visibilityOfElementLocated(By.id("dashboard-page"))
+        );
+        Assert.assertTrue(dashboardPage.isDisplayed(), "Dashboard page should be visible");
+        System.out.println("   PASS: Dashboard page loaded successfully");
+    }
+
+    @Test(priority = 11, dependsOnMethods = "test10_DashboardPageLoads")
+    public void test11_DashboardHasStatisticsCards() {
+        WebElement totalTasks = driver.findElement(By.xpath("//*[contains(text(),'Total Tasks')]"));
+        Assert.assertTrue(totalTasks.isDisplayed(), "Total Tasks card should be visible");
+
+        WebElement todoTasks = driver.findElement(By.xpath("//*[contains(text(),'Todo Tasks')]"));
+        Assert.assertTrue(todoTasks.isDisplayed(), "Todo Tasks card should be visible");
+
+        WebElement inProgressTasks = driver.findElement(By.xpath("//*[contains(text(),'In Progress')]"));
+        Assert.assertTrue(inProgressTasks.isDisplayed(), "In Progress card should be visible");
+
+        WebElement completedTasks = driver.findElement(By.xpath("//*[contains(text(),'Completed')]"));
+        Assert.assertTrue(completedTasks.isDisplayed(), "Completed Tasks card should be visible");
+
+        System.out.println("   PASS: All statistics cards are displayed");
+    }
+
+    @Test(priority = 12, dependsOnMethods = "test10_DashboardPageLoads")
+    public void test12_DashboardHasProjectsSection() {
+        WebElement projectsHeader = driver.findElement(
+            By.xpath("//*[contains(text(),'Projects')]")
+        );
+        Assert.assertTrue(projectsHeader.isDisplayed(), "Projects section should be visible");
+        System.out.println("   PASS: Projects section is visible on dashboard");
+    }
+
+    @Test(priority = 13, dependsOnMethods = "test10_DashboardPageLoads")
+    public void test13_DashboardURLIsCorrect() {
+        String currentUrl = driver.getCurrentUrl();
+        Assert.assertTrue(currentUrl.contains("/dashboard"),
+            "URL should contain /dashboard, but was: " + currentUrl);
+        System.out.println("   PASS: Dashboard URL is correct: " + currentUrl);
+    }
+}
@@ -0,0 +1,310 @@
+package com.pms.tests;
+
+import com.pms.tests.support.PooledSessionTest;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * MODULE 4 - Create Project → Tasks → Analytics, run as its own seeded user.
+ * The project name carries the user's id so parallel runs never pick each
+ * other's project from the dropdown.
+ */
+public class ProjectTests extends PooledSessionTest {
+
+    private String projectName() {
+        return "Selenium Test Project " + user.id.substring(user.id.length() - 6);
+    }
+
+    // ==================== MODULE 4: CREATE PROJECT (FUNCTIONALITY) ====================
+
+    @Test(priority = 14)
+    public void test14_ProjectsPageLoads() {
+        System.out.println("\n>>> MODULE 4: CREATE PROJECT FUNCTIONALITY <<<");
+
+        // Session token is already in place, go straight to projects
+        perf.open("projects-page", "/admin/projects");
+        wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("projects-page")));
+
+        WebElement projectsPage = wait.until(
+            ExpectedConditions.visibilityOfElementLocated(By.id("projects-page"))
+        );
+        Assert.assertTrue(projectsPage.isDisplayed(), "Projects page should be visible");
+        System.out.println("   PASS: Projects page loaded successfully");
+    }
+
+    @Test(priority = 15, dependsOnMethods = "test14_ProjectsPageLoads")
+    public void test15_CreateProjectButtonExists() {
+        WebElement createBtn = wait.until(
+            ExpectedConditions.visibilityOfElementLocated(By.id("create-project-btn"))
+        );
+        Assert.assertTrue(createBtn.isDisplayed(), "Create Project button should be visible");
+        System.out.println("   PASS: Create Project (+) button is visible");
+    }
+
+    @Test(priority = 16, dependsOnMethods = "test15_CreateProjectButtonExists")
+    public void test16_CreateProjectDialogOpens() {
+        WebElement createBtn = wait.until(
+            ExpectedConditions.elementToBeClickable(By.id("create-project-btn"))
+        );
+        createBtn.click();
+
+        // Dialog is open once its first field is visible
+        WebElement projectName = wait.until(
+            ExpectedConditions.visibilityOfElementLocated(By.id("project-name"))
+        );
+        Assert.assertTrue(projectName.isDisplayed(), "Project Name field should be visible");
+
+        WebElement projectDesc = driver.findElement(By.id("project-description"));
+        Assert.assertTrue(projectDesc.isDisplayed(), "Project Description should be visible");
+
+        WebElement submitBtn = driver.findElement(By.id("project-submit"));
+        Assert.assertTrue(submitBtn.isDisplayed(), "Submit button should be visible");
+        System.out.println("   PASS: Create Project dialog opened with all fields");
+    }
+
+    @Test(priority = 17, dependsOnMethods = "test16_CreateProjectDialogOpens")
+    public void test17_CreateNewProjectSuccessfully() {
+        // 1. Fill Project Name (clickable = dialog animation finished)
+        WebElement projectName = appWait.clickable(By.id("project-name"));
+        projectName.clear();
+        projectName.sendKeys(projectName());
+
+        // 2. Fill Project Description
+        WebElement projectDesc = driver.findElement(By.id("project-description"));
+        projectDesc.clear();
+        projectDesc.sendKeys("Created automatically by Selenium test automation");
+
+        // 3. Select Project Manager (Material Tailwind Select)
+        // STRATEGY: Material Tailwind often hides the ID. We try multiple approaches.
+        boolean pmSelected = false;
+        try {
+            System.out.println("   INFO: Attempting to open Project Manager dropdown...");
+            
+            // Approach 1: Try finding by the visible label's sibling (usually the trigger)
+            try {
+                WebElement label = driver.findElement(By.xpath("//label[contains(text(), 'Project Manager')]"));
+                // In Material Tailwind, the trigger is usually a sibling or parent.
+                // We'll try clicking the label itself first (sometimes works)
+                label.click();
+                System.out.println("   INFO: Clicked via Label");
+            } catch (Exception e) {
+                // Approach 2: Try the ID (might be on a wrapper)
+                try {
+                    driver.findElement(By.id("project-manager-select")).click();
+                    System.out.println("   INFO: Clicked via ID");
+                } catch (Exception e2) {
+                    // Approach 3: JS Click on the generic Select container
+                     WebElement container = driver.findElement(By.xpath("//*[text()='Project Manager']/ancestor::div[contains(@class, 'relative')]"));
+                     ((JavascriptExecutor) driver).executeScript("arguments[0].click();", container);
+                     System.out.println("   INFO: Clicked via Container JS");
+                }
+            }
+
+            // Wait for options and click the first one (Test User)
+            try {
+                WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(5));
+                
+                // Look for the option list
+                WebElement firstOption = shortWait.until(ExpectedConditions.elementToBeClickable(By.xpath("//li[@role='option']")));
+                String optionText = firstOption.getText();
+                System.out.println("   INFO: Found option: " + optionText);
+                
+                firstOption.click();
+                
+                // VERIFY: Check if the selection stuck
+                // The selected text should appear in the button/display area
+                // We look for any element containing the text we just selected
+                try {
+                    shortWait.until(ExpectedConditions.presenceOfElementLocated(By.xpath("//*[contains(text(), '" + optionText + "')]")));
+                    pmSelected = true;
+                    System.out.println("   PASS: Project Manager selected: " + optionText);
+                } catch (Exception verifyErr) {
+                    System.out.println("   ⚠️ UI verification failed, but continuing.");
+                }
+
+            } catch (Exception e) {
+                 System.out.println("   ❌ Dropdown options did not appear: " + e.getMessage());
+            }
+
+        } catch (Exception e) {
+            System.out.println("   ❌ Failed to interact with Project Manager select: " + e.getMessage());
+        }
+
+        // 4. Select Team Members (Custom Multiselect)
+        try {
+            WebElement teamSelect = driver.findElement(By.id("team-members-select"));
+            teamSelect.click();
+
+            // Click the first available user in the dropdown
+            WebElement firstUser = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[contains(@class, 'absolute')]//div[contains(@class, 'cursor-pointer')]")));
+            firstUser.click();
+            
+            // Click outside to close dropdown (optional, but good practice)
+            driver.findElement(By.id("project-name")).click(); 
+        } catch (Exception e) {
+            System.out.println("   ⚠️ Could not select Team Member: " + e.getMessage());
+        }
+
+        // 5. Submit
+        WebElement submitBtn = driver.findElement(By.id("project-submit"));
+        wait.until(ExpectedConditions.elementToBeClickable(submitBtn));
+        submitBtn.click();
+
+        // Wait for success toast
+        try {
+            appWait.untilToast("success");
+            System.out.println("   PASS: Success toast appeared!");
+        } catch (Exception e) {
+            System.out.println("   ⚠️ Warning: Success toast didn't appear in time, checking project list...");
+        }
+
+        // Check if dialog closed (project was created)
+        try {
+            appWait.gone(By.id("project-name"));
+        } catch (Exception e) {
+            // Asserted below
+        }
+        List<WebElement> nameFields = driver.findElements(By.id("project-name"));
+        boolean dialogClosed = nameFields.isEmpty() || !nameFields.get(0).isDisplayed();
+        
+        // If dialog still open, maybe we need to click submit again? (Network lag?)
+        if (!dialogClosed) {
+            System.out.println("   ⚠️ Dialog still open. Trying to check for success anyway.");
+            // Sometimes it closes but element reference lingers.
+        }
+        
+        Assert.assertTrue(dialogClosed, "Project creation dialog should close on success");
+        System.out.println("   PASS: New project '" + projectName() + "' created successfully!");
+    }
+
+    @Test(priority = 18, dependsOnMethods = "test17_CreateNewProjectSuccessfully")
+    public void test18_NavigateToTasks() {
+        // Find and click on the "Tasks" link in the sidebar or project card
+        // Assuming after project creation we are on projects page, click on the project or tasks link
+        perf.open("tasks-page", "/admin/tasks"); // Direct navigation for stability
+        
+        try {
+           wait.until(ExpectedConditions.urlContains("/tasks"));
+           System.out.println("   PASS: Navigated to Tasks page");
+           
+           // Select Project from Dropdown
+           // Click the Select trigger
+           WebElement projectSelect = wait.until(ExpectedConditions.elementToBeClickable(By.id("project-select")));
+           // The board subscribes to live deltas over the socket when it loads
+           appWait.untilSocketConnected();
+           projectSelect.click();
+           
+           // Click the option for the project this flow created
+           // Material Tailwind renders options in a portal, often at the end of body
+           String name = projectName();
+           WebElement projectOption = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//li[@role='option']//span[contains(text(), '" + name + "')] | //li[@role='option' and contains(text(), '" + name + "')]")));
+           // Selecting the project loads the kanban board in place
+           perf.measure("kanban-board", projectOption::click);
+           System.out.println("   PASS: Selected '" + name + "'");
+           
+        } catch (Exception e) {
+            Assert.fail("Failed to navigate to Tasks page or select project: " + e.getMessage());
+        }
+    }
+
+    @Test(priority = 19, dependsOnMethods = "test18_NavigateToTasks")
+    public void test19_CreateTask() {
+        // Wait for columns to load (getColumns fired by the project select)
+        // and for the socket that pushes the new card to the board
+        appWait.untilNetworkIdle();
+        appWait.untilSocketConnected();
+
+        // 1. Check if any column exists. If not, create one.
+        List<WebElement> columns = driver.findElements(By.xpath("//div[contains(@class, 'bg-white') or contains(@class, 'dark:bg-gray-500')]//div[text()]"));
+        // Note: The above xpath is a guess based on Column.jsx structure. 
+        // Better: Check for "Add Task" buttons.
+        List<WebElement> addTaskButtons = driver.findElements(By.xpath("//button[starts-with(@id, 'add-task-btn-')]"));
+        
+        if (addTaskButtons.isEmpty()) {
+            System.out.println("   ⚠️ No columns found. Creating 'To Do' column...");
+            try {
+                // Click "Add Column"
+                driver.findElement(By.id("add-column-btn")).click();
+                
+                // Fill details
+                wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("column-name"))).sendKeys("To Do");
+                
+                // Submit
+                driver.findElement(By.id("column-submit")).click();
+                
+                // Wait for column to appear
+                wait.until(ExpectedConditions.visibilityOfElementLocated(By.xpath("//button[starts-with(@id, 'add-task-btn-')]")));
+                System.out.println("   PASS: Created 'To Do' column.");
+                
+            } catch (Exception e) {
+                Assert.fail("Failed to create a column: " + e.getMessage());
+            }
+        }
+
+        // 2. Click "Add Task" button in the first column
+        try {
+            WebElement addTaskBtn = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//button[starts-with(@id, 'add-task-btn-')]")));
+            addTaskBtn.click();
+            System.out.println("   PASS: 'Add Task' dialog opened");
+        } catch (Exception e) {
+            Assert.fail("Could not find or click 'Add Task' button: " + e.getMessage());
+        }
+
+        // 3. Fill Task Form
+        try {
+            WebElement nameInput = wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("task-name")));
+            nameInput.sendKeys("Selenium Automated Task");
+
+            driver.findElement(By.id("task-description")).sendKeys("This task was created by Selenium automation.");
+
+            // Priority
+            driver.findElement(By.id("task-priority")).click();
+            wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//li[@role='option' and text()='High']"))).click();
+
+            // Assignees - Select first available
+            driver.findElement(By.id("task-assignees")).click();
+            wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[contains(@class, 'absolute')]//div[contains(@class, 'cursor-pointer')]"))).click();
+            
+            // Dependencies (Optional, skip)
+            // Due Date
+            WebElement dateInput = driver.findElement(By.id("task-due-date"));
+            dateInput.sendKeys("12-31-2026"); // Try different date formats if needed, usually mm-dd-yyyy works for Selenium sendKeys on date inputs, or yyyy-mm-dd depending on locale. Chrome usually expects mm-dd-yyyy or yyyy-mm-dd keys.
+            // Let's use yyyy-mm-dd which is standard ISO
+            dateInput.clear();
+            dateInput.sendKeys("2026-12-31"); 
+            // If clear() doesn't work on date inputs sometimes, we might need keys.
+
+            // Submit
+            WebElement submitBtn = driver.findElement(By.id("task-submit"));
+            submitBtn.click();
+            
+            // Wait for success toast
+            appWait.untilToast("success");
+            System.out.println("   PASS: Task created successfully!");
+
+        } catch (Exception e) {
+            Assert.fail("Failed to fill or submit task form: " + e.getMessage());
+        }
+    }
+
+    @Test(priority = 20, dependsOnMethods = "test19_CreateTask")
+    public void test20_NavigateToAnalytics() {
+        perf.open("analytics", "/admin/analytics");
+        
+        try {
+            wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("analytics-page")));
+            wait.until(ExpectedConditions.visibilityOfElementLocated(By.id("chart-tasks-per-column")));
+            System.out.println("   PASS: Analytics page and charts loaded!");
+        } catch (Exception e) {
+            Assert.fail("Analytics page or charts failed to load: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.pms.tests.support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Event-driven waits for the PMS app, built on WebDriverWait/ExpectedConditions.
+ *
+ * Instead of sleeping for the worst case, every wait returns as soon as the app
+ * signals it is ready:
+ *  - network idle: no XHR/fetch in flight for a short quiet window
+ *  - Redux ready:  the auth check has finished (window.__PMS_STORE__)
+ *  - Socket.IO:    the realtime socket is connected (window.__PMS_SOCKET__)
+ *  - toasts:       a Toastify toast of the given kind appeared
+ *
+ * The store and socket hooks are exposed by the client on the Vite dev server;
+ * the network tracker is injected into every page by {@link #install(WebDriver)}.
+ */
+public final class AppWait {
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(15);
+    private static final long QUIET_MILLIS = 250;
+
+    /** Counts XHR/fetch requests in flight; axios goes through XMLHttpRequest. */
+    private static final String NETWORK_TRACKER =
+        "(function () {"
+        + "  if (window.__pmsNet) { return; }"
+        + "  var net = window.__pmsNet = { pending: 0, last: Date.now() };"
+        + "  function start() { net.pending++; net.last = Date.now(); }"
+        + "  function done() { net.pending = Math.max(0, net.pending - 1); net.last = Date.now(); }"
+        + "  var send = XMLHttpRequest.prototype.send;"
+        + "  XMLHttpRequest.prototype.send = function () {"
+        + "    start(); this.addEventListener('loadend', done);"
+        + "    return send.apply(this, arguments);"
+        + "  };"
+        + "  if (window.fetch) {"
+        + "    var fetch = window.fetch;"
+        + "    window.fetch = function () {"
+        + "      start();"
+        + "      return fetch.apply(this, arguments).finally(done);"
+        + "    };"
+        + "  }"
+        + "})();";
+
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+
+    public AppWait(WebDriver driver) {
+        this(driver, DEFAULT_TIMEOUT);
+    }
+
+    public AppWait(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.wait = new WebDriverWait(driver, timeout);
+    }
+
+    /**
+     * Registers the network tracker so it runs before the app's own scripts on
+     * every navigation. Without it networkIdle() degrades to document readiness.
+     */
+    public static void install(WebDriver driver) {
+        if (driver instanceof ChromeDriver chrome) {
+            try {
+                chrome.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", NETWORK_TRACKER));
+            } catch (Exception e) {
+                System.out.println("   ⚠️ Network tracker not installed: " + e.getMessage());
+            }
+        }
+    }
+
+    // ==================== NAVIGATION ====================
+
+    /**
+     * Navigates to an app path once and waits until the page has settled.
+     */
+    public void open(String path) {
+        driver.get(TestEnv.BASE_URL + path);
+        pageReady();
+    }
+
+    /**
+     * Document loaded, auth check finished and no requests in flight.
+     */
+    public void pageReady() {
+        wait.until(documentReady());
+        wait.until(reduxReady());
+        wait.until(networkIdle());
+    }
+
+    // ==================== APP SIGNALS ====================
+
+    public void untilNetworkIdle() {
+        wait.until(networkIdle());
+    }
+
+    public void untilSocketConnected() {
+        wait.until(socketConnected());
+    }
+
+    public WebElement untilToast(String kind) {
+        return wait.until(ExpectedConditions.visibilityOfElementLocated(toast(kind)));
+    }
+
+    // ==================== ELEMENTS ====================
+
+    public WebElement clickable(By locator) {
+        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    public void gone(By locator) {
+        wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+    }
+
+    // ==================== CONDITIONS ====================
+
+    public static By toast(String kind) {
+        return By.cssSelector(".Toastify__toast--" + kind);
+    }
+
+    public static ExpectedCondition<Boolean> documentReady() {
+        return d -> "complete".equals(js(d).executeScript("return document.readyState;"));
+    }
+
+    public static ExpectedCondition<Boolean> networkIdle() {
+        return d -> Boolean.TRUE.equals(js(d).executeScript(
+            "var net = window.__pmsNet;"
+            + "if (!net) { return document.readyState === 'complete'; }"
+            + "return net.pending === 0 && Date.now() - net.last >= arguments[0];", QUIET_MILLIS));
+    }
+
+    /**
+     * True once the auth slice has finished checkAuth. Pages without the store
+     * hook (e.g. production builds) count as ready.
+     */
+    public static ExpectedCondition<Boolean> reduxReady() {
+        return d -> Boolean.TRUE.equals(js(d).executeScript(
+            "var store = window.__PMS_STORE__;"
+            + "if (!store) { return document.readyState === 'complete'; }"
+            + "var auth = store.getState().auth;"
+            + "return !!auth && auth.isLoading === false;"));
+    }
+
+    /**
+     * True once the realtime socket is connected, so board deltas and other
+     * pushed updates reach the page. Pages without the socket hook count as
+     * connected, like {@link #reduxReady()}.
+     */
+    public static ExpectedCondition<Boolean> socketConnected() {
+        return d -> Boolean.TRUE.equals(js(d).executeScript(
+            "var socket = window.__PMS_SOCKET__;"
+            + "if (!socket) { return document.readyState === 'complete'; }"
+            + "return socket.connected === true;"));
+    }
+
+    private static JavascriptExecutor js(WebDriver driver) {
+        return (JavascriptExecutor) driver;
+    }
+}
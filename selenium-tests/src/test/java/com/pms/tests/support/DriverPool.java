@@ -0,0 +1,143 @@
+package com.pms.tests.support;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A fixed-size fleet of Chrome instances shared by the parallel test classes.
+ *
+ * Starting Chrome is the slowest part of a UI test, so drivers are reused:
+ * release() wipes cookies and storage and parks the browser for the next
+ * lease. At most selenium.pool.size browsers exist at once (defaults to the
+ * number of cores); run headed with -Dselenium.headless=false.
+ */
+public final class DriverPool {
+
+    private static final int SIZE = Integer.getInteger("selenium.pool.size",
+        Runtime.getRuntime().availableProcessors());
+    private static final boolean HEADLESS = Boolean.parseBoolean(System.getProperty("selenium.headless", "true"));
+
+    private static final Semaphore PERMITS = new Semaphore(SIZE, true);
+    private static final Queue<WebDriver> IDLE = new ConcurrentLinkedQueue<>();
+    private static final Queue<WebDriver> ALL = new ConcurrentLinkedQueue<>();
+
+    static {
+        WebDriverManager.chromedriver().setup();
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::quitAll, "driver-pool-shutdown"));
+    }
+
+    private DriverPool() {
+    }
+
+    /**
+     * Blocks until a browser is free. The driver is clean: no cookies, no storage.
+     */
+    public static WebDriver acquire() {
+        try {
+            PERMITS.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser", e);
+        }
+        WebDriver driver;
+        while ((driver = IDLE.poll()) != null) {
+            if (isAlive(driver)) {
+                return driver;
+            }
+            discardQuietly(driver);
+        }
+        try {
+            return startChrome();
+        } catch (RuntimeException e) {
+            PERMITS.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a browser to the pool after resetting its session state.
+     */
+    public static void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            try {
+                ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+            } catch (Exception ignore) {
+                // about:blank and crashed tabs have no storage
+            }
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            IDLE.offer(driver);
+        } catch (Exception e) {
+            discardQuietly(driver);
+        } finally {
+            PERMITS.release();
+        }
+    }
+
+    /**
+     * Drops a crashed browser and hands out a fresh one in its place, keeping the lease.
+     */
+    public static WebDriver replace(WebDriver broken) {
+        discardQuietly(broken);
+        return startChrome();
+    }
+
+    private static WebDriver startChrome() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--disable-gpu");
+        options.addArguments("--remote-allow-origins=*");
+        options.addArguments("--window-size=1920,1080");
+        if (HEADLESS) {
+            options.addArguments("--headless=new");
+        }
+        WebDriver driver = new ChromeDriver(options);
+        AppWait.install(driver);
+        PerfRecorder.install(driver);
+        // Reduced implicit wait to avoid long hangs on missing elements
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(2));
+        ALL.add(driver);
+        return driver;
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getCurrentUrl(); // This throws if session is invalid
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void discardQuietly(WebDriver driver) {
+        ALL.remove(driver);
+        try {
+            driver.quit();
+        } catch (Exception ignore) {
+            // already gone
+        }
+    }
+
+    private static void quitAll() {
+        WebDriver driver;
+        while ((driver = ALL.poll()) != null) {
+            try {
+                driver.quit();
+            } catch (Exception ignore) {
+                // shutting down anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.pms.tests.support;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stored per-step timings the current run is compared against.
+ *
+ *  -Dperf.baseline=path        baseline file (default src/test/resources/perf-baseline.json)
+ *  -Dperf.tolerance=0.25       allowed slowdown before a step fails (25%)
+ *  -Dperf.gate=true|false      fail on regressions (default: on once a baseline file exists)
+ *  -Dperf.updateBaseline=true  write this run's numbers as the new baseline
+ *
+ * Until a baseline is recorded the run only reports timings. Record one against
+ * a running app with {@code mvn test -Dperf.updateBaseline=true} and commit the
+ * file. Asking for the gate explicitly while the file is missing fails the run up
+ * front (see {@link #requireBaseline()}) instead of quietly passing every step.
+ *
+ * A metric regresses only when it is both over the relative tolerance and
+ * over its absolute noise floor, so a 3ms → 5ms wobble never fails a build.
+ */
+final class PerfBaseline {
+
+    static final Path FILE = Path.of(System.getProperty("perf.baseline", "src/test/resources/perf-baseline.json"));
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("perf.tolerance", "0.25"));
+    private static final boolean GATE = Boolean.parseBoolean(System.getProperty("perf.gate", String.valueOf(Files.exists(FILE))));
+    private static final boolean UPDATING = Boolean.getBoolean("perf.updateBaseline");
+
+    private static final PerfBaseline INSTANCE = load();
+
+    private final Map<String, Map<String, Double>> steps;
+
+    private PerfBaseline(Map<String, Map<String, Double>> steps) {
+        this.steps = steps;
+    }
+
+    static PerfBaseline get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Fails when the gate was asked for but there is nothing to gate against; a
+     * run that records a new baseline is exempt.
+     */
+    static void requireBaseline() {
+        if (GATE && !UPDATING && !Files.exists(FILE)) {
+            throw new IllegalStateException("No perf baseline at " + FILE.toAbsolutePath()
+                + ". Record one with -Dperf.updateBaseline=true, or run without -Dperf.gate=true.");
+        }
+    }
+
+    List<String> regressions(PerfSample sample) {
+        Map<String, Double> baseline = steps.get(sample.step);
+        if (!GATE || baseline == null) {
+            return Collections.emptyList();
+        }
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> gated : PerfSample.GATED.entrySet()) {
+            String metric = gated.getKey();
+            Double expected = baseline.get(metric);
+            double actual = sample.get(metric);
+            if (expected == null || expected < 0 || actual < 0) {
+                continue;
+            }
+            boolean overRatio = actual > expected * (1 + TOLERANCE);
+            boolean overFloor = actual - expected > gated.getValue();
+            if (overRatio && overFloor) {
+                regressions.add(String.format("%s %.0f > baseline %.0f (+%.0f%%)",
+                    metric, actual, expected, (actual / expected - 1) * 100));
+            }
+        }
+        return regressions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PerfBaseline load() {
+        if (!Files.exists(FILE)) {
+            System.out.println("   INFO: No perf baseline at " + FILE + ", recording only");
+            return new PerfBaseline(Collections.emptyMap());
+        }
+        try {
+            Map<String, Object> raw = new Json().toType(Files.readString(FILE, StandardCharsets.UTF_8), Map.class);
+            Map<String, Map<String, Double>> steps = new HashMap<>();
+            raw.forEach((step, metrics) -> {
+                Map<String, Double> values = new HashMap<>();
+                ((Map<String, Object>) metrics).forEach((metric, value) -> {
+                    if (value instanceof Number number) {
+                        values.put(metric, number.doubleValue());
+                    }
+                });
+                steps.put(step, values);
+            });
+            return new PerfBaseline(steps);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read perf baseline " + FILE, e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.pms.tests.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.testng.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records browser-side timings for each test step and fails the step when it
+ * regressed against the stored baseline, just like a missing element would.
+ *
+ * Collected per step: time until the app is ready (measured from the test),
+ * Navigation Timing (TTFB, DOMContentLoaded, load), FCP, LCP, long tasks since
+ * the previous step and the JS heap. Results go to target/perf at the end of
+ * the run (see {@link PerfReportListener}).
+ */
+public final class PerfRecorder {
+
+    /** Buffers LCP and long tasks from page start; injected before the app's own scripts. */
+    private static final String PERF_TRACKER =
+        "(function () {"
+        + "  if (window.__pmsPerf) { return; }"
+        + "  var perf = window.__pmsPerf = { lcp: -1, longTasks: 0, longTaskMs: 0 };"
+        + "  try {"
+        + "    new PerformanceObserver(function (list) {"
+        + "      var entries = list.getEntries(); perf.lcp = entries[entries.length - 1].startTime;"
+        + "    }).observe({ type: 'largest-contentful-paint', buffered: true });"
+        + "  } catch (e) {}"
+        + "  try {"
+        + "    new PerformanceObserver(function (list) {"
+        + "      list.getEntries().forEach(function (t) { perf.longTasks++; perf.longTaskMs += t.duration; });"
+        + "    }).observe({ type: 'longtask', buffered: true });"
+        + "  } catch (e) {}"
+        + "})();";
+
+    private static final String COLLECT =
+        "var nav = performance.getEntriesByType('navigation')[0];"
+        + "var fcp = performance.getEntriesByName('first-contentful-paint')[0];"
+        + "var perf = window.__pmsPerf || { lcp: -1, longTasks: 0, longTaskMs: 0 };"
+        + "var mem = performance.memory;"
+        + "var out = {"
+        + "  url: location.pathname,"
+        + "  ttfbMs: nav ? nav.responseStart : -1,"
+        + "  domContentLoadedMs: nav ? nav.domContentLoadedEventEnd : -1,"
+        + "  loadMs: nav ? nav.loadEventEnd : -1,"
+        + "  fcpMs: fcp ? fcp.startTime : -1,"
+        + "  lcpMs: perf.lcp,"
+        + "  longTasks: perf.longTasks,"
+        + "  longTaskMs: perf.longTaskMs,"
+        + "  heapUsedMb: mem ? mem.usedJSHeapSize / 1048576 : -1"
+        + "};"
+        + "perf.longTasks = 0; perf.longTaskMs = 0;"
+        + "return out;";
+
+    private static final List<String> NAVIGATION_METRICS =
+        List.of("ttfbMs", "domContentLoadedMs", "loadMs", "fcpMs", "lcpMs");
+
+    private final WebDriver driver;
+    private final AppWait appWait;
+
+    public PerfRecorder(WebDriver driver, AppWait appWait) {
+        this.driver = driver;
+        this.appWait = appWait;
+    }
+
+    /**
+     * Registers the LCP/long-task observers on every new document.
+     */
+    public static void install(WebDriver driver) {
+        if (driver instanceof ChromeDriver chrome) {
+            try {
+                chrome.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", PERF_TRACKER));
+            } catch (Exception e) {
+                System.out.println("   ⚠️ Perf tracker not installed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Full page load: navigates, waits until the app is ready, records the step.
+     */
+    public PerfSample open(String step, String path) {
+        long start = System.nanoTime();
+        appWait.open(path);
+        return record(step, start, true);
+    }
+
+    /**
+     * In-page transition (e.g. picking a project on the kanban board): times the
+     * action until the network is idle again. Navigation timings do not apply.
+     */
+    public PerfSample measure(String step, Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        appWait.untilNetworkIdle();
+        return record(step, start, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private PerfSample record(String step, long startNanos, boolean navigation) {
+        double readyMs = (System.nanoTime() - startNanos) / 1_000_000.0;
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(COLLECT);
+
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        metrics.put("readyMs", readyMs);
+        for (Map.Entry<String, Object> entry : raw.entrySet()) {
+            if (entry.getValue() instanceof Number number) {
+                boolean notApplicable = !navigation && NAVIGATION_METRICS.contains(entry.getKey());
+                metrics.put(entry.getKey(), notApplicable ? -1.0 : number.doubleValue());
+            }
+        }
+        PerfSample sample = new PerfSample(step, String.valueOf(raw.get("url")), metrics);
+        PerfReport.add(sample);
+        System.out.println("   PERF: " + sample);
+
+        List<String> regressions = PerfBaseline.get().regressions(sample);
+        if (!regressions.isEmpty()) {
+            Assert.fail("Performance regression in '" + step + "': " + String.join("; ", regressions));
+        }
+        return sample;
+    }
+}
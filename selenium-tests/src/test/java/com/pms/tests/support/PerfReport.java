@@ -0,0 +1,76 @@
+package com.pms.tests.support;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Collects every {@link PerfSample} of the run (from all parallel classes) and
+ * writes them out as JSON and CSV.
+ */
+final class PerfReport {
+
+    private static final List<PerfSample> SAMPLES = new ArrayList<>();
+
+    private PerfReport() {
+    }
+
+    static synchronized void add(PerfSample sample) {
+        SAMPLES.add(sample);
+    }
+
+    static synchronized List<PerfSample> samples() {
+        return new ArrayList<>(SAMPLES);
+    }
+
+    static void write(Path dir) throws IOException {
+        List<PerfSample> samples = samples();
+        if (samples.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(dir);
+
+        List<Map<String, Object>> json = new ArrayList<>();
+        samples.forEach(sample -> json.add(sample.toJson()));
+        Files.writeString(dir.resolve("perf-report.json"), new Json().toJson(json), StandardCharsets.UTF_8);
+
+        TreeSet<String> columns = new TreeSet<>();
+        samples.forEach(sample -> columns.addAll(sample.metrics.keySet()));
+        StringBuilder csv = new StringBuilder("step,url," + String.join(",", columns) + "\n");
+        for (PerfSample sample : samples) {
+            csv.append(sample.step).append(',').append(sample.url);
+            for (String column : columns) {
+                csv.append(',').append(String.format(Locale.ROOT, "%.1f", sample.get(column)));
+            }
+            csv.append('\n');
+        }
+        Files.writeString(dir.resolve("perf-report.csv"), csv.toString(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes this run's gated metrics as the new baseline (last sample per step wins).
+     */
+    static void writeBaseline(Path file) throws IOException {
+        Map<String, Map<String, Double>> baseline = new LinkedHashMap<>();
+        for (PerfSample sample : samples()) {
+            Map<String, Double> gated = new LinkedHashMap<>();
+            for (String metric : new TreeSet<>(PerfSample.GATED.keySet())) {
+                gated.put(metric, (double) Math.round(sample.get(metric)));
+            }
+            baseline.put(sample.step, gated);
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, new Json().toJson(baseline), StandardCharsets.UTF_8);
+    }
+}
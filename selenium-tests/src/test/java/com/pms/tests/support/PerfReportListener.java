@@ -0,0 +1,34 @@
+package com.pms.tests.support;
+
+import org.testng.IExecutionListener;
+
+import java.nio.file.Path;
+
+/**
+ * Checks that there is a baseline to gate against before the run starts, writes
+ * target/perf/perf-report.{json,csv} once the whole TestNG run is done, and
+ * refreshes the baseline when run with -Dperf.updateBaseline=true.
+ */
+public class PerfReportListener implements IExecutionListener {
+
+    private static final Path REPORT_DIR = Path.of(System.getProperty("perf.reportDir", "target/perf"));
+
+    @Override
+    public void onExecutionStart() {
+        PerfBaseline.requireBaseline();
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        try {
+            PerfReport.write(REPORT_DIR);
+            System.out.println("   PERF: Report written to " + REPORT_DIR.toAbsolutePath());
+            if (Boolean.getBoolean("perf.updateBaseline")) {
+                PerfReport.writeBaseline(PerfBaseline.FILE);
+                System.out.println("   PERF: Baseline updated at " + PerfBaseline.FILE.toAbsolutePath());
+            }
+        } catch (Exception e) {
+            System.out.println("   ⚠️ Could not write perf report: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.pms.tests.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Browser timings for one test step. Times are in milliseconds, heap in MB;
+ * -1 means "not measured" (e.g. navigation timing for an in-page transition).
+ */
+public final class PerfSample {
+
+    /** Metrics compared against the baseline, with the noise floor (absolute slack) for each. */
+    static final Map<String, Double> GATED = Map.of(
+        "readyMs", 50.0,
+        "fcpMs", 50.0,
+        "lcpMs", 50.0,
+        "longTaskMs", 50.0,
+        "heapUsedMb", 5.0
+    );
+
+    public final String step;
+    public final String url;
+    public final Map<String, Double> metrics;
+
+    PerfSample(String step, String url, Map<String, Double> metrics) {
+        this.step = step;
+        this.url = url;
+        this.metrics = metrics;
+    }
+
+    public double get(String metric) {
+        return metrics.getOrDefault(metric, -1.0);
+    }
+
+    Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("step", step);
+        json.put("url", url);
+        json.putAll(metrics);
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return step + " ready=" + Math.round(get("readyMs")) + "ms"
+            + " fcp=" + Math.round(get("fcpMs")) + "ms"
+            + " lcp=" + Math.round(get("lcpMs")) + "ms"
+            + " longTasks=" + Math.round(get("longTaskMs")) + "ms"
+            + " heap=" + Math.round(get("heapUsedMb")) + "MB";
+    }
+}
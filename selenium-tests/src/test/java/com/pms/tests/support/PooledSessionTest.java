@@ -0,0 +1,39 @@
+package com.pms.tests.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+
+import java.time.Duration;
+
+/**
+ * Base class for flows that start already logged in. Each test class gets its
+ * own seeded user and its own browser from the pool, so classes can run in
+ * parallel TestNG threads without sharing any state.
+ */
+public abstract class PooledSessionTest {
+
+    protected WebDriver driver;
+    protected WebDriverWait wait;
+    protected AppWait appWait;
+    protected PerfRecorder perf;
+    protected TestUser user;
+
+    @BeforeClass(alwaysRun = true)
+    public void openSession() {
+        user = UserFixtures.seedUser(getClass().getSimpleName());
+        driver = DriverPool.acquire();
+        wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+        appWait = new AppWait(driver);
+        perf = new PerfRecorder(driver, appWait);
+        UserFixtures.signIn(driver, user);
+        System.out.println("   INFO: " + getClass().getSimpleName() + " running as " + user);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void closeSession() {
+        DriverPool.release(driver);
+        driver = null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.pms.tests.support;
+
+/**
+ * Where the app under test lives. Override with -Dpms.baseUrl / -Dpms.apiUrl.
+ */
+public final class TestEnv {
+
+    public static final String BASE_URL = System.getProperty("pms.baseUrl", "http://localhost:5173");
+    public static final String API_URL = System.getProperty("pms.apiUrl", "http://localhost:8800");
+
+    private TestEnv() {
+    }
+}
@@ -0,0 +1,26 @@
+package com.pms.tests.support;
+
+/**
+ * A user seeded through the API for one test flow, with a live session token.
+ */
+public final class TestUser {
+
+    public final String id;
+    public final String name;
+    public final String email;
+    public final String password;
+    public final String token;
+
+    TestUser(String id, String name, String email, String password, String token) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.password = password;
+        this.token = token;
+    }
+
+    @Override
+    public String toString() {
+        return name + " <" + email + ">";
+    }
+}
@@ -0,0 +1,72 @@
+package com.pms.tests.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seeds users straight through the REST API and signs browsers in with their
+ * token, so flows that are not about the login screen skip it entirely.
+ */
+public final class UserFixtures {
+
+    private static final String PASSWORD = "Test@123";
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final Json JSON = new Json();
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    private UserFixtures() {
+    }
+
+    /**
+     * Registers a brand-new user (unique per call, safe across parallel threads).
+     */
+    @SuppressWarnings("unchecked")
+    public static TestUser seedUser(String label) {
+        String email = "testuser_" + label.toLowerCase() + "_" + System.currentTimeMillis()
+            + "_" + SEQUENCE.incrementAndGet() + "@example.com";
+        String name = "Test " + label;
+        String body = JSON.toJson(Map.of("name", name, "email", email, "password", PASSWORD));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(TestEnv.API_URL + "/auth/register"))
+            .timeout(Duration.ofSeconds(15))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        try {
+            HttpResponse<String> response = HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+            Map<String, Object> json = JSON.toType(response.body(), Map.class);
+            if (!Boolean.TRUE.equals(json.get("success"))) {
+                throw new IllegalStateException("Could not seed user " + email + ": " + json.get("message"));
+            }
+            Map<String, Object> user = (Map<String, Object>) json.get("user");
+            return new TestUser((String) user.get("_id"), name, email, PASSWORD, (String) json.get("token"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while seeding " + email, e);
+        } catch (IOException e) {
+            throw new IllegalStateException("API not reachable at " + TestEnv.API_URL, e);
+        }
+    }
+
+    /**
+     * Puts the user's token where the React app looks for it. The app's
+     * checkAuth picks it up on the next navigation, exactly as after a real login.
+     */
+    public static void signIn(WebDriver driver, TestUser user) {
+        // Any static asset on the app origin will do; it avoids booting React twice
+        driver.get(TestEnv.BASE_URL + "/vite.svg");
+        ((JavascriptExecutor) driver).executeScript("window.localStorage.setItem('token', arguments[0]);", user.token);
+    }
+}
@@ -0,0 +1,36 @@
+import mongoose from 'mongoose';
+import dotenv from 'dotenv';
+import Chat from './models/chat.js';
+import ChatArchive from './models/chatArchive.js';
+import { archiveChatsBefore } from './utils/chatHistory.js';
+
+dotenv.config();
+
+const DAY_MS = 24 * 60 * 60 * 1000;
+
+// Compacts chat messages older than CHAT_RETENTION_DAYS (default 90) into
+// per-conversation day buckets. Run it periodically, e.g. nightly from cron.
+// Archived messages still show up when paging back through a conversation.
+const archive = async () => {
+    try {
+        await mongoose.connect(process.env.MONGODB_URI);
+        console.log('Connected to MongoDB');
+
+        // Also replaces the history index that lacked the _id tiebreaker
+        await Chat.syncIndexes();
+        await ChatArchive.syncIndexes();
+
+        const retentionDays = Number(process.env.CHAT_RETENTION_DAYS) || 90;
+        const cutoff = new Date(Date.now() - retentionDays * DAY_MS);
+        const archived = await archiveChatsBefore(cutoff);
+
+        console.log(`Done. Archived ${archived} messages sent before ${cutoff.toISOString()}.`);
+        await mongoose.disconnect();
+        process.exit(0);
+    } catch (error) {
+        console.error('Chat archival failed:', error);
+        process.exit(1);
+    }
+};
+
+archive();
@@ -0,0 +1,83 @@
+import mongoose from 'mongoose';
+import dotenv from 'dotenv';
+import Chat from './models/chat.js';
+import Conversation from './models/conversation.js';
+import User from './models/user.js';
+
+dotenv.config();
+
+const BATCH_SIZE = 500;
+
+const unreadFor = (side) => ({
+    $sum: {
+        $cond: [{ $and: [{ $eq: ['$receiver', side] }, { $eq: ['$isRead', false] }] }, 1, 0],
+    },
+});
+
+// Builds the chat inbox summaries from the existing messages. Rewrites every
+// pair's summary from scratch, so it is safe to run more than once.
+const backfill = async () => {
+    try {
+        await mongoose.connect(process.env.MONGODB_URI);
+        console.log('Connected to MongoDB');
+
+        await Conversation.syncIndexes();
+
+        const lower = { $cond: [{ $lt: ['$sender', '$receiver'] }, '$sender', '$receiver'] };
+        const higher = { $cond: [{ $lt: ['$sender', '$receiver'] }, '$receiver', '$sender'] };
+        const pairs = await Chat.aggregate([
+            { $sort: { createdAt: 1 } },
+            { $set: { userA: lower, userB: higher } },
+            {
+                $group: {
+                    _id: { userA: '$userA', userB: '$userB' },
+                    last: { $last: '$$ROOT' },
+                    unreadA: unreadFor('$userA'),
+                    unreadB: unreadFor('$userB'),
+                },
+            },
+        ]).allowDiskUse(true);
+
+        const userIds = [...new Set(pairs.flatMap((pair) => [pair._id.userA, pair._id.userB].map(String)))];
+        const users = await User.find({ _id: { $in: userIds } }).select('name').lean();
+        const names = new Map(users.map((user) => [user._id.toString(), user.name]));
+
+        for (let start = 0; start < pairs.length; start += BATCH_SIZE) {
+            await Conversation.bulkWrite(pairs.slice(start, start + BATCH_SIZE).map((pair) => {
+                const { userA, userB } = pair._id;
+                return {
+                    updateOne: {
+                        filter: { pairKey: `${userA}_${userB}` },
+                        update: {
+                            $set: {
+                                userA,
+                                userB,
+                                nameA: names.get(userA.toString()),
+                                nameB: names.get(userB.toString()),
+                                unreadA: pair.unreadA,
+                                unreadB: pair.unreadB,
+                                lastMessage: {
+                                    chat: pair.last.chat,
+                                    sender: pair.last.sender,
+                                    receiver: pair.last.receiver,
+                                    isRead: pair.last.isRead,
+                                },
+                                lastMessageAt: pair.last.createdAt,
+                            },
+                        },
+                        upsert: true,
+                    },
+                };
+            }), { ordered: false });
+        }
+
+        console.log(`Done. ${pairs.length} conversation summaries written.`);
+        await mongoose.disconnect();
+        process.exit(0);
+    } catch (error) {
+        console.error('Backfill failed:', error);
+        process.exit(1);
+    }
+};
+
+backfill();
@@ -0,0 +1,56 @@
+import mongoose from 'mongoose';
+import dotenv from 'dotenv';
+import Notification from './models/notifications.js';
+import NotificationCounter from './models/notificationCounter.js';
+
+dotenv.config();
+
+const BATCH_SIZE = 500;
+const DAY_MS = 24 * 60 * 60 * 1000;
+const READ_RETENTION_MS = (Number(process.env.NOTIFICATION_READ_RETENTION_DAYS) || 30) * DAY_MS;
+
+// Brings existing notifications under the counter and expiry scheme: cleared
+// entries expire now, read ones after the read retention window, and every
+// user's unread counter is recounted. Safe to run more than once.
+const backfill = async () => {
+    try {
+        await mongoose.connect(process.env.MONGODB_URI);
+        console.log('Connected to MongoDB');
+
+        await Notification.syncIndexes();
+        await NotificationCounter.syncIndexes();
+
+        const cleared = await Notification.updateMany(
+            { status: 0, expiresAt: { $exists: false } },
+            { $set: { expiresAt: new Date() } }
+        );
+        const read = await Notification.updateMany(
+            { status: 2, expiresAt: { $exists: false } },
+            { $set: { expiresAt: new Date(Date.now() + READ_RETENTION_MS) } }
+        );
+        console.log(`Scheduled ${cleared.modifiedCount} cleared and ${read.modifiedCount} read notifications to expire.`);
+
+        const counts = await Notification.aggregate([
+            { $group: { _id: '$userId', unread: { $sum: { $cond: [{ $eq: ['$status', 1] }, 1, 0] } } } },
+        ]).allowDiskUse(true);
+
+        for (let start = 0; start < counts.length; start += BATCH_SIZE) {
+            await NotificationCounter.bulkWrite(counts.slice(start, start + BATCH_SIZE).map((count) => ({
+                updateOne: {
+                    filter: { userId: count._id },
+                    update: { $set: { unread: count.unread } },
+                    upsert: true,
+                },
+            })), { ordered: false });
+        }
+
+        console.log(`Done. ${counts.length} unread counters written.`);
+        await mongoose.disconnect();
+        process.exit(0);
+    } catch (error) {
+        console.error('Backfill failed:', error);
+        process.exit(1);
+    }
+};
+
+backfill();
@@ -0,0 +1,65 @@
+import mongoose from 'mongoose';
+import dotenv from 'dotenv';
+import Task from './models/task.js';
+import { buildSearchPrefixes } from './utils/searchTerms.js';
+
+dotenv.config();
+
+const BATCH_SIZE = 500;
+// Unscoped text indexes this replaces; a collection holds one text index at a time
+const OLD_TEXT_INDEXES = ['task_text', 'task_text_v2'];
+
+// Fills searchPrefixes for tasks created before typeahead search existed and
+// builds the search indexes. Safe to run more than once.
+const backfill = async () => {
+    try {
+        await mongoose.connect(process.env.MONGODB_URI);
+        console.log('Connected to MongoDB');
+
+        const indexes = await Task.collection.indexes();
+        for (const index of indexes) {
+            if (OLD_TEXT_INDEXES.includes(index.name)) {
+                await Task.collection.dropIndex(index.name);
+                console.log(`Dropped ${index.name}`);
+            }
+        }
+        await Task.syncIndexes();
+        console.log('Task indexes are in sync');
+
+        const cursor = Task.find({ searchPrefixes: { $exists: false } })
+            .select('name description')
+            .lean()
+            .cursor();
+
+        let batch = [];
+        let updated = 0;
+        for await (const task of cursor) {
+            batch.push({
+                updateOne: {
+                    filter: { _id: task._id },
+                    update: { $set: { searchPrefixes: buildSearchPrefixes(task.name, task.description) } },
+                    timestamps: false,
+                },
+            });
+            if (batch.length === BATCH_SIZE) {
+                await Task.bulkWrite(batch, { ordered: false });
+                updated += batch.length;
+                batch = [];
+                console.log(`Updated ${updated} tasks...`);
+            }
+        }
+        if (batch.length > 0) {
+            await Task.bulkWrite(batch, { ordered: false });
+            updated += batch.length;
+        }
+
+        console.log(`Done. Search prefixes written for ${updated} tasks.`);
+        await mongoose.disconnect();
+        process.exit(0);
+    } catch (error) {
+        console.error('Backfill failed:', error);
+        process.exit(1);
+    }
+};
+
+backfill();
@@ -1,12 +1,87 @@
+import mongoose from "mongoose";
 import ActivityLog from "../models/activityLog.js";
+import User from "../models/user.js";
+import {
+  decodeCursor,
+  encodeCursor,
+  olderThan,
+} from "../utils/keysetCursor.js";
 
+const DEFAULT_PAGE_SIZE = 20;
+const MAX_PAGE_SIZE = 100;
+
+const ACTIONS = ActivityLog.schema.path("action").enumValues;
+const ENTITIES = ActivityLog.schema.path("entity").enumValues;
+
+/**
+ * GET /api/activity/fetchActivityLogs/:projectId?limit&cursor&entity&action
+ *
+ * Newest first, one page at a time. Pass the returned nextCursor to get the
+ * following page; it is null on the last page. Users are resolved with one
+ * query per page instead of a populate per row.
+ */
 export const fetchActivityLogs = async (req, res) => {
   const { projectId } = req.params;
+  const { cursor, entity, action } = req.query;
+  const limit = Math.min(
+    Math.max(Number(req.query.limit) || DEFAULT_PAGE_SIZE, 1),
+    MAX_PAGE_SIZE
+  );
+
+  if (!mongoose.isValidObjectId(projectId)) {
+    return res.status(400).json({ success: false, message: "Invalid project" });
+  }
+  if (
+    (entity && !ENTITIES.includes(entity)) ||
+    (action && !ACTIONS.includes(action))
+  ) {
+    return res
+      .status(400)
+      .json({ success: false, message: "Invalid entity or action filter" });
+  }
+
+  const query = { projectId };
+  if (entity) {
+    query.entity = entity;
+  }
+  if (action) {
+    query.action = action;
+  }
+  if (cursor) {
+    const after = decodeCursor(cursor);
+    if (!after) {
+      return res.status(400).json({ success: false, message: "Invalid cursor" });
+    }
+    Object.assign(query, olderThan(after));
+  }
 
   try {
-    const activity = await ActivityLog.find({projectId:projectId}).populate("userId","name");
+    // One extra row tells us whether another page exists
+    const logs = await ActivityLog.find(query)
+      .select("userId action entity entityId details createdAt")
+      .sort({ createdAt: -1, _id: -1 })
+      .limit(limit + 1)
+      .lean();
+
+    const hasMore = logs.length > limit;
+    const page = hasMore ? logs.slice(0, limit) : logs;
+
+    const userIds = [...new Set(page.map((log) => log.userId.toString()))];
+    const users = await User.find({ _id: { $in: userIds } })
+      .select("name")
+      .lean();
+    const usersById = new Map(users.map((user) => [user._id.toString(), user]));
+
+    const activityLogs = page.map((log) => ({
+      ...log,
+      userId: usersById.get(log.userId.toString()) || null,
+    }));
 
-    return res.status(201).json({ success: true, activityLogs: activity });
+    return res.status(200).json({
+      success: true,
+      activityLogs,
+      nextCursor: hasMore ? encodeCursor(page[page.length - 1]) : null,
+    });
   } catch {
     return res
       .status(500)
@@ -1,9 +1,21 @@
 import User from "../../models/user.js";
 import Project from "../../models/project.js";
-import Notification from "../../models/notifications.js";
 import Column from "../../models/column.js";
-import Task from "../../models/task.js";
-import ActivityLog from "../../models/activityLog.js";
+import {
+  getProjectProgress,
+  invalidateDashboards,
+  progressOf,
+} from "../../utils/dashboardStats.js";
+import { emitToUsers, joinProjectRoom } from "../../utils/realtime.js";
+import { spreadRanks } from "../../utils/rank.js";
+import { notificationWrites } from "../../utils/notifications.js";
+import { invalidatePrincipals } from "../../utils/principals.js";
+import {
+  enqueueSideEffects,
+  recordActivity,
+} from "../../utils/sideEffects.js";
+
+const DEFAULT_COLUMNS = ["Todo", "In Progress", "Completed"];
 
 const createProject = async (req, res) => {
   const { name, description, projectManager, teamMembers } = req.body;
@@ -18,6 +30,15 @@ const createProject = async (req, res) => {
 
   try {
     const createdBy = req.user.id;
+    const members = (teamMembers || []).map((member) => member.toString());
+
+    // Checked first so a bad manager id does not leave a half-made project
+    const managerExists = await User.exists({ _id: projectManager });
+    if (!managerExists) {
+      return res
+        .status(404)
+        .json({ success: false, message: "Project Manager not found." });
+    }
 
     const project = await Project.create({
       name,
@@ -27,7 +48,32 @@ const createProject = async (req, res) => {
       teamMembers,
     });
 
-    await ActivityLog.create({
+    const columnRanks = spreadRanks(DEFAULT_COLUMNS.length);
+
+    // The board needs these right away, so they are part of the request
+    await Promise.all([
+      User.updateOne(
+        { _id: projectManager },
+        {
+          $set: { role: "manager" },
+          $addToSet: { assignedProjects: project._id },
+        }
+      ),
+      // Default columns, in board order
+      Column.insertMany(
+        DEFAULT_COLUMNS.map((columnName, index) => ({
+          name: columnName,
+          projectId: project._id,
+          order: columnRanks[index],
+        }))
+      ),
+    ]);
+
+    invalidateDashboards();
+    invalidatePrincipals([...members, projectManager, createdBy]);
+    joinProjectRoom(req.io, [...members, projectManager], project._id);
+
+    await recordActivity({
       projectId: project._id,
       userId: req.user.id,
       action: "Created",
@@ -36,54 +82,29 @@ const createProject = async (req, res) => {
       details: `New Project Created: ${project.name}`,
     });
 
-    const user = await User.findById(projectManager);
-    if (!user) {
-      return res
-        .status(404)
-        .json({ success: false, message: "Project Manager not found." });
-    }
-
-    user.role = "manager";
-    user.assignedProjects.push(project._id); // Add the board ID to the user's assigned projects
-    await user.save();
-
-    // Create the default columns: todo, in progress, completed
-    const columns = ["Todo", "In Progress", "Completed"];
-    const columnPromises = columns.map(async (columnName, index) => {
-      await Column.create({
-        name: columnName,
-        projectId: project._id,
-        order: index, // Ensure order is correct: 0 for Todo, 1 for In Progress, etc.
-      });
-    });
-
-    // Wait for all columns to be created
-    await Promise.all(columnPromises);
-
-    await Promise.all(
-      teamMembers.map(async (member) => {
-        await Notification.create({
-          userId: member.toString(),
+    await enqueueSideEffects({
+      ...notificationWrites([
+        ...members.map((member) => ({
+          userId: member,
           title: "New Project Created",
           message: `You have been added to ${project.name} team.`,
+        })),
+        {
+          userId: projectManager.toString(),
+          title: "New Project Created",
+          message: `${project.name} has been assigned to you.`,
+        },
+      ]),
+      after: () => {
+        emitToUsers(req.io, members, "projectNotification", {
+          members,
+          message: `You have been added to ${project.name} team.`,
         });
-      })
-    );
-
-    await Notification.create({
-      userId: projectManager.toString(),
-      title: "New Project Created",
-      message: `${project.name} has been assigned to you.`,
-    });
-
-    req.io.emit("projectNotification", {
-      members: [...teamMembers.map((member) => member.toString())],
-      message: `You have been added to ${project.name} team.`,
-    });
-
-    req.io.emit("projectNotification", {
-      members: [projectManager.toString()],
-      message: `${project.title} has been assigned to you.`,
+        emitToUsers(req.io, [projectManager], "projectNotification", {
+          members: [projectManager.toString()],
+          message: `${project.name} has been assigned to you.`,
+        });
+      },
     });
 
     return res.status(201).json({
@@ -107,31 +128,15 @@ const getAllProjects = async (req, res) => {
       .populate({ path: "projectManager", select: "name email" })
       .sort({ createdAt: -1 });
 
-    const projectsWithProgress = await Promise.all(
-      projects.map(async (project) => {
-        // Count the total tasks for the project
-        const totalTasks = await Task.countDocuments({
-          projectId: project._id,
-          isActive: true,
-        });
-
-        // Count the completed tasks for the project
-        const completedTasks = await Task.countDocuments({
-          projectId: project._id,
-          state: "Completed",
-          isActive: true,
-        });
-
-        // Calculate progress as a percentage
-        const progress =
-          totalTasks > 0 ? (completedTasks / totalTasks) * 100 : 0;
-
-        const roundedProgress = progress.toFixed(0);
-        // Add the progress to the project object
-        return { ...project.toObject(), progress: roundedProgress };
-      })
+    const progressByProject = await getProjectProgress(
+      projects.map((project) => project._id)
     );
 
+    const projectsWithProgress = projects.map((project) => ({
+      ...project.toObject(),
+      progress: progressOf(progressByProject, project._id).toFixed(0),
+    }));
+
     res.json({ success: true, projects: projectsWithProgress });
   } catch (error) {
     res.status(400).json({ success: false, message: error.message });
@@ -0,0 +1,16 @@
+import { sendAttachment } from "../utils/attachments.js";
+
+// Public like the static /uploads it replaces: attachment links are opened
+// in a new tab without the bearer token
+const getAttachment = async (req, res) => {
+  try {
+    await sendAttachment(req, res);
+  } catch (error) {
+    console.error("Error serving attachment:", error);
+    if (!res.headersSent) {
+      res.status(500).json({ success: false, message: "Failed to load file" });
+    }
+  }
+};
+
+export { getAttachment };
@@ -28,12 +28,6 @@ const registerUser = async (req, res) => {
         expiresIn: "30d",
       });
 
-      global.userData = {
-        name: user.name,
-        email: user.email,
-        id: user._id,
-      }
-
       res.status(201).json({
         success: true,
         message: "Account created successfully",
@@ -68,12 +62,6 @@ const loginUser = async (req, res) => {
           expiresIn: "30d",
         });
 
-        global.userData = {
-          name: user.name,
-          email: user.email,
-          id: user._id,
-        }
-
         res.status(201).json({
           success: true,
           message: "User login successfully",
@@ -95,12 +83,6 @@ const checkAuth = async (req, res) => {
   try {
     const user = await User.findById(req.user.id).select("-password");
 
-    global.userData = {
-      name: user.name,
-      email: user.email,
-      id: user._id,
-    }
-
     res.status(200).json({
       success: true,
       message: "Authenticated user!",
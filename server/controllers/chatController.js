@@ -1,41 +1,23 @@
+import mongoose from "mongoose";
 import Chat from "../models/chat.js";
 import User from "../models/user.js";
+import { emitToUsers } from "../utils/realtime.js";
+import {
+  getInbox,
+  markConversationRead,
+  pairOf,
+  recordMessage,
+} from "../utils/conversations.js";
+import { fetchChatPage } from "../utils/chatHistory.js";
+import { decodeCursor } from "../utils/keysetCursor.js";
+
+const DEFAULT_PAGE_SIZE = 50;
+const MAX_PAGE_SIZE = 200;
 
 const getRecentChats = async (req, res) => {
   try {
-    const userId = req.user.id;
-    const senders = await Chat.distinct("sender", { receiver: userId });
-    const receivers = await Chat.distinct("receiver", { sender: userId });
-    const uniqueUsers = [
-      ...new Set([
-        ...senders.map((sender) => sender.toString()),
-        ...receivers.map((receiver) => receiver.toString()),
-      ]),
-    ];
-    const allChats = await Promise.all(
-      uniqueUsers.map(async (user) => {
-        const chat = await Chat.findOne({
-          $or: [
-            { sender: user, receiver: userId },
-            { sender: userId, receiver: user },
-          ],
-        })
-          .sort({ createdAt: -1 })
-
-        const userDetails = await User.findById(user).select("name");
-        const chatData = {
-          chat:chat.chat,
-          sender:chat.sender,
-          receiver:chat.receiver,
-          isRead:chat.isRead,
-          time:chat.createdAt,
-          _id: userDetails._id,
-          name: userDetails.name,
-        };
-        return chatData;
-      })
-    );
-    return res.status(200).json({ success: true, recentChats: allChats });
+    const recentChats = await getInbox(req.user.id);
+    return res.status(200).json({ success: true, recentChats });
   } catch (error) {
     console.error(error);
     return res.status(500).json({ message: "Server error, please try again" });
@@ -47,22 +29,33 @@ const sendChat = async (req, res) => {
     const { receiver, chat } = req.body;
     const sender = req.user.id;
 
-    await Chat.create({
+    const [message, users] = await Promise.all([
+      Chat.create({
+        sender,
+        receiver,
+        chat,
+      }),
+      User.find({ _id: { $in: [sender, receiver] } })
+        .select("name")
+        .lean(),
+    ]);
+    const names = new Map(
+      users.map((user) => [user._id.toString(), user.name])
+    );
+
+    const conversation = await recordMessage({
       sender,
       receiver,
       chat,
+      sentAt: message.createdAt,
+      names,
     });
+    const count =
+      conversation[`unread${pairOf(sender, receiver).sideOf(receiver)}`];
 
-    const count = await Chat.find({
-      sender,
-      receiver,
-      isRead: false,
-    }).countDocuments();
-
-    const user = await User.findById(sender).select("name");
-    req.io.emit("chatNotification", {
+    emitToUsers(req.io, [receiver], "chatNotification", {
       members: [receiver],
-      message: `${count} new messages from ${user.name}`,
+      message: `${count} new messages from ${names.get(sender.toString())}`,
     });
 
     res.status(200).json({ message: "Message send successfullt" });
@@ -71,45 +64,64 @@ const sendChat = async (req, res) => {
   }
 };
 
+/**
+ * GET /api/chat/getAllChats/:userId?limit&before
+ *
+ * The conversation newest first, one page at a time; pass nextCursor back as
+ * `before` for older messages. It is null once the history is exhausted.
+ */
 const getAllChats = async (req, res) => {
   try {
     const { userId } = req.params;
     const myId = req.user.id;
+    const limit = Math.min(
+      Math.max(Number(req.query.limit) || DEFAULT_PAGE_SIZE, 1),
+      MAX_PAGE_SIZE
+    );
 
-    if (!userId || !myId) {
+    if (!mongoose.isValidObjectId(userId) || !myId) {
       return res.status(400).json({ error: "User ID or authentication is missing" });
     }
 
-    // Retrieve the chats
-    const chats = await Chat.find({
-      $or: [
-        { sender: myId, receiver: userId },
-        { sender: userId, receiver: myId },
-      ],
+    let before;
+    if (req.query.before) {
+      before = decodeCursor(req.query.before);
+      if (!before) {
+        return res.status(400).json({ error: "Invalid cursor" });
+      }
+    }
+
+    const { chats, nextCursor } = await fetchChatPage({
+      myId,
+      userId,
+      before,
+      limit,
     });
 
-    res.status(200).json({ success: true, chats });
+    res.status(200).json({ success: true, chats, nextCursor });
   } catch (error) {
     console.error(error); // Log the error for debugging
     res.status(500).json({ error: "Internal server error" });
   }
 };
 
-
 const markAsReadChats = async (req, res) => {
   const { userId } = req.params;
   const myId = req.user.id;
 
-  await Chat.updateMany(
-    {
-      sender: userId,
-      receiver: myId,
-      isRead: false,
-    },
-    {
-      $set: { isRead: true },
-    }
-  );
+  await Promise.all([
+    Chat.updateMany(
+      {
+        sender: userId,
+        receiver: myId,
+        isRead: false,
+      },
+      {
+        $set: { isRead: true },
+      }
+    ),
+    markConversationRead(myId, userId),
+  ]);
 
   res.status(200).json({ success: true });
 };
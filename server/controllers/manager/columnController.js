@@ -1,6 +1,8 @@
 import Column from "../../models/column.js";
-import Task from "../../models/task.js";
-import ActivityLog from "../../models/activityLog.js";
+import { publishBoardDelta } from "../../utils/boardEvents.js";
+import { sendBoard } from "../../utils/boardLoader.js";
+import { appendColumnRank } from "../../utils/boardRanks.js";
+import { recordActivity } from "../../utils/sideEffects.js";
 
 const createColumn = async (req, res) => {
   const { name, projectId } = req.body;
@@ -8,14 +10,18 @@ const createColumn = async (req, res) => {
     return res.status(400).json({ message: "Missing required fields" });
   }
   try {
-    const columnCount = await Column.countDocuments({ projectId });
+    const order = await appendColumnRank(req.io, projectId);
     const column = await Column.create({
       name,
       projectId,
-      order: columnCount,
+      order,
     });
 
-    await ActivityLog.create({
+    publishBoardDelta(req.io, projectId, "column.created", {
+      columnId: column._id,
+    });
+
+    await recordActivity({
       projectId: projectId,
       userId: req.user.id,
       action: "Created",
@@ -38,49 +44,10 @@ const createColumn = async (req, res) => {
 const getColumns = async (req, res) => {
   const { filters } = req.query;
   try {
-    // Fetch all active columns for the given project
-    const columns = await Column.find({
+    await sendBoard(req, res, {
       projectId: filters.selectedProject,
-      isActive: true,
-    }).sort({
-      order: 1,
+      filters,
     });
-
-    // Fetch tasks for each column and attach them
-    const columnsWithTasks = await Promise.all(
-      columns.map(async (column) => {
-
-        let taskQuery = {
-          columnId: column._id,
-          isActive: true,
-        };
-
-        if (filters.priority) {
-          taskQuery.priority = filters.priority;
-        }
-
-        if (filters.search) {
-          const searchRegex = new RegExp(filters.search, "i");
-          taskQuery.$or = [
-            { name: { $regex: searchRegex } },
-            { description: { $regex: searchRegex } },
-          ];
-        }
-
-        if (filters.dueDate) {
-          taskQuery.dueDate = new Date(filters.dueDate);
-        }
-
-        const tasks = await Task.find(taskQuery)
-          .sort({ order: 1 })
-          .populate("assignees", "name email")
-          .populate("createdBy", "name email")
-          .populate("dependencies","state name");
-        return { ...column.toObject(), tasks }; // Include tasks in the column object
-      })
-    );
-
-    res.status(200).json({ success: true, columnsWithTasks });
   } catch (error) {
     console.error("Error fetching columns:", error);
     return res
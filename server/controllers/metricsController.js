@@ -0,0 +1,41 @@
+import crypto from "crypto";
+import { renderMetrics } from "../utils/metrics.js";
+
+// Scrapers send METRICS_TOKEN as a bearer token. Without one configured the
+// endpoint stays closed: behind a reverse proxy every client looks local, so
+// the caller's address proves nothing.
+const mayScrape = (req) => {
+  const token = process.env.METRICS_TOKEN;
+  if (!token) {
+    return false;
+  }
+  const expected = Buffer.from(`Bearer ${token}`);
+  const given = Buffer.from(req.headers.authorization || "");
+  return (
+    given.length === expected.length && crypto.timingSafeEqual(given, expected)
+  );
+};
+
+/**
+ * GET /metrics
+ *
+ * Request latency per route, MongoDB command timings per model, event-loop
+ * lag, heap, Socket.IO connections and emits, and side-effect queue depth,
+ * in the Prometheus text format.
+ */
+const getMetrics = async (req, res) => {
+  if (!mayScrape(req)) {
+    return res.status(401).json({ success: false, message: "Unauthorised" });
+  }
+  try {
+    res
+      .status(200)
+      .type("text/plain; version=0.0.4; charset=utf-8")
+      .send(renderMetrics());
+  } catch (error) {
+    console.error("Error rendering metrics:", error);
+    res.status(500).json({ success: false, message: "Failed to render metrics" });
+  }
+};
+
+export { getMetrics };
@@ -1,41 +1,67 @@
-import Notification from "../models/notifications.js"
+import {
+    clearAll,
+    fetchNotificationPage,
+    markAllRead,
+    unreadCount,
+} from "../utils/notifications.js"
+import { decodeCursor } from "../utils/keysetCursor.js"
 
+const DEFAULT_PAGE_SIZE = 20;
+const MAX_PAGE_SIZE = 100;
+
+// Notifications are always the caller's own; the userId in the body or path
+// is kept for older clients but no longer trusted.
 const clearNotifications = async (req, res) => {
-    const { userId } = req.body;
-    await Notification.updateMany(
-        { userId: userId },
-        { $set: { status: 0 } }
-    )
-    res.json({ success: true });
+    try {
+        await clearAll(req.user.id);
+        res.json({ success: true, count: 0 });
+    } catch (error) {
+        console.error("Error clearing notifications:", error);
+        res.status(500).json({ success: false, message: "Failed to clear notifications" });
+    }
 }
 
 const markAsReadNotifications = async (req, res) => {
-    const { userId } = req.body;
-    await Notification.updateMany(
-        { userId: userId, status:{$ne:0} },
-        { $set: { status: 2 } },
-    )
-    const notifications = await Notification.find({
-        userId: userId,
-        status: {$ne: 0},
-    }).populate("userId").sort({ createdAt: -1 });
-    
-    res.json({ success: true, notifications })
+    try {
+        await markAllRead(req.user.id);
+        res.json({ success: true, count: 0 });
+    } catch (error) {
+        console.error("Error marking notifications as read:", error);
+        res.status(500).json({ success: false, message: "Failed to mark notifications as read" });
+    }
 }
 
+/**
+ * GET /api/notification/fetchNotifications/:userId?limit&before
+ *
+ * The caller's feed newest first, one page at a time, with the unread count.
+ * Pass nextCursor back as `before` for older entries; null on the last page.
+ */
 const fetchNotifications = async (req, res) => {
-    const { userId } = req.params;
+    try {
+        const userId = req.user.id;
+        const limit = Math.min(
+            Math.max(Number(req.query.limit) || DEFAULT_PAGE_SIZE, 1),
+            MAX_PAGE_SIZE
+        );
 
-    const notifications = await Notification.find({
-        userId: userId,
-        status: {$ne: 0},
-    }).populate("userId").sort({ createdAt: -1 });
+        let before;
+        if (req.query.before) {
+            before = decodeCursor(req.query.before);
+            if (!before) {
+                return res.status(400).json({ success: false, message: "Invalid cursor" });
+            }
+        }
 
-    const count = await Notification.find({
-        userId:userId,
-        status: 1,
-    }).countDocuments();
-    res.status(200).json({success:true, notifications, count})
+        const [page, count] = await Promise.all([
+            fetchNotificationPage({ userId, before, limit }),
+            unreadCount(userId),
+        ]);
+        res.status(200).json({ success: true, ...page, count })
+    } catch (error) {
+        console.error("Error fetching notifications:", error);
+        res.status(500).json({ success: false, message: "Failed to fetch notifications" });
+    }
 }
 
-export { clearNotifications, markAsReadNotifications, fetchNotifications }
\ No newline at end of file
+export { clearNotifications, markAsReadNotifications, fetchNotifications }
@@ -1,99 +1,58 @@
 import Project from "../../models/project.js";
-import Task from "../../models/task.js";
+import {
+  countTasks,
+  getDashboardSnapshot,
+  getProjectProgress,
+  progressOf,
+  toObjectIds,
+} from "../../utils/dashboardStats.js";
 
 export const dashboardData = async (req, res) => {
   const userId = req.user.id;
-  const totalTask = await Task.find({
-    isActive: true,
-    assignees: { $in: [userId] },
-  }).countDocuments();
-  const todoTask = await Task.find({
-    isActive: true,
-    assignees: { $in: [userId] },
-    state: "Todo",
-  }).countDocuments();
-  const inProgressTask = await Task.find({
-    isActive: true,
-    state: "In Progress",
-    assignees: { $in: [userId] },
-  }).countDocuments();
-  const completedTask = await Task.find({
-    isActive: true,
-    state: "Completed",
-    assignees: { $in: [userId] },
-  }).countDocuments();
-  const overDueTask = await Task.find({
-    isActive: true,
-    state: { $ne: "Completed" },
-    dueDate: { $lt: new Date() },
-    assignees: { $in: [userId] },
-  }).countDocuments();
-  const totalProjects = await Project.find({
-    isActive: true,
-    teamMembers: { $in: [userId] },
-  }).countDocuments();
-  res.status(200).json({
-    success: true,
-    data: {
-      totalTask,
-      todoTask,
-      inProgressTask,
-      completedTask,
-      overDueTask,
-      totalProjects,
-    },
-  });
+
+  try {
+    const data = await getDashboardSnapshot(`user:${userId}`, async () => {
+      // The principal already holds the user's active projects
+      const taskCounts = await countTasks({
+        assignees: { $in: toObjectIds([userId]) },
+      });
+      return { ...taskCounts, totalProjects: req.user.projects.size };
+    });
+
+    res.status(200).json({ success: true, data });
+  } catch (error) {
+    console.error(error);
+    res.status(500).json({ success: false, message: "Server error" });
+  }
 };
 
 export const getAllProjectsWithProgress = async (req, res) => {
-  const userId = req.user.id;
   // Find all projects and populate necessary fields
   const projects = await Project.find({
+    _id: { $in: [...req.user.projects] },
     isActive: true,
-    teamMembers: { $in: [userId] },
   })
     .select("name teamMembers projectManager")
     .populate("projectManager", "name email")
     .populate("teamMembers", "name email")
     .exec();
 
-  // If no projects are found, return an empty array
-  if (!projects || projects.length === 0) {
-    return [];
-  }
-
-  // Iterate through each project to calculate progress
-  const projectsWithProgress = await Promise.all(
-    projects.map(async (project) => {
-      const totalTasks = await Task.countDocuments({
-        projectId: project._id,
-        isActive: true,
-      });
-      const completedTasks = await Task.countDocuments({
-        projectId: project._id,
-        state: "Completed",
-        isActive: true,
-      });
-
-      // Calculate progress as a percentage
-      const progress =
-        totalTasks === 0 ? 0 : (completedTasks / totalTasks) * 100;
-
-      // Format the project data
-      return {
-        name: project.name,
-        manager: {
-          name: project.projectManager.name,
-          email: project.projectManager.email,
-        },
-        members: project.teamMembers.map((member) => ({
-          name: member.name,
-          email: member.email,
-        })),
-        progress: Math.round(progress),
-      };
-    })
+  const progressByProject = await getProjectProgress(
+    projects.map((project) => project._id)
   );
 
+  const projectsWithProgress = projects.map((project) => ({
+    name: project.name,
+    manager: {
+      name: project.projectManager.name,
+      email: project.projectManager.email,
+    },
+    members: project.teamMembers.map((member) => ({
+      name: member.name,
+      email: member.email,
+    })),
+    progress: Math.round(progressOf(progressByProject, project._id)),
+  }));
+
   res.json({ success: true, tableData: projectsWithProgress });
 };
@@ -1,18 +1,43 @@
-import ActivityLog from "../../models/activityLog.js";
 import Column from "../../models/column.js";
 import Task from "../../models/task.js";
 import User from "../../models/user.js";
 import { categorizeTask } from "../../utils/aiService.js";
+import { invalidateDashboards } from "../../utils/dashboardStats.js";
+import { recordTaskRollup } from "../../utils/analyticsRollups.js";
+import { sendSearchResults } from "../../utils/taskSearch.js";
+import { sendCommentPage, sendNewComment } from "../../utils/comments.js";
+import { appendTaskRank, placeTaskRank } from "../../utils/boardRanks.js";
+import {
+  completionBlockers,
+  dependencyProblem,
+  getDependencyGraph,
+  taskRemoved,
+  taskSaved,
+  taskStateChanged,
+} from "../../utils/dependencyGraph.js";
+import { publishBoardDelta, publishTaskDelta } from "../../utils/boardEvents.js";
+import {
+  enqueueSideEffects,
+  recordActivity,
+} from "../../utils/sideEffects.js";
 
 const deleteTask = async (req, res) => {
   try {
     const { taskId, userId } = req.body;
     const task = await Task.findById(taskId);
     if (task.createdBy == userId) {
+      const before = task.toObject();
       task.isActive = false;
       await task.save();
 
-      await ActivityLog.create({
+      invalidateDashboards();
+      await recordTaskRollup(task.projectId, before, task);
+      taskRemoved(task.projectId, task._id);
+      publishBoardDelta(req.io, task.projectId, "task.deleted", {
+        taskId: task._id,
+      });
+
+      await recordActivity({
         projectId: task.projectId,
         userId: req.user.id,
         action: "Deleted",
@@ -51,16 +76,25 @@ const createTask = async (req, res) => {
   const assignees = [];
   assignees.push(createdBy);
 
+  const dependencyIds = [].concat(dependencies || []);
+
   const attachments = [];
   req.files.forEach((file) =>
     attachments.push({
       fileName: file.filename,
       originalName: file.originalname,
+      hash: file.hash,
+      size: file.size,
     })
   );
 
   try {
-    const taskCount = await Task.countDocuments({ columnId });
+    const problem = await dependencyProblem(projectId, null, dependencyIds);
+    if (problem) {
+      return res.status(400).json({ success: false, message: problem });
+    }
+
+    const order = await appendTaskRank(req.io, projectId, columnId);
     const category = categorizeTask(name, description);
 
     const task = await Task.create({
@@ -74,12 +108,17 @@ const createTask = async (req, res) => {
       assignees,
       projectId,
       category,
-      order: taskCount,
-      dependencies,
+      order,
+      dependencies: dependencyIds,
       attachments,
     });
 
-    await ActivityLog.create({
+    invalidateDashboards();
+    await recordTaskRollup(task.projectId, null, task);
+    taskSaved(task);
+    publishTaskDelta(req.io, "task.created", task);
+
+    await recordActivity({
       projectId: projectId,
       userId: req.user.id,
       action: "Created",
@@ -88,12 +127,20 @@ const createTask = async (req, res) => {
       details: `New Task Created: ${task.name}`,
     });
 
-    if (assignees && assignees.length > 0) {
-      await User.updateMany(
-        { _id: { $in: assignees } },
-        { $push: { tasks: task._id } }
-      );
-    }
+    const members = (assignees || []).map((ele) => ele.toString());
+    await enqueueSideEffects({
+      updates: [
+        {
+          model: User,
+          operations: members.map((member) => ({
+            updateOne: {
+              filter: { _id: member },
+              update: { $addToSet: { tasks: task._id } },
+            },
+          })),
+        },
+      ],
+    });
 
     return res
       .status(201)
@@ -108,47 +155,72 @@ const createTask = async (req, res) => {
 
 const updateTaskPosition = async (req, res) => {
   const { taskId } = req.params;
-  const { columnId, order } = req.body;
+  const { columnId, prevTaskId, nextTaskId } = req.body;
 
   try {
-    const oldTask = await Task.findById(taskId)
-      .select("columnId")
-      .populate("columnId", "name");
-    const column = await Column.findById(columnId).select("name");
-
-    const task = await Task.findById(taskId).populate("dependencies");
+    const [task, column] = await Promise.all([
+      Task.findById(taskId)
+        .select("name projectId columnId state")
+        .populate("columnId", "name"),
+      Column.findById(columnId).select("name"),
+    ]);
+    if (!task || !column) {
+      return res
+        .status(404)
+        .json({ success: false, message: "Task or column not found" });
+    }
 
+    let unblockedTaskIds = [];
     if (column.name === "Completed") {
       // Ensure all dependencies are completed
-      const incompleteDependencies = task.dependencies.filter(
-        (dep) => dep.state !== "Completed"
-      );
-
-      if (incompleteDependencies.length > 0) {
+      if ((await completionBlockers(task.projectId, taskId)).length > 0) {
         return res.status(400).json({
           success: false,
           message:
             "Task cannot be completed until all dependencies are completed.",
         });
       }
+      const graph = await getDependencyGraph(task.projectId);
+      unblockedTaskIds = graph.unblockedBy(taskId);
     }
 
+    const order = await placeTaskRank(req.io, {
+      projectId: task.projectId,
+      columnId,
+      taskId,
+      prevTaskId,
+      nextTaskId,
+    });
     const updatedTask = await Task.findByIdAndUpdate(
       taskId,
       { columnId, order, state: column.name },
       { new: true }
     );
 
-    await ActivityLog.create({
+    invalidateDashboards();
+    await recordTaskRollup(
+      updatedTask.projectId,
+      { columnId: task.columnId?._id, state: task.state },
+      { columnId: updatedTask.columnId, state: updatedTask.state }
+    );
+    taskStateChanged(updatedTask.projectId, taskId, updatedTask.state);
+    publishBoardDelta(req.io, updatedTask.projectId, "task.moved", {
+      taskId: updatedTask._id,
+      columnId: updatedTask.columnId,
+      order: updatedTask.order,
+      state: updatedTask.state,
+    });
+
+    await recordActivity({
       projectId: updatedTask.projectId,
       userId: req.user.id,
       action: "Moved",
       entity: "Task",
       entityId: updatedTask._id,
-      details: `${updatedTask.name} moved from ${oldTask.columnId.name} to ${column.name}`,
+      details: `${updatedTask.name} moved from ${task.columnId.name} to ${column.name}`,
     });
 
-    res.status(200).json({ success: true, updatedTask });
+    res.status(200).json({ success: true, updatedTask, unblockedTaskIds });
   } catch (error) {
     console.error("Error updating task position:", error);
     return res.status(500).json({ message: "Failed to update task position" });
@@ -156,33 +228,23 @@ const updateTaskPosition = async (req, res) => {
 };
 
 const addComment = async (req, res) => {
-  const { taskId } = req.params;
-  const { commenterId, content, mentionedUsers, commenterName } = req.body;
   try {
-    const task = await Task.findById(taskId);
-    if (!task) {
-      return res.status(404).json({ message: "Task not found" });
-    }
-
-    const newComment = {
-      commenterId,
-      commenterName,
-      content,
-      mentionedUsers: mentionedUsers || [],
-    };
-
-    task.comments.push(newComment);
-    await task.save();
-
-    res
-      .status(200)
-      .json({ success: true, message: "Comment added successfully" });
+    await sendNewComment(req, res);
   } catch (error) {
     console.error(error);
     res.status(500).json({ success: false, message: "Server error" });
   }
 };
 
+const getComments = async (req, res) => {
+  try {
+    await sendCommentPage(req, res);
+  } catch (error) {
+    console.error("Error fetching comments:", error);
+    res.status(500).json({ success: false, message: "Failed to fetch comments" });
+  }
+};
+
 const getAllTasks = async (req, res) => {
   const { projectId } = req.params;
 
@@ -199,4 +261,29 @@ const getAllTasks = async (req, res) => {
   }
 };
 
-export { createTask, deleteTask, addComment, updateTaskPosition, getAllTasks };
+const getCriticalPath = async (req, res) => {
+  const { projectId } = req.params;
+
+  try {
+    const graph = await getDependencyGraph(projectId);
+    const criticalPath = graph
+      .longestOpenChain()
+      .map(({ id, name, state, dueDate }) => ({ _id: id, name, state, dueDate }));
+
+    res.status(200).json({ success: true, criticalPath });
+  } catch (error) {
+    console.error("Error computing critical path:", error);
+    res.status(500).json({ success: false, message: "Server error" });
+  }
+};
+
+const searchTasks = async (req, res) => {
+  try {
+    await sendSearchResults(req, res, { assigneeId: req.user.id });
+  } catch (error) {
+    console.error("Error searching tasks:", error);
+    res.status(500).json({ success: false, message: "Failed to search tasks" });
+  }
+};
+
+export { createTask, deleteTask, addComment, getComments, updateTaskPosition, getAllTasks, searchTasks, getCriticalPath };
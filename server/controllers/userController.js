@@ -1,5 +1,6 @@
 import Project from "../models/project.js";
 import User from "../models/user.js";
+import { sendMentionPage } from "../utils/comments.js";
 
 const getAllUsers = async (req, res) => {
   try {
@@ -27,4 +28,12 @@ const getProjectMembers = async (req, res) => {
   }
 };
 
-export { getAllUsers, getProjectMembers };
+const getMentions = async (req, res) => {
+  try {
+    await sendMentionPage(req, res);
+  } catch (error) {
+    res.status(400).json({ success: false, message: error.message });
+  }
+};
+
+export { getAllUsers, getProjectMembers, getMentions };
@@ -4,6 +4,7 @@ import cors from "cors";
 import dotenv from "dotenv";
 import dbConnection from "./utils/dbconfig.js";
 import morgan from "morgan";
+import recordRequestMetrics from "./middlewares/metricsMiddleware.js";
 import authRouter from "./routes/authRoute.js";
 import userRouter from "./routes/userRoute.js";
 import activityRouter from "./routes/activityRoute.js";
@@ -22,7 +23,14 @@ import managerColumnRouter from "./routes/manager/columnRoute.js";
 import managerProjectRouter from "./routes/manager/projectRoute.js";
 import managerTaskRouter from "./routes/manager/taskRoute.js";
 import chatRouter from "./routes/chatRoute.js";
-import { Server } from "socket.io";
+import attachmentRouter from "./routes/attachmentRoute.js";
+import metricsRouter from "./routes/metricsRoute.js";
+import { createRealtime } from "./utils/realtime.js";
+import { registerBoardChannel } from "./utils/boardEvents.js";
+import { registerGraphChannel } from "./utils/dependencyGraph.js";
+import { drainSideEffects } from "./utils/sideEffects.js";
+import { startRuntimeMetrics } from "./utils/metrics.js";
+import mongoose from "mongoose";
 import { createServer } from "http";
 
 dotenv.config();
@@ -31,11 +39,15 @@ const PORT = process.env.PORT || 8800;
 
 dbConnection();
 
+startRuntimeMetrics();
+
 const app = express();
 
+app.use(recordRequestMetrics);
+
 const httpServer = createServer(app);
 
-const io = new Server(httpServer, {
+const io = createRealtime(httpServer, {
   cors: {
     origin: process.env.FRONTEND_URI, // or where your web app is served from
     methods: ["GET", "POST", "PUT", "DELETE"],
@@ -44,17 +56,14 @@ const io = new Server(httpServer, {
   },
 });
 
+registerBoardChannel(io);
+registerGraphChannel(io);
+
 app.use((req, res, next) => {
   req.io = io; // Attach the 'io' object to the request
   next();
 });
 
-io.on("connection", (socket) => {
-  io.emit("messageReceived", "Hello World");
-  socket.on("disconnect", () => {
-  });
-});
-
 const corsOptions = {
   origin: process.env.FRONTEND_URI,
   credentials: true, //access-control-allow-credentials:true
@@ -69,9 +78,14 @@ app.use(express.urlencoded({ extended: false }));
 
 app.use(cookieParser());
 
-app.use(morgan("dev"));
+// Per-request console logging is opt-in (REQUEST_LOG=dev, combined, ...);
+// latency per route is on /metrics and slow requests are always logged
+if (process.env.REQUEST_LOG) {
+  app.use(morgan(process.env.REQUEST_LOG));
+}
 
-app.use("/uploads", express.static("uploads"));
+app.use("/metrics", metricsRouter);
+app.use("/uploads", attachmentRouter);
 
 app.use("/auth", authRouter);
 app.use("/user", userRouter);
@@ -95,3 +109,22 @@ app.use("/api/chat", chatRouter);
 httpServer.listen(PORT, () => {
   console.log(`Server is running on port ${PORT}`);
 });
+
+// Stop taking requests, let the ones in flight finish (they may still queue
+// side effects), write out the queue, then exit
+const shutdown = async (signal) => {
+  console.log(`${signal} received, shutting down`);
+  try {
+    // io.close() also closes the HTTP server; resolves once requests are done
+    await new Promise((resolve) => io.close(() => resolve()));
+    await drainSideEffects();
+    // Catch jobs queued by work that was still settling during the drain
+    await drainSideEffects();
+    await mongoose.disconnect();
+  } finally {
+    process.exit(0);
+  }
+};
+
+process.once("SIGTERM", () => shutdown("SIGTERM"));
+process.once("SIGINT", () => shutdown("SIGINT"));
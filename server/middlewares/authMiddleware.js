@@ -1,29 +1,29 @@
-import jwt from "jsonwebtoken";
+import { resolvePrincipal } from "../utils/principals.js";
 
-// user authentication middleware
+// user authentication middleware; req.user is the cached principal
+// (token claims plus role and project memberships, see utils/principals.js)
 const protectRoute = async (req, res, next) => {
-  if (
-    req.headers.authorization &&
-    req.headers.authorization.startsWith("Bearer")
-  ) {
-    const token = req.headers.authorization.split(" ")[1];
-    if (!token) {
+  const header = req.headers.authorization;
+  const token =
+    header && header.startsWith("Bearer") ? header.split(" ")[1] : null;
+
+  try {
+    const principal = await resolvePrincipal(token);
+    if (!principal) {
       return res.status(401).json({
         success: false,
         message: "Unauthorised user!",
       });
     }
-    try {
-      const decoded = jwt.verify(token, process.env.JWT_SECRET);
-      req.user = decoded;
-      next();
-    } catch (error) {
-      res.status(401).json({
-        success: false,
-        message: "Unauthorised user!",
-      });
-    }
+    req.user = principal;
+  } catch (error) {
+    console.error("Error resolving principal:", error);
+    return res.status(500).json({
+      success: false,
+      message: "Server error, please try again",
+    });
   }
+  next();
 };
 
 export default protectRoute;
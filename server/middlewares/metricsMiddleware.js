@@ -0,0 +1,34 @@
+import { httpRequestDuration } from "../utils/metrics.js";
+
+const SLOW_REQUEST_MS = Number(process.env.SLOW_REQUEST_MS) || 1000;
+
+// Route templates (not URLs) keep one series per endpoint instead of one per
+// id; requests no route matched share "unmatched"
+const routeOf = (req) =>
+  req.route ? `${req.baseUrl}${req.route.path}` : "unmatched";
+
+// Times every request into the latency histogram and logs the slow ones.
+// Mount it first so the time includes body parsing and auth.
+const recordRequestMetrics = (req, res, next) => {
+  const start = process.hrtime.bigint();
+  res.once("finish", () => {
+    const seconds = Number(process.hrtime.bigint() - start) / 1e9;
+    const route = routeOf(req);
+    httpRequestDuration.observe(
+      {
+        method: req.method,
+        route,
+        status: `${Math.floor(res.statusCode / 100)}xx`,
+      },
+      seconds
+    );
+    if (seconds * 1000 >= SLOW_REQUEST_MS) {
+      console.warn(
+        `Slow request: ${req.method} ${route} ${res.statusCode} ${Math.round(seconds * 1000)} ms`
+      );
+    }
+  });
+  next();
+};
+
+export default recordRequestMetrics;
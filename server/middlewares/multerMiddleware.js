@@ -1,14 +1,91 @@
+import crypto from "crypto";
 import multer from "multer";
 import path from "path"
+import { getAttachmentStorage } from "../utils/attachmentStorage.js";
 
-const storage = multer.diskStorage({
-    destination: (req, file, cb) => {
-        cb(null, "uploads/");
+const MAX_FILE_SIZE = Number(process.env.ATTACHMENT_MAX_BYTES) || 25 * 1024 * 1024;
+const MAX_FILES = Number(process.env.ATTACHMENT_MAX_FILES) || 10;
+
+// Kept on the stored name only so downloads get the right Content-Type
+const extensionOf = (originalName) => {
+    const extension = path.extname(originalName || "").toLowerCase();
+    return /^\.[a-z0-9]{1,10}$/.test(extension) ? extension : "";
+}
+
+/**
+ * Multer storage engine that streams each file into the attachment storage
+ * while hashing it, then stores it under its SHA-256. An identical file that
+ * is already stored is not written again. Files are named `${hash}${ext}`.
+ */
+const contentAddressedStorage = {
+    _handleFile(req, file, cb) {
+        const upload = getAttachmentStorage().createUpload();
+        const hash = crypto.createHash("sha256");
+        let size = 0;
+        let failed = false;
+
+        const fail = (error) => {
+            if (failed) {
+                return;
+            }
+            failed = true;
+            upload.abort().finally(() => cb(error));
+        }
+
+        file.stream.on("data", (chunk) => {
+            size += chunk.length;
+            hash.update(chunk);
+        });
+        file.stream.on("error", fail);
+        upload.stream.on("error", fail);
+        upload.stream.on("finish", () => {
+            // Multer reports LIMIT_FILE_SIZE itself; never keep a cut-off file
+            if (failed || file.stream.truncated) {
+                return fail(new multer.MulterError("LIMIT_FILE_SIZE", file.fieldname));
+            }
+            const digest = hash.digest("hex");
+            upload.commit(digest)
+                .then(({ deduplicated }) => cb(null, {
+                    filename: `${digest}${extensionOf(file.originalname)}`,
+                    hash: digest,
+                    size,
+                    deduplicated,
+                }))
+                .catch(fail);
+        });
+        file.stream.pipe(upload.stream);
     },
-    filename: (req, file, cb) => {
-        const fileExtension = path.extname(file.originalname);
-        cb(null, `${Date.now()}${fileExtension}`);
-    }
-})
 
-export const upload = multer({ storage });
+    // Blobs may be shared with other attachments, so a failed request only
+    // leaves an unreferenced blob behind, never deletes one
+    _removeFile(req, file, cb) {
+        cb(null);
+    },
+}
+
+export const upload = multer({
+    storage: contentAddressedStorage,
+    limits: { fileSize: MAX_FILE_SIZE, files: MAX_FILES },
+});
+
+const LIMIT_MESSAGES = {
+    LIMIT_FILE_SIZE: `Attachments must be at most ${Math.round(MAX_FILE_SIZE / (1024 * 1024))} MB`,
+    LIMIT_FILE_COUNT: `At most ${MAX_FILES} attachments can be uploaded at once`,
+};
+
+// upload.array() with upload errors answered as JSON instead of a 500 page
+export const uploadAttachments = (field) => (req, res, next) => {
+    upload.array(field)(req, res, (error) => {
+        if (!error) {
+            return next();
+        }
+        if (error instanceof multer.MulterError) {
+            return res.status(error.code === "LIMIT_FILE_SIZE" ? 413 : 400).json({
+                success: false,
+                message: LIMIT_MESSAGES[error.code] || error.message,
+            });
+        }
+        console.error("Error storing attachments:", error);
+        res.status(500).json({ success: false, message: "Failed to store attachments" });
+    });
+}
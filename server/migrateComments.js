@@ -0,0 +1,109 @@
+import mongoose from 'mongoose';
+import dotenv from 'dotenv';
+import Comment from './models/comment.js';
+import Task from './models/task.js';
+
+dotenv.config();
+
+const BATCH_SIZE = 200;
+const LEGACY_TEXT_INDEX = 'task_text';
+const PREVIEW_LENGTH = 140;
+
+// Same shape as the preview utils/comments.js keeps on new comments
+const previewOf = (comment) => ({
+    commenterId: comment.commenterId,
+    commenterName: comment.commenterName,
+    content: comment.content.slice(0, PREVIEW_LENGTH),
+    createdAt: comment.createdAt,
+});
+
+// Moves the comments embedded in tasks into the comments collection, keeping
+// their _id so a rerun skips the ones already copied, then sets the task's
+// commentCount and lastComment and removes the embedded array.
+const migrateBatch = async (tasks) => {
+    const comments = tasks.flatMap((task) => task.comments.map((comment) => ({
+        _id: comment._id,
+        taskId: task._id,
+        projectId: task.projectId,
+        commenterId: comment.commenterId,
+        commenterName: comment.commenterName,
+        content: comment.content,
+        mentionedUsers: comment.mentionedUsers || [],
+        createdAt: comment.createdAt,
+        updatedAt: comment.createdAt,
+    })));
+
+    if (comments.length > 0) {
+        try {
+            await Comment.collection.insertMany(comments, { ordered: false });
+        } catch (error) {
+            const writeErrors = error.writeErrors || [];
+            if (!(writeErrors.length > 0 && writeErrors.every((writeError) => writeError.code === 11000))) {
+                throw error;
+            }
+        }
+    }
+
+    await Task.collection.bulkWrite(tasks.map((task) => {
+        const latest = task.comments.reduce((last, comment) =>
+            (!last || comment.createdAt > last.createdAt ? comment : last), null);
+        return {
+            updateOne: {
+                filter: { _id: task._id },
+                update: {
+                    $set: {
+                        commentCount: task.comments.length,
+                        ...(latest ? { lastComment: previewOf(latest) } : {}),
+                    },
+                    $unset: { comments: '' },
+                },
+            },
+        };
+    }), { ordered: false });
+};
+
+const migrate = async () => {
+    try {
+        await mongoose.connect(process.env.MONGODB_URI);
+        console.log('Connected to MongoDB');
+
+        // Only one text index per collection: the old one covered comments
+        const indexes = await Task.collection.indexes();
+        if (indexes.some((index) => index.name === LEGACY_TEXT_INDEX)) {
+            await Task.collection.dropIndex(LEGACY_TEXT_INDEX);
+            console.log(`Dropped ${LEGACY_TEXT_INDEX}`);
+        }
+        await Comment.syncIndexes();
+
+        const cursor = Task.collection.find(
+            { comments: { $exists: true } },
+            { projection: { projectId: 1, comments: 1 } }
+        );
+        let tasks = 0;
+        let batch = [];
+        for await (const task of cursor) {
+            batch.push(task);
+            if (batch.length >= BATCH_SIZE) {
+                await migrateBatch(batch);
+                tasks += batch.length;
+                batch = [];
+            }
+        }
+        if (batch.length > 0) {
+            await migrateBatch(batch);
+            tasks += batch.length;
+        }
+
+        await Task.collection.updateMany({ commentCount: { $exists: false } }, { $set: { commentCount: 0 } });
+        await Task.syncIndexes();
+
+        console.log(`Done. Comments moved out of ${tasks} tasks.`);
+        await mongoose.disconnect();
+        process.exit(0);
+    } catch (error) {
+        console.error('Migration failed:', error);
+        process.exit(1);
+    }
+};
+
+migrate();
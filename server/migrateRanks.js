@@ -0,0 +1,59 @@
+import mongoose from 'mongoose';
+import dotenv from 'dotenv';
+import Column from './models/column.js';
+import Task from './models/task.js';
+import { spreadRanks } from './utils/rank.js';
+
+dotenv.config();
+
+const notRanked = { order: { $not: { $type: 'string' } } };
+
+// Gives every item in a scope an evenly spaced rank, keeping the old order
+const respread = async (model, filter) => {
+    const items = await model.find(filter)
+        .sort({ order: 1, createdAt: 1, _id: 1 })
+        .select('_id')
+        .lean();
+    const ranks = spreadRanks(items.length);
+    if (items.length > 0) {
+        await model.bulkWrite(items.map((item, index) => ({
+            updateOne: {
+                filter: { _id: item._id },
+                update: { $set: { order: ranks[index] } },
+            },
+        })), { ordered: false });
+    }
+    return items.length;
+};
+
+// Converts the integer column and card positions from before lexicographic
+// ranks. Only scopes that still hold a non-rank are touched, so it is safe
+// to run more than once.
+const migrate = async () => {
+    try {
+        await mongoose.connect(process.env.MONGODB_URI);
+        console.log('Connected to MongoDB');
+
+        const projectIds = await Column.distinct('projectId', notRanked);
+        let columns = 0;
+        for (const projectId of projectIds) {
+            columns += await respread(Column, { projectId });
+        }
+        console.log(`Ranked ${columns} columns in ${projectIds.length} projects`);
+
+        const columnIds = await Task.distinct('columnId', notRanked);
+        let tasks = 0;
+        for (const columnId of columnIds) {
+            tasks += await respread(Task, { columnId });
+        }
+        console.log(`Done. Ranked ${tasks} tasks in ${columnIds.length} columns.`);
+
+        await mongoose.disconnect();
+        process.exit(0);
+    } catch (error) {
+        console.error('Rank migration failed:', error);
+        process.exit(1);
+    }
+};
+
+migrate();
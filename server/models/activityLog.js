@@ -34,5 +34,10 @@ const ActivityLogSchema = new Schema(
   { timestamps: true }
 );
 
+// Project activity feed, newest first
+ActivityLogSchema.index({ projectId: 1, createdAt: -1, _id: -1 });
+// Same feed filtered by entity (action is checked on the fetched rows)
+ActivityLogSchema.index({ projectId: 1, entity: 1, createdAt: -1, _id: -1 });
+
 const ActivityLog = mongoose.model("ActivityLog", ActivityLogSchema);
 export default ActivityLog;
@@ -0,0 +1,32 @@
+import mongoose, { Schema } from "mongoose";
+
+// A project's board version and recent deltas, shared by every server node
+// when Socket.IO runs on the Redis adapter (see utils/boardEvents.js)
+const BoardLogSchema = new Schema(
+  {
+    projectId: {
+      type: Schema.Types.ObjectId,
+      ref: "Project",
+      required: true,
+      unique: true,
+    },
+    // Set once when the log is created; versions only count up within it
+    epoch: {
+      type: String,
+      required: true,
+    },
+    version: {
+      type: Number,
+      default: 0,
+    },
+    // The last BOARD_REPLAY_SIZE deltas in version order
+    deltas: {
+      type: [Schema.Types.Mixed],
+      default: [],
+    },
+  },
+  { timestamps: true }
+);
+
+const BoardLog = mongoose.model("BoardLog", BoardLogSchema);
+export default BoardLog;
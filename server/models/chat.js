@@ -23,5 +23,13 @@ const ChatSchema = new Schema(
   { timestamps: true }
 );
 
+// Conversation history and latest message per pair (both directions); _id
+// is the keyset tiebreaker, so history pages read in index order unsorted
+ChatSchema.index({ sender: 1, receiver: 1, createdAt: -1, _id: -1 });
+// Inbox partners and unread counts for a receiver
+ChatSchema.index({ receiver: 1, sender: 1, isRead: 1 });
+// Archival scan of messages past the retention window
+ChatSchema.index({ createdAt: 1 });
+
 const Chat = mongoose.model("Chat", ChatSchema);
 export default Chat;
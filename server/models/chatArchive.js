@@ -0,0 +1,47 @@
+import mongoose, { Schema } from "mongoose";
+
+// Messages older than the live retention window, compacted into one document
+// per conversation per UTC day (see utils/chatHistory.js).
+const ChatArchiveSchema = new Schema(
+  {
+    pairKey: {
+      type: String,
+      required: true,
+    },
+    day: {
+      type: Date,
+      required: true,
+    },
+    messages: [
+      {
+        sender: {
+          type: Schema.Types.ObjectId,
+          ref: "User",
+          required: true,
+        },
+        receiver: {
+          type: Schema.Types.ObjectId,
+          ref: "User",
+          required: true,
+        },
+        chat: {
+          type: String,
+        },
+        isRead: {
+          type: Boolean,
+        },
+        createdAt: {
+          type: Date,
+          required: true,
+        },
+      },
+    ],
+  },
+  { timestamps: true }
+);
+
+// One bucket per pair and day; history pages walk it newest day first
+ChatArchiveSchema.index({ pairKey: 1, day: -1 }, { unique: true });
+
+const ChatArchive = mongoose.model("ChatArchive", ChatArchiveSchema);
+export default ChatArchive;
@@ -11,8 +11,9 @@ const columnSchema = new Schema(
       ref: "Project",
       required: true,
     },
+    // Lexicographic rank within the project (see utils/rank.js)
     order: {
-      type: Number,
+      type: String,
       required: true,
     },
     isActive: {
@@ -23,5 +24,7 @@ const columnSchema = new Schema(
   { timestamps: true }
 );
 
+columnSchema.index({ projectId: 1, isActive: 1, order: 1 });
+
 const Column = mongoose.model("Column", columnSchema);
 export default Column;
\ No newline at end of file
@@ -0,0 +1,51 @@
+import mongoose, { Schema } from "mongoose";
+
+// Task comments, one document each and append-only. The task itself keeps
+// only commentCount and a lastComment preview for the board.
+const CommentSchema = new Schema(
+  {
+    taskId: {
+      type: Schema.Types.ObjectId,
+      ref: "Task",
+      required: true,
+    },
+    projectId: {
+      type: Schema.Types.ObjectId,
+      ref: "Project",
+      required: true,
+    },
+    commenterId: {
+      type: Schema.Types.ObjectId,
+      ref: "User",
+      required: true,
+    },
+    commenterName: {
+      type: String,
+      required: true,
+    },
+    content: {
+      type: String,
+      required: true,
+    },
+    mentionedUsers: [
+      {
+        type: Schema.Types.ObjectId,
+        ref: "User",
+      },
+    ],
+  },
+  { timestamps: true }
+);
+
+// A task's comments newest first, paged by (createdAt, _id)
+CommentSchema.index({ taskId: 1, createdAt: -1, _id: -1 });
+// Comments mentioning a user, newest first
+CommentSchema.index({ mentionedUsers: 1, createdAt: -1, _id: -1 });
+// Task text search over comment content, scoped to a project
+CommentSchema.index(
+  { projectId: 1, content: "text" },
+  { name: "comment_text" }
+);
+
+const Comment = mongoose.model("Comment", CommentSchema);
+export default Comment;
@@ -0,0 +1,66 @@
+import mongoose, { Schema } from "mongoose";
+
+// One summary per pair of users, kept up to date by sendChat and
+// markAsReadChats so the inbox is a single indexed read. userA is the pair's
+// lower id, userB the higher; each side has its own name and unread count.
+const ConversationSchema = new Schema(
+  {
+    pairKey: {
+      type: String,
+      required: true,
+      unique: true,
+    },
+    userA: {
+      type: Schema.Types.ObjectId,
+      ref: "User",
+      required: true,
+    },
+    userB: {
+      type: Schema.Types.ObjectId,
+      ref: "User",
+      required: true,
+    },
+    nameA: {
+      type: String,
+    },
+    nameB: {
+      type: String,
+    },
+    unreadA: {
+      type: Number,
+      default: 0,
+    },
+    unreadB: {
+      type: Number,
+      default: 0,
+    },
+    lastMessage: {
+      chat: {
+        type: String,
+      },
+      sender: {
+        type: Schema.Types.ObjectId,
+        ref: "User",
+      },
+      receiver: {
+        type: Schema.Types.ObjectId,
+        ref: "User",
+      },
+      isRead: {
+        type: Boolean,
+        default: false,
+      },
+    },
+    lastMessageAt: {
+      type: Date,
+    },
+  },
+  { timestamps: true }
+);
+
+// Inbox: conversations on either side, most recent first
+ConversationSchema.index({ userA: 1, lastMessageAt: -1 });
+ConversationSchema.index({ userB: 1, lastMessageAt: -1 });
+
+const Conversation = mongoose.model("Conversation", ConversationSchema);
+export default Conversation;
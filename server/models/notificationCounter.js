@@ -0,0 +1,24 @@
+import mongoose, { Schema } from "mongoose";
+
+// Per-user unread notification count, kept in step with the Notification
+// writes so the navbar badge is one point read instead of a count query.
+const NotificationCounterSchema = new Schema({
+    userId: {
+        type: Schema.Types.ObjectId,
+        ref: 'User',
+        required: true,
+        unique: true,
+    },
+    unread: {
+        type: Number,
+        default: 0,
+    },
+    // Recent onceUpdate() write ids, so a retried $inc is not applied twice
+    appliedWrites: {
+        type: [Schema.Types.ObjectId],
+        select: false,
+    },
+}, { timestamps: true });
+
+const NotificationCounter = mongoose.model('NotificationCounter', NotificationCounterSchema);
+export default NotificationCounter;
@@ -17,9 +17,20 @@ const NotificationSchema = new Schema({
     status:{
         type:Number, //0 - Deleted, 1 - Unread, 2 - Read
         default:1,
+    },
+    // Set once an entry is read or cleared; MongoDB's TTL monitor removes it then
+    expiresAt: {
+        type: Date,
     }
 }, { timestamps: true });
 
+// Mark-all-read and clear-all updates filtered by status
+NotificationSchema.index({ userId: 1, status: 1, createdAt: -1 });
+// Feed of unread and read entries, newest first, paged by (createdAt, _id)
+NotificationSchema.index({ userId: 1, createdAt: -1, _id: -1 });
+// Read and cleared entries expire; unread ones have no expiresAt and stay
+NotificationSchema.index({ expiresAt: 1 }, { expireAfterSeconds: 0 });
+
 
 const Notification = mongoose.model('Notification', NotificationSchema);
 export default Notification;
\ No newline at end of file
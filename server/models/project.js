@@ -38,6 +38,9 @@ const projectSchema = new Schema(
   { timestamps: true }
 );
 
+projectSchema.index({ projectManager: 1, isActive: 1 });
+projectSchema.index({ teamMembers: 1, isActive: 1 });
+
 const Project = mongoose.model("Project", projectSchema);
 
 export default Project;
\ No newline at end of file
@@ -0,0 +1,55 @@
+import mongoose, { Schema } from "mongoose";
+
+// Active task counts of one project, kept current by $inc on task writes
+// (see utils/analyticsRollups.js). Map keys are column, user ids or values.
+const ProjectRollupSchema = new Schema(
+  {
+    projectId: {
+      type: Schema.Types.ObjectId,
+      ref: "Project",
+      required: true,
+      unique: true,
+    },
+    total: {
+      type: Number,
+      default: 0,
+    },
+    byColumn: {
+      type: Map,
+      of: Number,
+      default: {},
+    },
+    byState: {
+      type: Map,
+      of: Number,
+      default: {},
+    },
+    byPriority: {
+      type: Map,
+      of: Number,
+      default: {},
+    },
+    byCategory: {
+      type: Map,
+      of: Number,
+      default: {},
+    },
+    byAssignee: {
+      type: Map,
+      of: Number,
+      default: {},
+    },
+    rebuiltAt: {
+      type: Date,
+    },
+    // Recent onceUpdate() write ids, so a retried $inc is not applied twice
+    appliedWrites: {
+      type: [Schema.Types.ObjectId],
+      select: false,
+    },
+  },
+  { timestamps: true }
+);
+
+const ProjectRollup = mongoose.model("ProjectRollup", ProjectRollupSchema);
+export default ProjectRollup;
@@ -0,0 +1,37 @@
+import mongoose, { Schema } from "mongoose";
+
+// One row per project per day, written by snapshotAnalytics.js, for the
+// burndown and throughput charts
+const ProjectSnapshotSchema = new Schema(
+  {
+    projectId: {
+      type: Schema.Types.ObjectId,
+      ref: "Project",
+      required: true,
+    },
+    // UTC midnight of the day the snapshot describes
+    day: {
+      type: Date,
+      required: true,
+    },
+    total: {
+      type: Number,
+      default: 0,
+    },
+    completed: {
+      type: Number,
+      default: 0,
+    },
+    remaining: {
+      type: Number,
+      default: 0,
+    },
+  },
+  { timestamps: true }
+);
+
+// A project's series in day order, one row per day
+ProjectSnapshotSchema.index({ projectId: 1, day: -1 }, { unique: true });
+
+const ProjectSnapshot = mongoose.model("ProjectSnapshot", ProjectSnapshotSchema);
+export default ProjectSnapshot;
@@ -1,4 +1,5 @@
 import mongoose, { Schema } from "mongoose";
+import { buildSearchPrefixes } from "../utils/searchTerms.js";
 
 const taskSchema = new Schema(
   {
@@ -50,6 +51,13 @@ const taskSchema = new Schema(
         originalName: {
           type: String,
         },
+        // SHA-256 of the content (see utils/attachmentStorage.js)
+        hash: {
+          type: String,
+        },
+        size: {
+          type: Number,
+        },
       },
     ],
     dependencies: [
@@ -58,50 +66,76 @@ const taskSchema = new Schema(
         ref: "Task",
       },
     ],
-    comments: [
-      {
-        commenterId: {
-          type: Schema.Types.ObjectId,
-          ref: "User",
-          required: true,
-        },
-        commenterName: {
-          type: String,
-          ref: "User",
-          required: true,
-        },
-        content: {
-          type: String,
-          required: true,
-        },
-        mentionedUsers: [
-          {
-            type: Schema.Types.ObjectId,
-            ref: "User",
-          },
-        ],
-        createdAt: {
-          type: Date,
-          default: Date.now,
-        },
+    // Comments live in their own collection (models/comment.js); the board
+    // only needs how many there are and the latest one
+    commentCount: {
+      type: Number,
+      default: 0,
+    },
+    lastComment: {
+      commenterId: {
+        type: Schema.Types.ObjectId,
+        ref: "User",
       },
-    ],
+      commenterName: {
+        type: String,
+      },
+      content: {
+        type: String,
+      },
+      createdAt: {
+        type: Date,
+      },
+    },
     category: {
       type: String,
       enum: ["Bug", "Feature", "Frontend", "Backend", "UI/UX", "Documentation", "DevOps", "Uncategorized"],
       default: "Uncategorized",
     },
+    // Lexicographic rank within the column (see utils/rank.js)
     order: {
-      type: Number,
-      default: true,
+      type: String,
     },
     isActive: {
       type: Boolean,
       default: true,
     },
+    // Word prefixes of name and description, maintained on save for typeahead
+    searchPrefixes: {
+      type: [String],
+      select: false,
+    },
   },
   { timestamps: true }
 );
 
+// Dashboards, project progress and the board's ETag
+taskSchema.index({ projectId: 1, isActive: 1, state: 1 });
+taskSchema.index({ projectId: 1, updatedAt: -1 });
+// Last rank in a column and per-column ordering
+taskSchema.index({ columnId: 1, isActive: 1, order: 1 });
+// "My tasks" dashboards and boards
+taskSchema.index({ assignees: 1, isActive: 1, state: 1 });
+// Comment content has its own text index on Comment (see utils/taskSearch.js).
+// Every task $text query is scoped to one project, so projectId leads and
+// each search only reads that project's postings.
+taskSchema.index(
+  { projectId: 1, name: "text", description: "text" },
+  {
+    name: "task_text_v3",
+    weights: { name: 10, description: 3 },
+  }
+);
+taskSchema.index({ projectId: 1, searchPrefixes: 1 });
+// /uploads only serves names an attachment was stored under
+taskSchema.index({ "attachments.fileName": 1 });
+
+taskSchema.pre("save", function (next) {
+  if (this.isNew || this.isModified("name") || this.isModified("description")) {
+    this.searchPrefixes = buildSearchPrefixes(this.name, this.description);
+  }
+  next();
+});
+
 const Task = mongoose.model("Task", taskSchema);
 export default Task;
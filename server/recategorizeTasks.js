@@ -0,0 +1,90 @@
+import mongoose from 'mongoose';
+import dotenv from 'dotenv';
+import Task from './models/task.js';
+import { categorizeTask } from './utils/aiService.js';
+import { rebuildRollup } from './utils/analyticsRollups.js';
+
+dotenv.config();
+
+const CHUNK_SIZE = Number(process.env.RECATEGORIZE_CHUNK_SIZE) || 1000;
+const DRY_RUN = process.argv.includes('--dry-run');
+
+const rate = (count, since) => Math.round(count / Math.max((Date.now() - since) / 1000, 0.001));
+
+// Re-runs the categorizer over every task after the keyword set changes.
+// Streams the collection in chunks and writes only the tasks whose category
+// changed; each write is guarded on the category it read, so a task edited
+// meanwhile is left alone. Pass --dry-run to only report the changes.
+const recategorize = async () => {
+    try {
+        await mongoose.connect(process.env.MONGODB_URI);
+        console.log(`Connected to MongoDB${DRY_RUN ? ' (dry run)' : ''}`);
+
+        const startedAt = Date.now();
+        const moves = new Map();
+        const touchedProjects = new Set();
+        let scanned = 0;
+        let changed = 0;
+        let chunk = [];
+
+        const flush = async () => {
+            const writes = [];
+            chunk.forEach((task) => {
+                const category = categorizeTask(task.name, task.description);
+                if (category === task.category) {
+                    return;
+                }
+                const move = `${task.category || 'none'} -> ${category}`;
+                moves.set(move, (moves.get(move) || 0) + 1);
+                touchedProjects.add(task.projectId.toString());
+                writes.push({
+                    updateOne: {
+                        filter: { _id: task._id, category: task.category },
+                        update: { $set: { category } },
+                    },
+                });
+            });
+            if (writes.length > 0 && !DRY_RUN) {
+                await Task.bulkWrite(writes, { ordered: false });
+            }
+            scanned += chunk.length;
+            changed += writes.length;
+            chunk = [];
+            console.log(`${scanned} scanned, ${changed} changed, ${rate(scanned, startedAt)} tasks/s`);
+        };
+
+        const cursor = Task.find({})
+            .select('name description category projectId')
+            .lean()
+            .batchSize(CHUNK_SIZE)
+            .cursor();
+        for await (const task of cursor) {
+            chunk.push(task);
+            if (chunk.length >= CHUNK_SIZE) {
+                await flush();
+            }
+        }
+        if (chunk.length > 0) {
+            await flush();
+        }
+
+        // Category counts in the analytics rollups follow the new categories
+        if (!DRY_RUN) {
+            for (const projectId of touchedProjects) {
+                await rebuildRollup(projectId);
+            }
+        }
+
+        [...moves].sort((a, b) => b[1] - a[1]).forEach(([move, count]) => {
+            console.log(`  ${move}: ${count}`);
+        });
+        console.log(`Done. ${changed} of ${scanned} tasks ${DRY_RUN ? 'would change' : 'recategorized'} in ${((Date.now() - startedAt) / 1000).toFixed(1)}s (${rate(scanned, startedAt)} tasks/s).`);
+        await mongoose.disconnect();
+        process.exit(0);
+    } catch (error) {
+        console.error('Recategorization failed:', error);
+        process.exit(1);
+    }
+};
+
+recategorize();
@@ -3,6 +3,7 @@ import mongoose from "mongoose";
 import dotenv from "dotenv";
 import User from "./models/user.js";
 import Task from "./models/task.js";
+import Comment from "./models/comment.js";
 import Project from "./models/project.js";
 import Column from "./models/column.js";
 import ActivityLog from "./models/activityLog.js";
@@ -23,6 +24,9 @@ const resetDatabase = async () => {
         console.log("Clearing Tasks...");
         await Task.deleteMany({});
 
+        console.log("Clearing Comments...");
+        await Comment.deleteMany({});
+
         console.log("Clearing Projects...");
         await Project.deleteMany({});
 
@@ -4,6 +4,6 @@ import { getTaskCountPerColumn } from "../../controllers/admin/analysisControlle
 
 const adminAnalysisRouter = express.Router();
 
-adminAnalysisRouter.get("/getAnalytics/:projectId",getTaskCountPerColumn)
+adminAnalysisRouter.get("/getAnalytics/:projectId",protectRoute,getTaskCountPerColumn)
 
 export default adminAnalysisRouter
\ No newline at end of file
@@ -4,18 +4,22 @@ import {
   createTask,
   updateTaskPosition,
   addComment,
+  getComments,
   deleteTask,
   editTask,
-  getAllTasks
+  getAllTasks,
+  searchTasks,
+  bulkUpdateTasks,
+  getCriticalPath
 } from "../../controllers/admin/taskController.js";
-import { upload } from "../../middlewares/multerMiddleware.js";
+import { uploadAttachments } from "../../middlewares/multerMiddleware.js";
 
 const adminTaskRouter = express.Router();
 
 adminTaskRouter.post(
   "/createTask",
   protectRoute,
-  upload.array("attachments"),
+  uploadAttachments("attachments"),
   createTask
 );
 adminTaskRouter.put(
@@ -24,8 +28,12 @@ adminTaskRouter.put(
   updateTaskPosition
 );
 adminTaskRouter.post("/addComment/:taskId", protectRoute, addComment);
+adminTaskRouter.get("/getComments/:taskId", protectRoute, getComments);
 adminTaskRouter.delete("/deleteTask", protectRoute, deleteTask);
 adminTaskRouter.post("/editTask",protectRoute,editTask)
 adminTaskRouter.get("/getAllTasks/:projectId",protectRoute,getAllTasks);
+adminTaskRouter.get("/searchTasks", protectRoute, searchTasks);
+adminTaskRouter.get("/criticalPath/:projectId", protectRoute, getCriticalPath);
+adminTaskRouter.post("/bulkTasks", protectRoute, bulkUpdateTasks);
 
 export default adminTaskRouter;
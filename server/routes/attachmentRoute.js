@@ -0,0 +1,9 @@
+import express from "express";
+import { getAttachment } from "../controllers/attachmentController.js";
+
+const attachmentRouter = express.Router();
+
+// Express answers HEAD through the GET route
+attachmentRouter.get("/:fileName", getAttachment);
+
+export default attachmentRouter
@@ -2,20 +2,24 @@ import express from "express";
 import protectRoute from "../../middlewares/authMiddleware.js";
 import {
   addComment,
+  getComments,
   createTask,
   deleteTask,
   editTask,
   updateTaskPosition,
-  getAllTasks
+  getAllTasks,
+  searchTasks,
+  bulkUpdateTasks,
+  getCriticalPath
 } from "../../controllers/manager/taskController.js";
-import { upload } from "../../middlewares/multerMiddleware.js";
+import { uploadAttachments } from "../../middlewares/multerMiddleware.js";
 
 const managerTaskRouter = express.Router();
 
 managerTaskRouter.post(
   "/createTask",
   protectRoute,
-  upload.array("attachments"),
+  uploadAttachments("attachments"),
   createTask
 );
 managerTaskRouter.delete("/deleteTask", protectRoute, deleteTask);
@@ -25,7 +29,11 @@ managerTaskRouter.put(
   updateTaskPosition
 );
 managerTaskRouter.post("/addComment/:taskId", protectRoute, addComment);
+managerTaskRouter.get("/getComments/:taskId", protectRoute, getComments);
 managerTaskRouter.post("/editTask",protectRoute,editTask)
 managerTaskRouter.get("/getAllTasks/:projectId",protectRoute,getAllTasks);
+managerTaskRouter.get("/searchTasks", protectRoute, searchTasks);
+managerTaskRouter.get("/criticalPath/:projectId", protectRoute, getCriticalPath);
+managerTaskRouter.post("/bulkTasks", protectRoute, bulkUpdateTasks);
 
 export default managerTaskRouter;
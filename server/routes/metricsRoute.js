@@ -0,0 +1,8 @@
+import express from "express";
+import { getMetrics } from "../controllers/metricsController.js";
+
+const metricsRouter = express.Router();
+
+metricsRouter.get("/", getMetrics);
+
+export default metricsRouter
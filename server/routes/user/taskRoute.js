@@ -2,19 +2,22 @@ import express from "express";
 import protectRoute from "../../middlewares/authMiddleware.js";
 import {
   addComment,
+  getComments,
   createTask,
   deleteTask,
   updateTaskPosition,
-  getAllTasks
+  getAllTasks,
+  searchTasks,
+  getCriticalPath
 } from "../../controllers/user/taskController.js";
-import { upload } from "../../middlewares/multerMiddleware.js";
+import { uploadAttachments } from "../../middlewares/multerMiddleware.js";
 
 const userTaskRouter = express.Router();
 
 userTaskRouter.post(
   "/createTask",
   protectRoute,
-  upload.array("attachments"),
+  uploadAttachments("attachments"),
   createTask
 );
 
@@ -26,6 +29,9 @@ userTaskRouter.put(
   updateTaskPosition
 );
 userTaskRouter.post("/addComment/:taskId", protectRoute, addComment);
+userTaskRouter.get("/getComments/:taskId", protectRoute, getComments);
 userTaskRouter.get("/getAllTasks/:projectId",protectRoute,getAllTasks);
+userTaskRouter.get("/searchTasks", protectRoute, searchTasks);
+userTaskRouter.get("/criticalPath/:projectId", protectRoute, getCriticalPath);
 
 export default userTaskRouter;
@@ -1,11 +1,12 @@
 
 import express from 'express';
-import { getAllUsers, getProjectMembers } from '../controllers/userController.js';
+import { getAllUsers, getMentions, getProjectMembers } from '../controllers/userController.js';
 import protectRoute from '../middlewares/authMiddleware.js';
 
 const userRouter = express.Router();
 
 userRouter.get('/getProjectMembers/:projectId',protectRoute,getProjectMembers);
 userRouter.get('/getAllUsers', protectRoute, getAllUsers)
+userRouter.get('/getMentions', protectRoute, getMentions)
 
 export default userRouter;
\ No newline at end of file
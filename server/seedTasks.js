@@ -5,6 +5,7 @@ import Project from './models/project.js';
 import Column from './models/column.js';
 import Task from './models/task.js';
 import { categorizeTask } from './utils/aiService.js';
+import { spreadRanks } from './utils/rank.js';
 
 dotenv.config();
 
@@ -33,12 +34,13 @@ const seedData = async () => {
 
         // 3. Create Default Columns for the Project
         const columnNames = ['To Do', 'In Progress', 'Completed'];
+        const columnRanks = spreadRanks(columnNames.length);
         const columns = [];
         for (let i = 0; i < columnNames.length; i++) {
             const col = await Column.create({
                 name: columnNames[i],
                 projectId: project._id,
-                order: i,
+                order: columnRanks[i],
                 color: i === 0 ? '#3b82f6' : i === 1 ? '#f59e0b' : '#10b981'
             });
             columns.push(col);
@@ -61,6 +63,7 @@ const seedData = async () => {
         ];
 
         console.log('--- Creating AI Categorized Tasks ---');
+        const taskRanks = spreadRanks(dummyTasks.length);
         for (let i = 0; i < dummyTasks.length; i++) {
             const t = dummyTasks[i];
             const category = categorizeTask(t.name, t.description);
@@ -75,7 +78,7 @@ const seedData = async () => {
                 assignees: [user._id],
                 category: category,
                 dueDate: new Date(Date.now() + 7 * 24 * 60 * 60 * 1000), // 7 days from now
-                order: i
+                order: taskRanks[i]
             });
             console.log(`Task: "${t.name}" -> Category: [${category}]`);
         }
@@ -0,0 +1,38 @@
+import mongoose from 'mongoose';
+import dotenv from 'dotenv';
+import Project from './models/project.js';
+import ProjectRollup from './models/projectRollup.js';
+import ProjectSnapshot from './models/projectSnapshot.js';
+import { snapshotProject } from './utils/analyticsRollups.js';
+
+dotenv.config();
+
+// Daily analytics job, e.g. nightly from cron: recounts every active
+// project's rollup from its tasks (correcting any drift in the incremental
+// counts) and records the day's burndown snapshot. Rerunning on the same
+// day overwrites that day's snapshot.
+const snapshot = async () => {
+    try {
+        await mongoose.connect(process.env.MONGODB_URI);
+        console.log('Connected to MongoDB');
+
+        await ProjectRollup.syncIndexes();
+        await ProjectSnapshot.syncIndexes();
+
+        const startedAt = Date.now();
+        const day = new Date();
+        const projects = await Project.find({ isActive: true }).select('_id').lean();
+        for (const project of projects) {
+            await snapshotProject(project._id, day);
+        }
+
+        console.log(`Done. ${projects.length} project snapshots for ${day.toISOString().slice(0, 10)} in ${((Date.now() - startedAt) / 1000).toFixed(1)}s.`);
+        await mongoose.disconnect();
+        process.exit(0);
+    } catch (error) {
+        console.error('Analytics snapshot failed:', error);
+        process.exit(1);
+    }
+};
+
+snapshot();
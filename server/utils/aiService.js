@@ -23,31 +23,98 @@ const KEYWORDS = {
     [CATEGORIES.DEVOPS]: ["deploy", "docker", "cloud", "aws", "github", "workflow", "ci", "cd", "pipeline", "env", "configuration"]
 };
 
+const isWordChar = (char) => (char >= "a" && char <= "z") || (char >= "0" && char <= "9");
+
+// Keywords this short only count as whole words ("ci" must not match "decision")
+const WHOLE_WORD_MAX_LENGTH = 2;
+
+/**
+ * Aho-Corasick automaton over every keyword, built once at load. One pass
+ * over the text finds all keyword occurrences; a match only counts where
+ * the keyword starts a word ("fix" matches "fixes" but not "prefix").
+ */
+const buildMatcher = (keywords) => {
+    const nodes = [{ next: new Map(), fail: 0, outputs: [] }];
+
+    keywords.forEach(({ word }, id) => {
+        let state = 0;
+        for (const char of word) {
+            if (!nodes[state].next.has(char)) {
+                nodes.push({ next: new Map(), fail: 0, outputs: [] });
+                nodes[state].next.set(char, nodes.length - 1);
+            }
+            state = nodes[state].next.get(char);
+        }
+        nodes[state].outputs.push(id);
+    });
+
+    // Breadth-first, so every fail link points at an already finished node
+    const queue = [...nodes[0].next.values()];
+    while (queue.length > 0) {
+        const current = queue.shift();
+        for (const [char, child] of nodes[current].next) {
+            let fallback = nodes[current].fail;
+            while (fallback !== 0 && !nodes[fallback].next.has(char)) {
+                fallback = nodes[fallback].fail;
+            }
+            const target = nodes[fallback].next.get(char);
+            nodes[child].fail = target !== undefined && target !== child ? target : 0;
+            nodes[child].outputs = [...nodes[child].outputs, ...nodes[nodes[child].fail].outputs];
+            queue.push(child);
+        }
+    }
+
+    // Ids of the keywords found in `text` (lowercase), each reported once
+    return (text) => {
+        const found = new Set();
+        let state = 0;
+        for (let index = 0; index < text.length; index++) {
+            const char = text[index];
+            while (state !== 0 && !nodes[state].next.has(char)) {
+                state = nodes[state].fail;
+            }
+            state = nodes[state].next.get(char) ?? 0;
+
+            for (const id of nodes[state].outputs) {
+                const { word } = keywords[id];
+                const start = index - word.length + 1;
+                const startsWord = start === 0 || !isWordChar(text[start - 1]);
+                const endsWord = index === text.length - 1 || !isWordChar(text[index + 1]);
+                if (startsWord && (word.length > WHOLE_WORD_MAX_LENGTH || endsWord)) {
+                    found.add(id);
+                }
+            }
+        }
+        return found;
+    };
+};
+
+const KEYWORD_LIST = Object.entries(KEYWORDS).flatMap(([category, words]) =>
+    words.map((word) => ({ word, category }))
+);
+const findKeywords = buildMatcher(KEYWORD_LIST);
+
 /**
  * Categorize a task based on its title and description.
  * @param {string} title 
  * @param {string} description 
  * @returns {string} Suggested Category
  */
-export const categorizeTask = (title, description = "") => {
-    const content = (title + " " + description).toLowerCase();
+export const categorizeTask = (title = "", description = "") => {
+    const lowerTitle = (title || "").toLowerCase();
 
     // Logical scoring
     let scores = {};
     Object.keys(CATEGORIES).forEach(cat => scores[CATEGORIES[cat]] = 0);
 
-    for (const [category, words] of Object.entries(KEYWORDS)) {
-        words.forEach(word => {
-            // Bonus points for title matches
-            if (title.toLowerCase().includes(word)) {
-                scores[category] += 2;
-            }
-            // Standard points for description matches
-            if (description.toLowerCase().includes(word)) {
-                scores[category] += 1;
-            }
-        });
-    }
+    // Bonus points for title matches
+    findKeywords(lowerTitle).forEach((id) => {
+        scores[KEYWORD_LIST[id].category] += 2;
+    });
+    // Standard points for description matches
+    findKeywords((description || "").toLowerCase()).forEach((id) => {
+        scores[KEYWORD_LIST[id].category] += 1;
+    });
 
     // Find the category with highest score
     let bestCategory = CATEGORIES.UNCATEGORIZED;
@@ -61,7 +128,7 @@ export const categorizeTask = (title, description = "") => {
     }
 
     // If title specifically starts with "Fix", it's likely a bug if not otherwise specified
-    if (bestCategory === CATEGORIES.UNCATEGORIZED && title.toLowerCase().startsWith("fix")) {
+    if (bestCategory === CATEGORIES.UNCATEGORIZED && lowerTitle.startsWith("fix")) {
         return CATEGORIES.BUG;
     }
 
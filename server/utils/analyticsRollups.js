@@ -0,0 +1,269 @@
+import mongoose from "mongoose";
+import ProjectRollup from "../models/projectRollup.js";
+import ProjectSnapshot from "../models/projectSnapshot.js";
+import Task from "../models/task.js";
+import { enqueueSideEffects, onceUpdate } from "./sideEffects.js";
+
+/**
+ * Per-project analytics rollups: active task counts by column, state,
+ * priority, category and assignee in one document per project.
+ *
+ * Task writes call recordTaskRollup(projectId, before, after) with the
+ * task's rollup fields before and after the write (null for "did not
+ * exist"); the difference goes out as one $inc through the side-effect
+ * queue, guarded by onceUpdate() so a retry never applies it twice. A
+ * project without a rollup gets one built from its tasks on first read, and
+ * snapshotAnalytics.js rebuilds them all daily.
+ *
+ * A rebuild recounts the tasks as they are, which already includes writes
+ * whose $inc may still be queued. Each $inc carries the time it was queued
+ * and is skipped by a rollup rebuilt after that, so it is not counted twice.
+ * Only a task written while the recount itself runs can still be off by one
+ * until the next rebuild.
+ */
+
+const COMPLETED = "Completed";
+const DAY_MS = 24 * 60 * 60 * 1000;
+const BURNDOWN_DAYS = 30;
+
+const DIMENSIONS = [
+  ["byColumn", "columnId"],
+  ["byState", "state"],
+  ["byPriority", "priority"],
+  ["byCategory", "category"],
+];
+
+// Map keys may not contain "." or start with "$"; column names might
+const encodeKey = (value) =>
+  String(value).replace(/\./g, "．").replace(/^\$/, "＄");
+const decodeKey = (key) =>
+  key.replace(/．/g, ".").replace(/^＄/, "$");
+
+const rollupFields = (task) =>
+  task && {
+    isActive: task.isActive,
+    columnId: task.columnId?._id || task.columnId,
+    state: task.state,
+    priority: task.priority,
+    category: task.category,
+    assignees: task.assignees?.map((assignee) => assignee._id || assignee),
+  };
+
+// The counters one task adds to; fields left out are assumed unchanged
+const contributions = (task) => {
+  const counts = new Map();
+  if (!task || task.isActive === false) {
+    return counts;
+  }
+  counts.set("total", 1);
+  DIMENSIONS.forEach(([map, field]) => {
+    if (task[field] !== undefined && task[field] !== null) {
+      counts.set(`${map}.${encodeKey(task[field])}`, 1);
+    }
+  });
+  (task.assignees || []).forEach((assignee) => {
+    counts.set(`byAssignee.${encodeKey(assignee)}`, 1);
+  });
+  return counts;
+};
+
+const rollupIncrement = (before, after) => {
+  const increment = {};
+  const add = (counts, sign) =>
+    counts.forEach((count, path) => {
+      increment[path] = (increment[path] || 0) + sign * count;
+    });
+  add(contributions(rollupFields(after)), 1);
+  add(contributions(rollupFields(before)), -1);
+  Object.keys(increment).forEach((path) => {
+    if (increment[path] === 0) {
+      delete increment[path];
+    }
+  });
+  return increment;
+};
+
+/**
+ * Queues the rollup change for task writes in one project: `changes` is
+ * [{ before, after }] with task documents or partial rollup fields. Rollups
+ * that do not exist yet are left alone; they are built in full when read.
+ */
+const recordTaskRollups = (projectId, changes) => {
+  const increment = {};
+  changes.forEach(({ before, after }) => {
+    Object.entries(rollupIncrement(before, after)).forEach(([path, count]) => {
+      increment[path] = (increment[path] || 0) + count;
+    });
+  });
+  Object.keys(increment).forEach((path) => {
+    if (increment[path] === 0) {
+      delete increment[path];
+    }
+  });
+  if (Object.keys(increment).length === 0) {
+    return Promise.resolve();
+  }
+
+  // The task writes are already stored, so a rebuild from now on counts them
+  const queuedAt = new Date();
+  return enqueueSideEffects({
+    updates: [
+      {
+        model: ProjectRollup,
+        operations: [
+          onceUpdate({
+            filter: { projectId, rebuiltAt: { $not: { $gt: queuedAt } } },
+            update: { $inc: increment },
+          }),
+        ],
+      },
+    ],
+  });
+};
+
+const recordTaskRollup = (projectId, before, after) =>
+  recordTaskRollups(projectId, [{ before, after }]);
+
+const groupCounts = (field) => [
+  { $group: { _id: field, count: { $sum: 1 } } },
+];
+
+const toCounts = (rows) =>
+  Object.fromEntries(
+    rows
+      .filter((row) => row._id !== null && row._id !== undefined)
+      .map((row) => [encodeKey(row._id), row.count])
+  );
+
+/**
+ * Recounts a project's rollup from its tasks in one aggregation and stores
+ * it, stamped with when the recount started so $incs queued before then are
+ * skipped. Returns the stored rollup.
+ */
+const rebuildRollup = async (projectId) => {
+  const projectObjectId = new mongoose.Types.ObjectId(projectId.toString());
+  const rebuiltAt = new Date();
+  const [counts] = await Task.aggregate([
+    { $match: { projectId: projectObjectId, isActive: true } },
+    {
+      $facet: {
+        total: [{ $count: "count" }],
+        byColumn: groupCounts("$columnId"),
+        byState: groupCounts("$state"),
+        byPriority: groupCounts("$priority"),
+        byCategory: groupCounts("$category"),
+        byAssignee: [{ $unwind: "$assignees" }, ...groupCounts("$assignees")],
+      },
+    },
+  ]);
+
+  return ProjectRollup.findOneAndUpdate(
+    { projectId: projectObjectId },
+    {
+      $set: {
+        total: counts.total[0]?.count || 0,
+        byColumn: toCounts(counts.byColumn),
+        byState: toCounts(counts.byState),
+        byPriority: toCounts(counts.byPriority),
+        byCategory: toCounts(counts.byCategory),
+        byAssignee: toCounts(counts.byAssignee),
+        rebuiltAt,
+      },
+    },
+    { new: true, upsert: true, lean: true }
+  );
+};
+
+const rebuilding = new Map();
+
+/**
+ * The project's rollup with plain-object maps (keys decoded), built first
+ * if the project has none. Concurrent first reads share one rebuild.
+ */
+const getRollup = async (projectId) => {
+  const key = projectId.toString();
+  let rollup = await ProjectRollup.findOne({ projectId }).lean();
+  if (!rollup) {
+    if (!rebuilding.has(key)) {
+      rebuilding.set(
+        key,
+        rebuildRollup(projectId).finally(() => rebuilding.delete(key))
+      );
+    }
+    rollup = await rebuilding.get(key);
+  }
+
+  const decode = (counts = {}) =>
+    Object.fromEntries(
+      Object.entries(counts)
+        .filter(([, count]) => count > 0)
+        .map(([countKey, count]) => [decodeKey(countKey), count])
+    );
+  return {
+    total: rollup.total,
+    byColumn: decode(rollup.byColumn),
+    byState: decode(rollup.byState),
+    byPriority: decode(rollup.byPriority),
+    byCategory: decode(rollup.byCategory),
+    byAssignee: decode(rollup.byAssignee),
+  };
+};
+
+const startOfDay = (date) =>
+  new Date(Math.floor(date.getTime() / DAY_MS) * DAY_MS);
+
+/**
+ * Rebuilds the project's rollup and records it as the project's snapshot
+ * for `day`; rerunning the same day overwrites that day's row.
+ */
+const snapshotProject = async (projectId, day = new Date()) => {
+  const rollup = await rebuildRollup(projectId);
+  const completed = rollup.byState?.[COMPLETED] || 0;
+  await ProjectSnapshot.updateOne(
+    { projectId, day: startOfDay(day) },
+    {
+      $set: {
+        total: rollup.total,
+        completed,
+        remaining: rollup.total - completed,
+      },
+    },
+    { upsert: true }
+  );
+};
+
+/**
+ * The last `days` daily snapshots as chart series: remaining work
+ * (burndown), completed total, and per-day throughput (newly completed) and
+ * added tasks as differences between consecutive days.
+ */
+const getBurndown = async (projectId, days = BURNDOWN_DAYS) => {
+  const snapshots = await ProjectSnapshot.find({
+    projectId,
+    day: { $gte: new Date(startOfDay(new Date()).getTime() - days * DAY_MS) },
+  })
+    .sort({ day: 1 })
+    .select("day total completed remaining")
+    .lean();
+
+  const change = (field) =>
+    snapshots.map((snapshot, index) =>
+      index === 0 ? 0 : Math.max(snapshot[field] - snapshots[index - 1][field], 0)
+    );
+  return {
+    days: snapshots.map((snapshot) => snapshot.day),
+    remaining: snapshots.map((snapshot) => snapshot.remaining),
+    completed: snapshots.map((snapshot) => snapshot.completed),
+    throughput: change("completed"),
+    added: change("total"),
+  };
+};
+
+export {
+  recordTaskRollup,
+  recordTaskRollups,
+  rebuildRollup,
+  getRollup,
+  snapshotProject,
+  getBurndown,
+};
@@ -0,0 +1,116 @@
+import crypto from "crypto";
+import fs from "fs";
+import path from "path";
+
+/**
+ * Where attachment bytes live. Attachments are content-addressed: a blob's
+ * key is the SHA-256 of its bytes, so identical uploads share one blob and
+ * a key never changes meaning. Files stored before that keep their old
+ * `${Date.now()}${ext}` name as their key.
+ *
+ * A backend implements:
+ *   createUpload()                 -> { stream, commit(hash), abort() }
+ *       write the bytes to `stream`, then commit() under their hash (it
+ *       resolves { deduplicated } and drops the copy if the blob exists)
+ *       or abort() to discard them
+ *   stat(key)                      -> Promise<{ size, modifiedAt } | null>
+ *   createReadStream(key, range?)  -> Readable over [start, end] inclusive
+ *
+ * ATTACHMENT_STORAGE picks the backend; "local" (the default) keeps blobs
+ * under ATTACHMENT_DIR (default "uploads").
+ */
+
+const HASH_KEY = /^[a-f0-9]{64}$/;
+const LEGACY_KEY = /^[\w-]+(\.[\w]+)?$/;
+
+const isContentKey = (key) => HASH_KEY.test(key);
+
+const createLocalStorage = ({ root }) => {
+  const blobDir = path.join(root, "sha256");
+  const tmpDir = path.join(root, "tmp");
+
+  // Blobs fan out by their first two hex digits to keep directories small
+  const pathOf = (key) => {
+    if (isContentKey(key)) {
+      return path.join(blobDir, key.slice(0, 2), key);
+    }
+    if (LEGACY_KEY.test(key)) {
+      return path.join(root, key);
+    }
+    return null;
+  };
+
+  const createUpload = () => {
+    fs.mkdirSync(tmpDir, { recursive: true });
+    const tmpPath = path.join(tmpDir, crypto.randomUUID());
+    const stream = fs.createWriteStream(tmpPath, { flags: "wx" });
+
+    const discard = () => fs.promises.rm(tmpPath, { force: true });
+
+    const commit = async (hash) => {
+      const target = pathOf(hash);
+      await fs.promises.mkdir(path.dirname(target), { recursive: true });
+      const exists = await fs.promises
+        .access(target)
+        .then(() => true)
+        .catch(() => false);
+      if (exists) {
+        await discard();
+        return { deduplicated: true };
+      }
+      // Same filesystem, so the blob appears complete or not at all
+      await fs.promises.rename(tmpPath, target);
+      return { deduplicated: false };
+    };
+
+    const abort = () => {
+      stream.destroy();
+      return discard();
+    };
+
+    return { stream, commit, abort };
+  };
+
+  const stat = async (key) => {
+    const file = pathOf(key);
+    if (!file) {
+      return null;
+    }
+    try {
+      const stats = await fs.promises.stat(file);
+      return stats.isFile()
+        ? { size: stats.size, modifiedAt: stats.mtime }
+        : null;
+    } catch (error) {
+      if (error.code === "ENOENT") {
+        return null;
+      }
+      throw error;
+    }
+  };
+
+  const createReadStream = (key, range) =>
+    fs.createReadStream(pathOf(key), range);
+
+  return { createUpload, stat, createReadStream };
+};
+
+const backends = {
+  local: () =>
+    createLocalStorage({ root: process.env.ATTACHMENT_DIR || "uploads" }),
+};
+
+let storage = null;
+
+const getAttachmentStorage = () => {
+  if (!storage) {
+    const name = process.env.ATTACHMENT_STORAGE || "local";
+    if (!backends[name]) {
+      throw new Error(`Unknown attachment storage backend: ${name}`);
+    }
+    storage = backends[name]();
+  }
+  return storage;
+};
+
+export { getAttachmentStorage, createLocalStorage, isContentKey };
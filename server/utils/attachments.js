@@ -0,0 +1,131 @@
+import path from "path";
+import { pipeline } from "stream";
+import Task from "../models/task.js";
+import { getAttachmentStorage, isContentKey } from "./attachmentStorage.js";
+
+const IMMUTABLE = "public, max-age=31536000, immutable";
+const LEGACY_MAX_AGE = "public, max-age=3600";
+
+// Types the browser shows without running anything; everything else (HTML,
+// SVG, XML, PDF, scripts, unknown types) is sent as a download
+const INLINE_EXTENSIONS = new Set([
+  ".png", ".jpg", ".jpeg", ".gif", ".webp", ".avif", ".bmp",
+  ".txt", ".mp3", ".wav", ".mp4", ".webm", ".ogg",
+]);
+
+// `${hash}${ext}` names address the blob by hash; older names are the key
+const keyOf = (fileName) => {
+  const base = path.basename(fileName, path.extname(fileName));
+  return isContentKey(base) ? base : fileName;
+};
+
+/**
+ * Parses a single "bytes=start-end" range (suffix and open-ended forms
+ * included) against the file size. Returns null to serve the whole file,
+ * "unsatisfiable" when it lies past the end.
+ */
+const parseRange = (header, size) => {
+  const match = /^bytes=(\d*)-(\d*)$/.exec(header || "");
+  if (!match || (match[1] === "" && match[2] === "")) {
+    return null;
+  }
+  let start;
+  let end;
+  if (match[1] === "") {
+    start = Math.max(size - Number(match[2]), 0);
+    end = size - 1;
+  } else {
+    start = Number(match[1]);
+    end = match[2] === "" ? size - 1 : Math.min(Number(match[2]), size - 1);
+  }
+  if (start > end || start >= size) {
+    return "unsatisfiable";
+  }
+  return { start, end };
+};
+
+const etagMatches = (header, etag) =>
+  Boolean(header) &&
+  header.split(",").some((tag) => {
+    const value = tag.trim();
+    return value === "*" || value.replace(/^W\//, "") === etag.replace(/^W\//, "");
+  });
+
+/**
+ * GET/HEAD /uploads/:fileName
+ *
+ * Streams an attachment from the storage backend. Only names an attachment
+ * was stored under are served, so a blob cannot be fetched under another
+ * extension (and so another Content-Type); types a browser would render as
+ * a page are sent as downloads. Content-addressed files
+ * get a strong ETag (their hash) and immutable caching, since the bytes
+ * behind a name can never change; older files get a weak ETag and a short
+ * max-age. Supports If-None-Match (304), single byte ranges (206/416) and
+ * If-Range, so large files resume and seek instead of restarting.
+ */
+const sendAttachment = async (req, res) => {
+  const { fileName } = req.params;
+  const task = await Task.findOne({ "attachments.fileName": fileName })
+    .select({ "attachments.$": 1 })
+    .lean();
+  const attachment = task?.attachments[0];
+  const key = keyOf(fileName);
+  const storage = getAttachmentStorage();
+  const stats = attachment ? await storage.stat(key) : null;
+  if (!stats) {
+    return res.status(404).json({ success: false, message: "File not found" });
+  }
+
+  const immutable = isContentKey(key);
+  const etag = immutable
+    ? `"${key}"`
+    : `W/"${stats.size.toString(16)}-${stats.modifiedAt.getTime().toString(16)}"`;
+
+  res.set({
+    ETag: etag,
+    "Cache-Control": immutable ? IMMUTABLE : LEGACY_MAX_AGE,
+    "Last-Modified": stats.modifiedAt.toUTCString(),
+    "Accept-Ranges": "bytes",
+    "X-Content-Type-Options": "nosniff",
+    "Content-Security-Policy": "default-src 'none'; sandbox",
+  });
+  const extension = path.extname(fileName).toLowerCase();
+  if (!INLINE_EXTENSIONS.has(extension)) {
+    res.attachment(attachment.originalName || fileName);
+  }
+  res.type(extension || "application/octet-stream");
+
+  if (etagMatches(req.headers["if-none-match"], etag)) {
+    return res.status(304).end();
+  }
+
+  // A range is only honoured for the version the client already has part of
+  const ifRange = req.headers["if-range"];
+  const rangeAllowed = !ifRange || (immutable && ifRange === etag);
+  const range = rangeAllowed ? parseRange(req.headers.range, stats.size) : null;
+  if (range === "unsatisfiable") {
+    res.set("Content-Range", `bytes */${stats.size}`);
+    return res.status(416).end();
+  }
+
+  if (range) {
+    res.status(206).set({
+      "Content-Range": `bytes ${range.start}-${range.end}/${stats.size}`,
+      "Content-Length": range.end - range.start + 1,
+    });
+  } else {
+    res.status(200).set("Content-Length", stats.size);
+  }
+
+  if (req.method === "HEAD") {
+    return res.end();
+  }
+
+  pipeline(storage.createReadStream(key, range || undefined), res, (error) => {
+    if (error && error.code !== "ERR_STREAM_PREMATURE_CLOSE") {
+      console.error("Error streaming attachment:", error);
+    }
+  });
+};
+
+export { sendAttachment, parseRange };
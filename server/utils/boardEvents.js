@@ -0,0 +1,255 @@
+import crypto from "crypto";
+import BoardLog from "../models/boardLog.js";
+import Task from "../models/task.js";
+import User from "../models/user.js";
+import { emitToProject, isClustered, projectRoom } from "./realtime.js";
+import { canViewProject, resolvePrincipal } from "./principals.js";
+import { socketEmits } from "./metrics.js";
+
+// On a single node, versions are counted in this process; the epoch tells
+// clients that the counter restarted and they must resync. With the Redis
+// adapter every node publishes to the same rooms, so the version, epoch and
+// replay buffer live in one BoardLog document per project instead.
+const EPOCH = crypto.randomBytes(6).toString("hex");
+const REPLAY_SIZE = Number(process.env.BOARD_REPLAY_SIZE) || 200;
+const MAX_BOARDS = 5000;
+
+const boards = new Map();
+
+const boardState = (projectId) => {
+  const key = projectId.toString();
+  let board = boards.get(key);
+  if (!board) {
+    board = { version: 0, deltas: [] };
+    boards.set(key, board);
+    if (boards.size > MAX_BOARDS) {
+      // Oldest board loses its history; its clients resync on the next gap
+      boards.delete(boards.keys().next().value);
+    }
+  }
+  return board;
+};
+
+const newEpoch = () => crypto.randomBytes(6).toString("hex");
+
+const localLog = {
+  version: async (projectId) => ({
+    epoch: EPOCH,
+    version: boards.get(projectId.toString())?.version || 0,
+  }),
+
+  next: async (projectId) => {
+    const board = boardState(projectId);
+    board.version += 1;
+    return { epoch: EPOCH, version: board.version };
+  },
+
+  remember: async (projectId, delta) => {
+    const board = boardState(projectId);
+    board.deltas.push(delta);
+    if (board.deltas.length > REPLAY_SIZE) {
+      board.deltas.shift();
+    }
+  },
+
+  recent: async (projectId) => {
+    const board = boards.get(projectId.toString());
+    return {
+      epoch: EPOCH,
+      version: board?.version || 0,
+      deltas: board?.deltas || [],
+    };
+  },
+};
+
+const sharedLog = {
+  version: async (projectId) => {
+    const log = await BoardLog.findOneAndUpdate(
+      { projectId },
+      { $setOnInsert: { epoch: newEpoch(), version: 0 } },
+      { upsert: true, new: true, projection: { epoch: 1, version: 1 }, lean: true }
+    );
+    return { epoch: log.epoch, version: log.version };
+  },
+
+  // One atomic $inc hands out the version, whichever node publishes
+  next: async (projectId) => {
+    const log = await BoardLog.findOneAndUpdate(
+      { projectId },
+      { $inc: { version: 1 }, $setOnInsert: { epoch: newEpoch() } },
+      { upsert: true, new: true, projection: { epoch: 1, version: 1 }, lean: true }
+    );
+    return { epoch: log.epoch, version: log.version };
+  },
+
+  // Concurrent publishers may push out of order; $sort puts them back
+  remember: (projectId, delta) =>
+    BoardLog.updateOne(
+      { projectId },
+      {
+        $push: {
+          deltas: { $each: [delta], $sort: { version: 1 }, $slice: -REPLAY_SIZE },
+        },
+      }
+    ),
+
+  recent: async (projectId) => {
+    const log = await BoardLog.findOne({ projectId })
+      .select("epoch version deltas")
+      .lean();
+    return log || { epoch: null, version: 0, deltas: [] };
+  },
+};
+
+const boardLog = () => (isClustered() ? sharedLog : localLog);
+
+const getBoardVersion = (projectId) => boardLog().version(projectId);
+
+/**
+ * Bumps the project's board version and pushes a compact change event to
+ * everyone in the project room, keeping it in a bounded replay buffer for
+ * clients that reconnect. Never throws: a lost delta only means clients
+ * resync on the next one.
+ *
+ * Types: task.created { task }, task.edited { task },
+ * task.moved { taskId, columnId, order, state }, task.deleted { taskId },
+ * column.created { columnId }, tasks.bulk { changes: [{ taskId, ... }] },
+ * ranks.rebalanced { columnId } (clients reload the board).
+ */
+const publishBoardDelta = async (io, projectId, type, data) => {
+  try {
+    const log = boardLog();
+    const { epoch, version } = await log.next(projectId);
+    const delta = {
+      projectId: projectId.toString(),
+      epoch,
+      version,
+      type,
+      ...data,
+    };
+    emitToProject(io, projectId, "boardDelta", delta);
+    await log.remember(projectId, delta);
+    return delta;
+  } catch (error) {
+    console.error("Error publishing board delta:", error);
+    return null;
+  }
+};
+
+/**
+ * Deltas after `version`, or null when they are no longer all buffered (or
+ * the epoch differs) and the client has to reload the board.
+ */
+const missedDeltas = async (projectId, epoch, version) => {
+  const board = await boardLog().recent(projectId);
+  if (epoch !== board.epoch || version > board.version) {
+    return null;
+  }
+  if (version === board.version) {
+    return [];
+  }
+  const oldest = board.deltas[0]?.version;
+  if (oldest === undefined || oldest > version + 1) {
+    return null;
+  }
+  return board.deltas.filter((delta) => delta.version > version);
+};
+
+/**
+ * The task as the board renders it: assignees, creator and dependencies
+ * resolved.
+ */
+const taskForBoard = async (task) => {
+  const plain = task.toObject ? task.toObject() : task;
+  const userIds = [...plain.assignees, plain.createdBy].filter(Boolean);
+  const [users, dependencies] = await Promise.all([
+    User.find({ _id: { $in: userIds } }).select("name email").lean(),
+    plain.dependencies?.length
+      ? Task.find({ _id: { $in: plain.dependencies } })
+          .select("state name")
+          .lean()
+      : [],
+  ]);
+  const usersById = new Map(users.map((user) => [user._id.toString(), user]));
+
+  const { searchPrefixes, ...fields } = plain;
+  return {
+    ...fields,
+    assignees: plain.assignees
+      .map((id) => usersById.get(id.toString()))
+      .filter(Boolean),
+    createdBy: usersById.get(plain.createdBy?.toString()) || null,
+    dependencies,
+  };
+};
+
+/**
+ * Publishes task.created / task.edited with the task as the board shows it.
+ * Never throws: a failed push only means clients resync later.
+ */
+const publishTaskDelta = (io, type, task) =>
+  taskForBoard(task)
+    .then((boardTask) =>
+      publishBoardDelta(io, boardTask.projectId, type, { task: boardTask })
+    )
+    .catch((error) => console.error("Error publishing board delta:", error));
+
+// Re-resolved per subscribe, so a membership change reaches open sockets too
+const canViewBoard = async (socket, projectId) => {
+  const principal = await resolvePrincipal(socket.handshake.auth?.token);
+  return Boolean(principal) && canViewProject(principal, projectId);
+};
+
+/**
+ * Socket events for the live board:
+ *   board:subscribe { projectId, epoch?, version? } joins the project room
+ *     and replays the deltas missed since `version`, or emits board:resync
+ *     when they are gone.
+ *   board:unsubscribe { projectId } leaves a room joined by subscribe.
+ */
+const registerBoardChannel = (io) => {
+  io.on("connection", (socket) => {
+    const subscribed = new Set();
+
+    socket.on("board:subscribe", async ({ projectId, epoch, version } = {}) => {
+      try {
+        if (!projectId || !(await canViewBoard(socket, projectId))) {
+          return;
+        }
+        socket.join(projectRoom(projectId));
+        subscribed.add(projectId.toString());
+
+        if (epoch === undefined || version === undefined) {
+          return;
+        }
+        const deltas = await missedDeltas(projectId, epoch, Number(version));
+        if (deltas === null) {
+          socket.emit("board:resync", {
+            projectId,
+            ...(await getBoardVersion(projectId)),
+          });
+          socketEmits.inc({ event: "board:resync" });
+        } else {
+          deltas.forEach((delta) => socket.emit("boardDelta", delta));
+          socketEmits.inc({ event: "boardDelta" }, deltas.length);
+        }
+      } catch (error) {
+        console.error("Error subscribing to board:", error);
+      }
+    });
+
+    socket.on("board:unsubscribe", ({ projectId } = {}) => {
+      if (projectId && subscribed.delete(projectId.toString())) {
+        socket.leave(projectRoom(projectId));
+      }
+    });
+  });
+};
+
+export {
+  getBoardVersion,
+  publishBoardDelta,
+  publishTaskDelta,
+  missedDeltas,
+  registerBoardChannel,
+};
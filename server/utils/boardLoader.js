@@ -0,0 +1,170 @@
+import crypto from "crypto";
+import mongoose from "mongoose";
+import Column from "../models/column.js";
+import Task from "../models/task.js";
+import User from "../models/user.js";
+import { getBoardVersion } from "./boardEvents.js";
+import { prefixQuery } from "./searchTerms.js";
+
+const buildTaskQuery = (projectId, filters, assigneeId) => {
+  const taskQuery = { projectId, isActive: true };
+
+  if (assigneeId) {
+    taskQuery.assignees = { $in: [assigneeId] };
+  }
+
+  if (filters.priority) {
+    taskQuery.priority = filters.priority;
+  }
+
+  if (typeof filters.search === "string") {
+    const prefix = prefixQuery(filters.search);
+    if (prefix) {
+      Object.assign(taskQuery, prefix);
+    }
+  }
+
+  if (filters.dueDate) {
+    taskQuery.dueDate = new Date(filters.dueDate);
+  }
+
+  return taskQuery;
+};
+
+const lastChange = async (Model, projectId) => {
+  const [row] = await Model.aggregate([
+    { $match: { projectId } },
+    {
+      $group: {
+        _id: null,
+        count: { $sum: 1 },
+        updatedAt: { $max: "$updatedAt" },
+      },
+    },
+  ]);
+  return row ? `${row.count}:${row.updatedAt?.getTime()}` : "0";
+};
+
+/**
+ * Cheap version tag for a board. Every task or column write bumps updatedAt
+ * (deletes are soft, so they do too), so count + latest updatedAt of the
+ * project's tasks and columns changes whenever the board does. The filters
+ * and the viewer are part of the tag because they change the response, and
+ * so is the live board version the response carries.
+ */
+const getBoardETag = async ({
+  projectId,
+  filters = {},
+  assigneeId,
+  board,
+}) => {
+  const projectObjectId = new mongoose.Types.ObjectId(projectId.toString());
+  const [tasksVersion, columnsVersion] = await Promise.all([
+    lastChange(Task, projectObjectId),
+    lastChange(Column, projectObjectId),
+  ]);
+
+  const hash = crypto
+    .createHash("sha1")
+    .update(
+      JSON.stringify([
+        tasksVersion,
+        columnsVersion,
+        filters.priority || "",
+        filters.search || "",
+        filters.dueDate || "",
+        assigneeId || "",
+        board ? `${board.epoch}:${board.version}` : "",
+      ])
+    )
+    .digest("base64url");
+  return `W/"board-${hash}"`;
+};
+
+/**
+ * Loads a project's columns with their tasks in a fixed number of queries:
+ * columns, all matching tasks, then the referenced users and dependencies in
+ * one batch each. Tasks are grouped into their columns in memory. The result
+ * has the same shape the per-column populate queries used to return.
+ */
+const loadBoard = async ({ projectId, filters = {}, assigneeId }) => {
+  const [columns, tasks] = await Promise.all([
+    Column.find({ projectId, isActive: true }).sort({ order: 1 }).lean(),
+    Task.find(buildTaskQuery(projectId, filters, assigneeId))
+      .sort({ order: 1, _id: 1 })
+      .lean(),
+  ]);
+
+  const userIds = new Set();
+  const dependencyIds = new Set();
+  tasks.forEach((task) => {
+    task.assignees.forEach((id) => userIds.add(id.toString()));
+    if (task.createdBy) {
+      userIds.add(task.createdBy.toString());
+    }
+    task.dependencies.forEach((id) => dependencyIds.add(id.toString()));
+  });
+
+  const [users, dependencies] = await Promise.all([
+    userIds.size > 0
+      ? User.find({ _id: { $in: [...userIds] } }).select("name email").lean()
+      : [],
+    dependencyIds.size > 0
+      ? Task.find({ _id: { $in: [...dependencyIds] } })
+          .select("state name")
+          .lean()
+      : [],
+  ]);
+
+  const usersById = new Map(users.map((user) => [user._id.toString(), user]));
+  const dependenciesById = new Map(
+    dependencies.map((dependency) => [dependency._id.toString(), dependency])
+  );
+  // Like populate: missing refs drop out of arrays and become null otherwise
+  const resolve = (ids, byId) =>
+    ids.map((id) => byId.get(id.toString())).filter(Boolean);
+
+  const tasksByColumn = new Map(
+    columns.map((column) => [column._id.toString(), []])
+  );
+  tasks.forEach((task) => {
+    const columnTasks = tasksByColumn.get(task.columnId.toString());
+    if (!columnTasks) {
+      return;
+    }
+    columnTasks.push({
+      ...task,
+      assignees: resolve(task.assignees, usersById),
+      createdBy: usersById.get(task.createdBy?.toString()) || null,
+      dependencies: resolve(task.dependencies, dependenciesById),
+    });
+  });
+
+  return columns.map((column) => ({
+    ...column,
+    tasks: tasksByColumn.get(column._id.toString()),
+  }));
+};
+
+/**
+ * Shared getColumns handler body: answers 304 when the client's ETag still
+ * matches, otherwise loads the board and sends it with a fresh ETag and the
+ * board version to subscribe to live deltas from.
+ */
+const sendBoard = async (req, res, { projectId, filters, assigneeId }) => {
+  // Read before loading: deltas published meanwhile are newer than `board`
+  // and the client applies them on top (they are idempotent).
+  const board = await getBoardVersion(projectId);
+  const etag = await getBoardETag({ projectId, filters, assigneeId, board });
+  res.set("ETag", etag);
+  res.set("Cache-Control", "private, no-cache");
+
+  if (req.fresh) {
+    return res.status(304).end();
+  }
+
+  const columnsWithTasks = await loadBoard({ projectId, filters, assigneeId });
+  res.status(200).json({ success: true, columnsWithTasks, board });
+};
+
+export { getBoardETag, loadBoard, sendBoard };
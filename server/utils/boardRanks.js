@@ -0,0 +1,163 @@
+import mongoose from "mongoose";
+import Task from "../models/task.js";
+import Column from "../models/column.js";
+import { publishBoardDelta } from "./boardEvents.js";
+import { isRank, needsRebalance, rankBetween, spreadRanks } from "./rank.js";
+
+const REBALANCE_DELAY_MS = Number(process.env.RANK_REBALANCE_DELAY_MS) || 2000;
+
+const { isValidObjectId } = mongoose;
+const scheduled = new Map();
+
+const rankOrNull = (item) => (isRank(item?.order) ? item.order : null);
+
+/**
+ * Respreads the ranks of one column's tasks (or, without columnId, of the
+ * project's columns), keeping their current order. Each write only applies
+ * if the item still has the rank that was read, so a card moved meanwhile
+ * keeps the rank it was given. Clients reload on "ranks.rebalanced".
+ */
+const rebalance = async (io, projectId, columnId) => {
+  const [model, filter] = columnId
+    ? [Task, { columnId, isActive: true }]
+    : [Column, { projectId, isActive: true }];
+  const items = await model
+    .find(filter)
+    .sort({ order: 1, _id: 1 })
+    .select("order")
+    .lean();
+  const ranks = spreadRanks(items.length);
+
+  const operations = items
+    .map((item, index) => ({ item, rank: ranks[index] }))
+    .filter(({ item, rank }) => item.order !== rank)
+    .map(({ item, rank }) => ({
+      updateOne: {
+        filter: { _id: item._id, order: item.order },
+        update: { $set: { order: rank } },
+      },
+    }));
+  if (operations.length === 0) {
+    return;
+  }
+  await model.bulkWrite(operations, { ordered: false });
+  publishBoardDelta(io, projectId, "ranks.rebalanced", {
+    columnId: columnId || null,
+  });
+};
+
+// Coalesces requests for the same scope into one run shortly afterwards
+const scheduleRebalance = (io, projectId, columnId) => {
+  const key = `${projectId}:${columnId || "columns"}`;
+  if (scheduled.has(key)) {
+    return;
+  }
+  const timer = setTimeout(() => {
+    scheduled.delete(key);
+    rebalance(io, projectId, columnId).catch((error) =>
+      console.error("Error rebalancing ranks:", error)
+    );
+  }, REBALANCE_DELAY_MS);
+  timer.unref?.();
+  scheduled.set(key, timer);
+};
+
+const checked = (io, projectId, columnId, rank) => {
+  if (needsRebalance(rank)) {
+    scheduleRebalance(io, projectId, columnId);
+  }
+  return rank;
+};
+
+const lastRank = async (model, filter, io, projectId, columnId) => {
+  const last = await model
+    .findOne(filter)
+    .sort({ order: -1 })
+    .select("order")
+    .lean();
+  if (last && !isRank(last.order)) {
+    // Left over from integer ordering; respread and append for now
+    scheduleRebalance(io, projectId, columnId);
+  }
+  return rankOrNull(last);
+};
+
+/**
+ * Rank for a new task at the end of a column: one indexed read of the last
+ * card, no count. Two tasks appended at once can get the same rank; they
+ * then sort by _id, i.e. in creation order.
+ */
+const appendTaskRank = async (io, projectId, columnId) => {
+  const last = await lastRank(
+    Task,
+    { columnId, isActive: true },
+    io,
+    projectId,
+    columnId
+  );
+  return checked(io, projectId, columnId, rankBetween(last, null));
+};
+
+const appendColumnRank = async (io, projectId) => {
+  const last = await lastRank(
+    Column,
+    { projectId, isActive: true },
+    io,
+    projectId,
+    null
+  );
+  return checked(io, projectId, null, rankBetween(last, null));
+};
+
+const nearestRank = async (scope, taskId, comparison, rank) =>
+  rankOrNull(
+    await Task.findOne({
+      ...scope,
+      _id: { $ne: taskId },
+      order: { [comparison]: rank },
+    })
+      .sort({ order: comparison === "$gt" ? 1 : -1 })
+      .select("order")
+      .lean()
+  );
+
+/**
+ * Rank for dropping `taskId` into `columnId` between the cards the client
+ * saw above (prevTaskId) and below (nextTaskId) it; either may be missing
+ * at the ends of the column. Costs one read of the neighbours. When the
+ * client's view is stale (a neighbour moved away, or the two no longer
+ * touch) the live neighbour is looked up instead, so the result always
+ * sorts right after the card above.
+ */
+const placeTaskRank = async (
+  io,
+  { projectId, columnId, taskId, prevTaskId, nextTaskId }
+) => {
+  const scope = { columnId, isActive: true };
+  const neighbourIds = [prevTaskId, nextTaskId].filter(isValidObjectId);
+  if (neighbourIds.length === 0) {
+    return appendTaskRank(io, projectId, columnId);
+  }
+
+  const neighbours = await Task.find({
+    ...scope,
+    _id: { $in: neighbourIds, $ne: taskId },
+  })
+    .select("order")
+    .lean();
+  const rankOf = (id) =>
+    rankOrNull(neighbours.find((task) => task._id.toString() === `${id}`));
+
+  let before = prevTaskId ? rankOf(prevTaskId) : null;
+  let after = nextTaskId ? rankOf(nextTaskId) : null;
+  if (before !== null && (after === null || after <= before)) {
+    after = await nearestRank(scope, taskId, "$gt", before);
+  } else if (before === null && after !== null && prevTaskId) {
+    before = await nearestRank(scope, taskId, "$lt", after);
+  } else if (before === null && after === null) {
+    return appendTaskRank(io, projectId, columnId);
+  }
+  return checked(io, projectId, columnId, rankBetween(before, after));
+};
+
+export { appendTaskRank, appendColumnRank, placeTaskRank, scheduleRebalance };
@@ -0,0 +1,430 @@
+import mongoose from "mongoose";
+import Task from "../models/task.js";
+import User from "../models/user.js";
+import Column from "../models/column.js";
+import { invalidateDashboards } from "./dashboardStats.js";
+import { recordTaskRollups } from "./analyticsRollups.js";
+import { publishBoardDelta } from "./boardEvents.js";
+import { enqueueSideEffects, recordActivity } from "./sideEffects.js";
+import { scheduleRebalance } from "./boardRanks.js";
+import {
+  getDependencyGraph,
+  storedDependencies,
+  taskRemoved,
+  taskStateChanged,
+} from "./dependencyGraph.js";
+import { isRank, needsRebalance, rankBetween } from "./rank.js";
+import { managesProject } from "./principals.js";
+
+const MAX_OPERATIONS = 500;
+const OPERATION_TYPES = ["move", "assign", "priority", "delete"];
+const PRIORITIES = Task.schema.path("priority").enumValues;
+
+const { isValidObjectId } = mongoose;
+
+class BulkTaskError extends Error {
+  constructor(status, message, details) {
+    super(message);
+    this.status = status;
+    this.details = details;
+  }
+}
+
+const operationError = (index, message) =>
+  new BulkTaskError(400, `Operation ${index}: ${message}`);
+
+/**
+ * Checks the shape of every operation before anything is read:
+ *   { type: "move", taskId, columnId }   appended to the end of the column
+ *   { type: "assign", taskId, assignees: [userId] }
+ *   { type: "priority", taskId, priority }
+ *   { type: "delete", taskId }
+ */
+const validateOperations = (operations) => {
+  if (!Array.isArray(operations) || operations.length === 0) {
+    throw new BulkTaskError(400, "operations must be a non-empty array.");
+  }
+  if (operations.length > MAX_OPERATIONS) {
+    throw new BulkTaskError(
+      400,
+      `At most ${MAX_OPERATIONS} operations per request.`
+    );
+  }
+
+  operations.forEach((operation, index) => {
+    if (!OPERATION_TYPES.includes(operation?.type)) {
+      throw operationError(index, `type must be one of ${OPERATION_TYPES}.`);
+    }
+    if (!isValidObjectId(operation.taskId)) {
+      throw operationError(index, "invalid taskId.");
+    }
+    if (operation.type === "move" && !isValidObjectId(operation.columnId)) {
+      throw operationError(index, "invalid columnId.");
+    }
+    if (
+      operation.type === "assign" &&
+      (!Array.isArray(operation.assignees) ||
+        !operation.assignees.every(isValidObjectId))
+    ) {
+      throw operationError(index, "assignees must be an array of user ids.");
+    }
+    if (operation.type === "priority" && !PRIORITIES.includes(operation.priority)) {
+      throw operationError(index, `priority must be one of ${PRIORITIES}.`);
+    }
+  });
+};
+
+// One Task query, one Column query, one User query, whatever the batch size
+const loadBatch = async (projectId, operations) => {
+  const taskIds = [...new Set(operations.map((op) => op.taskId.toString()))];
+  const columnIds = [
+    ...new Set(
+      operations
+        .filter((op) => op.type === "move")
+        .map((op) => op.columnId.toString())
+    ),
+  ];
+  const userIds = [
+    ...new Set(
+      operations
+        .filter((op) => op.type === "assign")
+        .flatMap((op) => op.assignees.map((id) => id.toString()))
+    ),
+  ];
+
+  const [tasks, columns, users] = await Promise.all([
+    Task.find({ _id: { $in: taskIds }, projectId, isActive: true })
+      .select("name state createdBy columnId priority category assignees")
+      .lean(),
+    columnIds.length
+      ? Column.find({ _id: { $in: columnIds }, projectId, isActive: true })
+          .select("name")
+          .lean()
+      : [],
+    userIds.length
+      ? User.find({ _id: { $in: userIds } }).select("name email").lean()
+      : [],
+  ]);
+
+  const byId = (docs) => new Map(docs.map((doc) => [doc._id.toString(), doc]));
+  const batch = { tasks: byId(tasks), columns: byId(columns), users: byId(users) };
+
+  const missing = (ids, found) => ids.filter((id) => !found.has(id));
+  if (missing(taskIds, batch.tasks).length) {
+    throw new BulkTaskError(404, "Some tasks were not found in this project.", {
+      taskIds: missing(taskIds, batch.tasks),
+    });
+  }
+  if (missing(columnIds, batch.columns).length) {
+    throw new BulkTaskError(400, "Some columns are not in this project.", {
+      columnIds: missing(columnIds, batch.columns),
+    });
+  }
+  if (missing(userIds, batch.users).length) {
+    throw new BulkTaskError(400, "Some assignees do not exist.", {
+      userIds: missing(userIds, batch.users),
+    });
+  }
+  return batch;
+};
+
+/**
+ * Folds the operations into the state each task ends up in, in request
+ * order, so later operations on the same task win.
+ */
+const finalChanges = (operations, batch) => {
+  const changes = new Map();
+  operations.forEach((op) => {
+    const taskId = op.taskId.toString();
+    const change = changes.get(taskId) || { taskId };
+    if (op.type === "move") {
+      change.columnId = op.columnId.toString();
+      change.state = batch.columns.get(change.columnId).name;
+    } else if (op.type === "assign") {
+      change.assignees = [...new Set(op.assignees.map((id) => id.toString()))];
+    } else if (op.type === "priority") {
+      change.priority = op.priority;
+    } else {
+      change.deleted = true;
+    }
+    changes.set(taskId, change);
+  });
+  return changes;
+};
+
+/**
+ * A task may only end the batch in "Completed" when each dependency is
+ * completed too, either already or by this same batch. Answered from the
+ * project's dependency graph, then confirmed against the stored tasks (two
+ * queries for the whole batch), since the graph can lag writes made on
+ * another server node.
+ */
+const checkDependencies = async (projectId, changes) => {
+  const completing = [...changes.values()].filter(
+    (change) => !change.deleted && change.state === "Completed"
+  );
+  if (completing.length === 0) {
+    return;
+  }
+
+  const graph = await getDependencyGraph(projectId);
+  const completedAfterBatch = ({ id, completed }) => {
+    const change = changes.get(id);
+    if (change?.deleted) {
+      return true;
+    }
+    return change?.state ? change.state === "Completed" : completed;
+  };
+  const blockedBy = (dependencies) =>
+    dependencies.some((dependency) => !completedAfterBatch(dependency));
+  let blocked = completing
+    .filter((change) => blockedBy(graph.dependencies(change.taskId)))
+    .map((change) => change.taskId);
+  if (blocked.length === 0) {
+    const stored = await storedDependencies(
+      completing.map((change) => change.taskId)
+    );
+    blocked = completing
+      .filter((change) => blockedBy(stored.get(change.taskId.toString()) || []))
+      .map((change) => change.taskId);
+  }
+  if (blocked.length) {
+    throw new BulkTaskError(
+      400,
+      "Task cannot be completed until all dependencies are completed.",
+      { taskIds: blocked }
+    );
+  }
+};
+
+/**
+ * Ranks the moved tasks after the current last card of their target column,
+ * in request order; one aggregation covers every target column.
+ */
+const assignRanks = async (io, projectId, changes) => {
+  const moved = [...changes.values()].filter(
+    (change) => change.columnId && !change.deleted
+  );
+  if (moved.length === 0) {
+    return;
+  }
+  const columnIds = [...new Set(moved.map((change) => change.columnId))];
+  const lastRanks = await Task.aggregate([
+    {
+      $match: {
+        columnId: {
+          $in: columnIds.map((id) => new mongoose.Types.ObjectId(id)),
+        },
+        isActive: true,
+        order: { $type: "string" },
+      },
+    },
+    { $group: { _id: "$columnId", last: { $max: "$order" } } },
+  ]);
+  const last = new Map(
+    lastRanks.map(({ _id, last: rank }) => [
+      _id.toString(),
+      isRank(rank) ? rank : null,
+    ])
+  );
+
+  moved.forEach((change) => {
+    change.order = rankBetween(last.get(change.columnId) ?? null, null);
+    last.set(change.columnId, change.order);
+  });
+  columnIds
+    .filter((columnId) => needsRebalance(last.get(columnId)))
+    .forEach((columnId) => scheduleRebalance(io, projectId, columnId));
+};
+
+const toWriteModels = (changes) =>
+  [...changes.values()].map(({ taskId, deleted, ...fields }) => ({
+    updateOne: {
+      filter: { _id: taskId },
+      update: { $set: deleted ? { isActive: false } : fields },
+    },
+  }));
+
+const writeChanges = async (writeModels, useTransaction) => {
+  if (!useTransaction) {
+    return Task.bulkWrite(writeModels, { ordered: true });
+  }
+  // Needs a replica set; all or nothing instead of stopping at the first error
+  const session = await Task.startSession();
+  try {
+    let result;
+    await session.withTransaction(async () => {
+      result = await Task.bulkWrite(writeModels, { ordered: true, session });
+    });
+    return result;
+  } finally {
+    await session.endSession();
+  }
+};
+
+const summarize = (operations) => {
+  const counts = operations.reduce(
+    (total, op) => ({ ...total, [op.type]: (total[op.type] || 0) + 1 }),
+    {}
+  );
+  const labels = {
+    move: "moved",
+    assign: "reassigned",
+    priority: "reprioritised",
+    delete: "deleted",
+  };
+  return OPERATION_TYPES.filter((type) => counts[type])
+    .map((type) => `${counts[type]} ${labels[type]}`)
+    .join(", ");
+};
+
+// The board delta carries assignees the way the board renders them
+const deltaChanges = (changes, batch) =>
+  [...changes.values()].map((change) =>
+    change.assignees
+      ? {
+          ...change,
+          assignees: change.assignees.map((id) => batch.users.get(id)),
+        }
+      : change
+  );
+
+/**
+ * Applies a batch of task operations within one project as a single
+ * Task.bulkWrite (in a transaction when asked), after validating the whole
+ * batch up front. Produces one activity entry, one board delta
+ * ("tasks.bulk") and one dashboard invalidation for the whole batch.
+ *
+ * manager (a principal) limits the batch to the projects they manage, and
+ * deletes to tasks they created, as the single-task manager routes do.
+ */
+const applyBulkTaskOperations = async ({
+  io,
+  userId,
+  projectId,
+  operations,
+  transaction = false,
+  manager,
+}) => {
+  if (!isValidObjectId(projectId)) {
+    throw new BulkTaskError(400, "A valid projectId is required.");
+  }
+  validateOperations(operations);
+
+  if (manager && !managesProject(manager, projectId)) {
+    throw new BulkTaskError(403, "You do not manage this project.");
+  }
+
+  const batch = await loadBatch(projectId, operations);
+  if (manager) {
+    const notOwned = operations
+      .filter(
+        (op) =>
+          op.type === "delete" &&
+          batch.tasks.get(op.taskId.toString()).createdBy.toString() !==
+            manager.id.toString()
+      )
+      .map((op) => op.taskId);
+    if (notOwned.length) {
+      throw new BulkTaskError(403, "Only the task creator can delete a task.", {
+        taskIds: notOwned,
+      });
+    }
+  }
+
+  const changes = finalChanges(operations, batch);
+  await checkDependencies(projectId, changes);
+  await assignRanks(io, projectId, changes);
+
+  const result = await writeChanges(toWriteModels(changes), transaction);
+
+  invalidateDashboards();
+  changes.forEach((change) => {
+    if (change.deleted) {
+      taskRemoved(projectId, change.taskId);
+    } else if (change.state) {
+      taskStateChanged(projectId, change.taskId, change.state);
+    }
+  });
+  await recordTaskRollups(
+    projectId,
+    [...changes.values()].map((change) => {
+      const before = batch.tasks.get(change.taskId);
+      const after = change.deleted
+        ? null
+        : {
+            ...before,
+            ...(change.columnId && { columnId: change.columnId, state: change.state }),
+            ...(change.priority && { priority: change.priority }),
+            ...(change.assignees && { assignees: change.assignees }),
+          };
+      return { before, after };
+    })
+  );
+  publishBoardDelta(io, projectId, "tasks.bulk", {
+    changes: deltaChanges(changes, batch),
+  });
+
+  const newAssignments = [...changes.values()].filter(
+    (change) => change.assignees && !change.deleted
+  );
+  await enqueueSideEffects({
+    updates: [
+      {
+        model: User,
+        operations: newAssignments.flatMap((change) =>
+          change.assignees.map((assignee) => ({
+            updateOne: {
+              filter: { _id: assignee },
+              update: { $addToSet: { tasks: change.taskId } },
+            },
+          }))
+        ),
+      },
+    ],
+  });
+  await recordActivity({
+    projectId,
+    userId,
+    action: "Updated",
+    entity: "Project",
+    entityId: projectId,
+    details: `Bulk update of ${changes.size} task(s): ${summarize(operations)}`,
+  });
+
+  return {
+    tasks: changes.size,
+    matched: result.matchedCount,
+    modified: result.modifiedCount,
+  };
+};
+
+/**
+ * POST body: { projectId, operations, transaction? }. Answers 200 with the
+ * write counts, or the BulkTaskError's status with the offending ids.
+ */
+const sendBulkTaskResult = async (req, res, { manager } = {}) => {
+  const { projectId, operations, transaction } = req.body;
+  try {
+    const result = await applyBulkTaskOperations({
+      io: req.io,
+      userId: req.user.id,
+      projectId,
+      operations,
+      transaction: transaction === true,
+      manager,
+    });
+    return res.status(200).json({ success: true, ...result });
+  } catch (error) {
+    if (error instanceof BulkTaskError) {
+      return res.status(error.status).json({
+        success: false,
+        message: error.message,
+        ...error.details,
+      });
+    }
+    throw error;
+  }
+};
+
+export { applyBulkTaskOperations, sendBulkTaskResult, BulkTaskError };
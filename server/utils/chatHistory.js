@@ -0,0 +1,140 @@
+import Chat from "../models/chat.js";
+import ChatArchive from "../models/chatArchive.js";
+import { pairOf } from "./conversations.js";
+import {
+  encodeCursor,
+  isOlderThan,
+  newestFirst,
+  olderThan,
+} from "./keysetCursor.js";
+
+const FIELDS = "sender receiver chat isRead createdAt";
+const ARCHIVE_DAYS_PER_READ = 7;
+
+const between = (firstId, secondId) => ({
+  $or: [
+    { sender: firstId, receiver: secondId },
+    { sender: secondId, receiver: firstId },
+  ],
+});
+
+const startOfDay = (date) =>
+  new Date(
+    Date.UTC(date.getUTCFullYear(), date.getUTCMonth(), date.getUTCDate())
+  );
+
+const compact = ({ _id, sender, receiver, chat, isRead, createdAt }) => ({
+  _id,
+  sender,
+  receiver,
+  chat,
+  isRead,
+  createdAt,
+});
+
+// Archived messages older than `bound`, newest first, a week of buckets per read
+const readArchive = async (pairKey, bound, needed) => {
+  const rows = [];
+  let day = bound ? { $lte: startOfDay(bound.createdAt) } : undefined;
+  while (rows.length < needed) {
+    const buckets = await ChatArchive.find(day ? { pairKey, day } : { pairKey })
+      .sort({ day: -1 })
+      .limit(ARCHIVE_DAYS_PER_READ)
+      .lean();
+    buckets.forEach((bucket) =>
+      bucket.messages.forEach((message) => {
+        if (!bound || isOlderThan(message, bound)) {
+          rows.push(compact(message));
+        }
+      })
+    );
+    if (buckets.length < ARCHIVE_DAYS_PER_READ) {
+      break;
+    }
+    day = { $lt: buckets[buckets.length - 1].day };
+  }
+  return rows.sort(newestFirst).slice(0, needed);
+};
+
+/**
+ * One page of the conversation between two users, newest first, older than
+ * the decoded `before` cursor. Live messages come from Chat; once those run
+ * out the page continues into the archived day buckets, so callers never see
+ * where the retention window ends.
+ */
+const fetchChatPage = async ({ myId, userId, before, limit }) => {
+  const conversation = between(myId, userId);
+  const live = await Chat.find(
+    before ? { $and: [conversation, olderThan(before)] } : conversation
+  )
+    .select(FIELDS)
+    .sort({ createdAt: -1, _id: -1 })
+    .limit(limit + 1)
+    .lean();
+
+  let rows = live;
+  if (rows.length <= limit) {
+    const bound = rows[rows.length - 1] || before;
+    const archived = await readArchive(
+      pairOf(myId, userId).pairKey,
+      bound,
+      limit + 1 - rows.length
+    );
+    rows = rows.concat(archived);
+  }
+
+  const hasMore = rows.length > limit;
+  const chats = hasMore ? rows.slice(0, limit) : rows;
+  return {
+    chats,
+    nextCursor: hasMore ? encodeCursor(chats[chats.length - 1]) : null,
+  };
+};
+
+/**
+ * Moves messages sent before `cutoff` from Chat into per-pair, per-day
+ * ChatArchive buckets, oldest first in batches. A batch is added to its
+ * buckets ($addToSet, so a rerun after a crash adds nothing twice) before it
+ * is deleted from Chat. Returns the number of messages moved.
+ */
+const archiveChatsBefore = async (cutoff, { batchSize = 1000 } = {}) => {
+  let archived = 0;
+  for (;;) {
+    const batch = await Chat.find({ createdAt: { $lt: cutoff } })
+      .select(FIELDS)
+      .sort({ createdAt: 1 })
+      .limit(batchSize)
+      .lean();
+    if (batch.length === 0) {
+      return archived;
+    }
+
+    const buckets = new Map();
+    batch.forEach((message) => {
+      const { pairKey } = pairOf(message.sender, message.receiver);
+      const day = startOfDay(message.createdAt);
+      const key = `${pairKey}|${day.getTime()}`;
+      if (!buckets.has(key)) {
+        buckets.set(key, { pairKey, day, messages: [] });
+      }
+      buckets.get(key).messages.push(compact(message));
+    });
+
+    await ChatArchive.bulkWrite(
+      [...buckets.values()].map(({ pairKey, day, messages }) => ({
+        updateOne: {
+          filter: { pairKey, day },
+          update: { $addToSet: { messages: { $each: messages } } },
+          upsert: true,
+        },
+      })),
+      { ordered: false }
+    );
+    await Chat.deleteMany({
+      _id: { $in: batch.map((message) => message._id) },
+    });
+    archived += batch.length;
+  }
+};
+
+export { fetchChatPage, archiveChatsBefore };
@@ -0,0 +1,181 @@
+import mongoose from "mongoose";
+import Comment from "../models/comment.js";
+import Task from "../models/task.js";
+import { publishBoardDelta } from "./boardEvents.js";
+import { decodeCursor, encodeCursor, olderThan } from "./keysetCursor.js";
+import { canViewProject } from "./principals.js";
+
+const DEFAULT_PAGE_SIZE = 20;
+const MAX_PAGE_SIZE = 100;
+const PREVIEW_LENGTH = 140;
+const MAX_COMMENT_LENGTH = 5000;
+
+const pageSize = (limit) =>
+  Math.min(Math.max(Number(limit) || DEFAULT_PAGE_SIZE, 1), MAX_PAGE_SIZE);
+
+const previewOf = (comment) => ({
+  commenterId: comment.commenterId,
+  commenterName: comment.commenterName,
+  content: comment.content.slice(0, PREVIEW_LENGTH),
+  createdAt: comment.createdAt,
+});
+
+/**
+ * Newest-first keyset page over `query`; returns the rows and the cursor of
+ * the next page (null on the last one).
+ */
+const commentPage = async (query, { before, limit }) => {
+  const filter = before ? { ...query, ...olderThan(before) } : query;
+  const rows = await Comment.find(filter)
+    .sort({ createdAt: -1, _id: -1 })
+    .limit(limit + 1)
+    .lean();
+  const hasMore = rows.length > limit;
+  const comments = hasMore ? rows.slice(0, limit) : rows;
+  return {
+    comments,
+    nextCursor: hasMore ? encodeCursor(comments[comments.length - 1]) : null,
+  };
+};
+
+const readCursor = (req, res) => {
+  if (!req.query.before) {
+    return {};
+  }
+  const before = decodeCursor(req.query.before);
+  if (!before) {
+    res.status(400).json({ success: false, message: "Invalid cursor" });
+    return null;
+  }
+  return { before };
+};
+
+const findVisibleTask = async (req, res, taskId) => {
+  const task = mongoose.isValidObjectId(taskId)
+    ? await Task.findOne({ _id: taskId, isActive: true })
+        .select("projectId")
+        .lean()
+    : null;
+  if (!task || !canViewProject(req.user, task.projectId)) {
+    res.status(404).json({ success: false, message: "Task not found" });
+    return null;
+  }
+  return task;
+};
+
+/**
+ * POST /addComment/:taskId { content, mentionedUsers? }
+ *
+ * Appends one comment document, signed with the caller's own id and name,
+ * and bumps the task's commentCount and lastComment preview in one update;
+ * the task itself is never loaded or rewritten. Answers with the new
+ * comment and announces it as a "task.commented" board delta.
+ */
+const sendNewComment = async (req, res) => {
+  const { taskId } = req.params;
+  const { content, mentionedUsers } = req.body;
+  if (typeof content !== "string" || !content.trim()) {
+    return res
+      .status(400)
+      .json({ success: false, message: "Comment content is required" });
+  }
+
+  const task = await findVisibleTask(req, res, taskId);
+  if (!task) {
+    return;
+  }
+
+  const comment = await Comment.create({
+    taskId,
+    projectId: task.projectId,
+    commenterId: req.user.id,
+    commenterName: req.user.name,
+    content: content.trim().slice(0, MAX_COMMENT_LENGTH),
+    mentionedUsers: [].concat(mentionedUsers || []).filter((id) =>
+      mongoose.isValidObjectId(id)
+    ),
+  });
+
+  // The count always goes up; the preview only moves forward in time, so a
+  // slower request for an earlier comment cannot overwrite a newer one
+  const preview = previewOf(comment);
+  const updated = await Task.findOneAndUpdate(
+    { _id: taskId },
+    [
+      {
+        $set: {
+          commentCount: { $add: [{ $ifNull: ["$commentCount", 0] }, 1] },
+          lastComment: {
+            $cond: [
+              {
+                $or: [
+                  { $not: ["$lastComment.createdAt"] },
+                  { $lt: ["$lastComment.createdAt", preview.createdAt] },
+                ],
+              },
+              { $literal: preview },
+              "$lastComment",
+            ],
+          },
+        },
+      },
+    ],
+    { new: true, projection: { commentCount: 1, lastComment: 1 }, lean: true }
+  );
+  const { lastComment } = updated;
+  publishBoardDelta(req.io, task.projectId, "task.commented", {
+    taskId,
+    commentCount: updated.commentCount,
+    lastComment,
+  });
+
+  res.status(200).json({
+    success: true,
+    message: "Comment added successfully",
+    comment,
+    commentCount: updated.commentCount,
+  });
+};
+
+/**
+ * GET /getComments/:taskId?limit&before
+ *
+ * The task's comments newest first; pass nextCursor back as `before` for
+ * older ones.
+ */
+const sendCommentPage = async (req, res) => {
+  const cursor = readCursor(req, res);
+  if (!cursor) {
+    return;
+  }
+  const task = await findVisibleTask(req, res, req.params.taskId);
+  if (!task) {
+    return;
+  }
+
+  const page = await commentPage(
+    { taskId: task._id },
+    { ...cursor, limit: pageSize(req.query.limit) }
+  );
+  res.status(200).json({ success: true, ...page });
+};
+
+/**
+ * GET /getMentions?limit&before
+ *
+ * Comments mentioning the caller, newest first, from the mentionedUsers
+ * index.
+ */
+const sendMentionPage = async (req, res) => {
+  const cursor = readCursor(req, res);
+  if (!cursor) {
+    return;
+  }
+  const page = await commentPage(
+    { mentionedUsers: req.user.id },
+    { ...cursor, limit: pageSize(req.query.limit) }
+  );
+  res.status(200).json({ success: true, ...page });
+};
+
+export { sendNewComment, sendCommentPage, sendMentionPage };
@@ -0,0 +1,139 @@
+import mongoose from "mongoose";
+import Conversation from "../models/conversation.js";
+
+const DUPLICATE_KEY = 11000;
+const INBOX_LIMIT = 500;
+
+/**
+ * The pair's summary key and which side ("A" or "B") each user is on: the
+ * lower id is always A, so both users map to the same document.
+ */
+const pairOf = (firstId, secondId) => {
+  const [userA, userB] = [firstId.toString(), secondId.toString()].sort();
+  return {
+    pairKey: `${userA}_${userB}`,
+    userA,
+    userB,
+    sideOf: (userId) => (userId.toString() === userA ? "A" : "B"),
+  };
+};
+
+const objectId = (id) => new mongoose.Types.ObjectId(id.toString());
+
+/**
+ * Records a sent message on the pair's summary in one atomic pipeline
+ * upsert: both names and the receiver's unread count always, the last
+ * message and its time only when this message is not older than the one
+ * stored, so a slower concurrent send cannot roll the preview back. Returns
+ * the updated summary. Two first messages racing on the unique pairKey make
+ * one upsert fail; that one is simply retried as an update.
+ */
+const recordMessage = async ({ sender, receiver, chat, sentAt, names }) => {
+  const pair = pairOf(sender, receiver);
+  const unread = `unread${pair.sideOf(receiver)}`;
+  const isLatest = {
+    $or: [
+      { $not: ["$lastMessageAt"] },
+      { $gte: [sentAt, "$lastMessageAt"] },
+    ],
+  };
+  // Pipeline updates are not cast by the schema; ids go in as ObjectIds
+  const update = [
+    {
+      $set: {
+        userA: objectId(pair.userA),
+        userB: objectId(pair.userB),
+        nameA: names.get(pair.userA),
+        nameB: names.get(pair.userB),
+        [unread]: { $add: [{ $ifNull: [`$${unread}`, 0] }, 1] },
+        lastMessage: {
+          $cond: [
+            isLatest,
+            {
+              $literal: {
+                chat,
+                sender: objectId(sender),
+                receiver: objectId(receiver),
+                isRead: false,
+              },
+            },
+            "$lastMessage",
+          ],
+        },
+        lastMessageAt: { $cond: [isLatest, sentAt, "$lastMessageAt"] },
+        createdAt: { $ifNull: ["$createdAt", "$$NOW"] },
+      },
+    },
+  ];
+  const options = { new: true, upsert: true, lean: true };
+
+  try {
+    return await Conversation.findOneAndUpdate(
+      { pairKey: pair.pairKey },
+      update,
+      options
+    );
+  } catch (error) {
+    if (error.code !== DUPLICATE_KEY) {
+      throw error;
+    }
+    return Conversation.findOneAndUpdate(
+      { pairKey: pair.pairKey },
+      update,
+      options
+    );
+  }
+};
+
+/**
+ * Clears the reader's unread count and, if the last message was to them,
+ * marks it read; one atomic pipeline update.
+ */
+const markConversationRead = (readerId, partnerId) => {
+  const pair = pairOf(readerId, partnerId);
+  const reader = objectId(readerId);
+  return Conversation.updateOne({ pairKey: pair.pairKey }, [
+    {
+      $set: {
+        [`unread${pair.sideOf(readerId)}`]: 0,
+        "lastMessage.isRead": {
+          $cond: [
+            { $eq: ["$lastMessage.receiver", reader] },
+            true,
+            "$lastMessage.isRead",
+          ],
+        },
+      },
+    },
+  ]);
+};
+
+/**
+ * The user's inbox, most recent conversation first, in the shape the chat
+ * sidebar renders: last message, partner _id and name, and unreadCount.
+ */
+const getInbox = async (userId) => {
+  const conversations = await Conversation.find({
+    $or: [{ userA: userId }, { userB: userId }],
+  })
+    .sort({ lastMessageAt: -1 })
+    .limit(INBOX_LIMIT)
+    .lean();
+
+  return conversations.map((conversation) => {
+    const side = pairOf(conversation.userA, conversation.userB).sideOf(userId);
+    const partner = side === "A" ? "B" : "A";
+    return {
+      chat: conversation.lastMessage.chat,
+      sender: conversation.lastMessage.sender,
+      receiver: conversation.lastMessage.receiver,
+      isRead: conversation.lastMessage.isRead,
+      time: conversation.lastMessageAt,
+      _id: conversation[`user${partner}`],
+      name: conversation[`name${partner}`],
+      unreadCount: conversation[`unread${side}`],
+    };
+  });
+};
+
+export { pairOf, recordMessage, markConversationRead, getInbox };
@@ -0,0 +1,101 @@
+import mongoose from "mongoose";
+import Task from "../models/task.js";
+import { createSnapshotCache } from "./snapshotCache.js";
+
+// Dashboards are the most requested pages; a few seconds of staleness is fine
+// and task writes on this node clear the cache straight away.
+const snapshots = createSnapshotCache({
+  ttlMs: Number(process.env.DASHBOARD_CACHE_TTL_MS) || 5000,
+});
+
+const toObjectIds = (ids) =>
+  ids.map((id) => new mongoose.Types.ObjectId(id.toString()));
+
+const countWhere = (condition) => ({ $sum: { $cond: [condition, 1, 0] } });
+
+/**
+ * Counts total / todo / in progress / completed / overdue tasks matching
+ * `match` in a single aggregation pass. Ids in `match` must already be
+ * ObjectIds (aggregate does not cast them).
+ */
+const countTasks = async (match) => {
+  const now = new Date();
+  const [counts] = await Task.aggregate([
+    { $match: { isActive: true, ...match } },
+    {
+      $group: {
+        _id: null,
+        totalTask: { $sum: 1 },
+        todoTask: countWhere({ $eq: ["$state", "Todo"] }),
+        inProgressTask: countWhere({ $eq: ["$state", "In Progress"] }),
+        completedTask: countWhere({ $eq: ["$state", "Completed"] }),
+        // $gt null skips tasks without a due date, like the old $lt query did
+        overDueTask: countWhere({
+          $and: [
+            { $ne: ["$state", "Completed"] },
+            { $gt: ["$dueDate", null] },
+            { $lt: ["$dueDate", now] },
+          ],
+        }),
+      },
+    },
+  ]);
+
+  return {
+    totalTask: counts?.totalTask || 0,
+    todoTask: counts?.todoTask || 0,
+    inProgressTask: counts?.inProgressTask || 0,
+    completedTask: counts?.completedTask || 0,
+    overDueTask: counts?.overDueTask || 0,
+  };
+};
+
+/**
+ * Returns a Map of projectId -> { totalTasks, completedTasks, progress } for
+ * all given projects with one grouped aggregation. Projects without tasks are
+ * missing from the map; use progressOf() to read it with a 0% default.
+ */
+const getProjectProgress = async (projectIds) => {
+  const progressByProject = new Map();
+  if (projectIds.length === 0) {
+    return progressByProject;
+  }
+
+  const rows = await Task.aggregate([
+    { $match: { isActive: true, projectId: { $in: toObjectIds(projectIds) } } },
+    {
+      $group: {
+        _id: "$projectId",
+        totalTasks: { $sum: 1 },
+        completedTasks: countWhere({ $eq: ["$state", "Completed"] }),
+      },
+    },
+  ]);
+
+  rows.forEach(({ _id, totalTasks, completedTasks }) => {
+    progressByProject.set(_id.toString(), {
+      totalTasks,
+      completedTasks,
+      progress: totalTasks > 0 ? (completedTasks / totalTasks) * 100 : 0,
+    });
+  });
+  return progressByProject;
+};
+
+const progressOf = (progressByProject, projectId) =>
+  progressByProject.get(projectId.toString())?.progress || 0;
+
+const getDashboardSnapshot = (key, loader) => snapshots.get(key, loader);
+
+// Task and project writes can change any dashboard (assignees, managers and
+// admins all see the same task), so drop every snapshot.
+const invalidateDashboards = () => snapshots.clear();
+
+export {
+  toObjectIds,
+  countTasks,
+  getProjectProgress,
+  progressOf,
+  getDashboardSnapshot,
+  invalidateDashboards,
+};
@@ -1,9 +1,15 @@
 import mongoose from "mongoose";
+import { auditQueryShapes } from "./queryAudit.js";
+import { instrumentMongoClient } from "./metrics.js";
 
 const dbConnection = async () => {
     try {
-        await mongoose.connect(process.env.MONGODB_URI);
+        // Command monitoring feeds the per-model timings on /metrics
+        await mongoose.connect(process.env.MONGODB_URI, { monitorCommands: true });
+        instrumentMongoClient(mongoose.connection.getClient());
         console.log("Connected to MongoDB");
+        // Runs in the background once indexes are built; only logs
+        auditQueryShapes();
     } catch (error) {
         console.log("DB Error : " + error);
     }
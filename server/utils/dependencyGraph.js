@@ -0,0 +1,381 @@
+import Task from "../models/task.js";
+import { serverSideEmit } from "./realtime.js";
+
+/**
+ * In-memory task dependency graph per project, loaded with one query on
+ * first use and then kept in step by the task write paths (taskSaved,
+ * taskStateChanged, taskRemoved). Each node keeps its count of open
+ * dependencies, so "can this be completed" is O(1) and "what does
+ * completing this unblock" is O(dependents).
+ *
+ * Only active tasks are nodes; links to deleted tasks are ignored. With a
+ * shared Socket.IO adapter, each write also tells the other server nodes to
+ * drop their copy of the project's graph; GRAPH_TTL_MS bounds staleness if
+ * such a message is lost. The completion gate never relies on the graph
+ * alone: when it finds no blockers, completionBlockers() confirms that
+ * against the stored tasks.
+ */
+
+const TTL_MS = Number(process.env.GRAPH_TTL_MS) || 60000;
+const MAX_GRAPHS = 500;
+const COMPLETED = "Completed";
+
+const INVALIDATE = "graph:invalidate";
+
+const graphs = new Map();
+let channel = null;
+
+const createGraph = (tasks) => {
+  const nodes = new Map();
+  let criticalPath = null;
+
+  const node = (id) => nodes.get(id?.toString());
+
+  const link = (current) => {
+    current.openDependencies = 0;
+    current.dependsOn.forEach((dependencyId) => {
+      const dependency = node(dependencyId);
+      if (dependency) {
+        dependency.dependents.add(current.id);
+        if (!dependency.completed) {
+          current.openDependencies += 1;
+        }
+      }
+    });
+  };
+
+  const unlink = (current) => {
+    current.dependsOn.forEach((dependencyId) =>
+      node(dependencyId)?.dependents.delete(current.id)
+    );
+  };
+
+  // Tells the dependents that one of their dependencies opened or closed
+  const shiftDependents = (current, delta) => {
+    current.dependents.forEach((dependentId) => {
+      node(dependentId).openDependencies += delta;
+    });
+  };
+
+  const setTask = (task) => {
+    const id = task._id.toString();
+    const existing = nodes.get(id);
+    if (existing) {
+      unlink(existing);
+      setState(id, task.state);
+    }
+    const current = existing || {
+      id,
+      completed: task.state === COMPLETED,
+      dependents: new Set(),
+    };
+    current.name = task.name;
+    current.state = task.state;
+    current.dueDate = task.dueDate;
+    current.dependsOn = new Set(
+      (task.dependencies || []).map((dependency) =>
+        (dependency._id || dependency).toString()
+      )
+    );
+    nodes.set(id, current);
+    // Nodes loaded before their dependents only link once everything is in
+    if (!loading) {
+      link(current);
+    }
+    criticalPath = null;
+  };
+
+  const setState = (taskId, state) => {
+    const current = node(taskId);
+    if (!current) {
+      return;
+    }
+    const completed = state === COMPLETED;
+    current.state = state;
+    if (completed !== current.completed) {
+      current.completed = completed;
+      shiftDependents(current, completed ? -1 : 1);
+    }
+    criticalPath = null;
+  };
+
+  const remove = (taskId) => {
+    const current = node(taskId);
+    if (!current) {
+      return;
+    }
+    unlink(current);
+    if (!current.completed) {
+      shiftDependents(current, -1);
+    }
+    current.dependents.forEach((dependentId) =>
+      node(dependentId).dependsOn.delete(current.id)
+    );
+    nodes.delete(current.id);
+    criticalPath = null;
+  };
+
+  let loading = true;
+  tasks.forEach(setTask);
+  loading = false;
+  nodes.forEach(link);
+
+  // Open (not completed) dependencies of a task
+  const blockers = (taskId) =>
+    node(taskId)?.openDependencies
+      ? [...node(taskId).dependsOn].filter(
+          (dependencyId) => node(dependencyId)?.completed === false
+        )
+      : [];
+
+  const dependencies = (taskId) =>
+    [...(node(taskId)?.dependsOn || [])]
+      .map(node)
+      .filter(Boolean)
+      .map(({ id, completed }) => ({ id, completed }));
+
+  // Tasks whose last open dependency is this one
+  const unblockedBy = (taskId) => {
+    const current = node(taskId);
+    if (!current || current.completed) {
+      return [];
+    }
+    return [...current.dependents].filter(
+      (dependentId) => node(dependentId).openDependencies === 1
+    );
+  };
+
+  // Would making taskId depend on dependencyIds close a loop? Walks from the
+  // new dependencies along existing links looking for taskId.
+  const createsCycle = (taskId, dependencyIds) => {
+    const target = taskId?.toString();
+    if (!target) {
+      return false;
+    }
+    const seen = new Set();
+    const stack = dependencyIds.map((id) => id.toString());
+    while (stack.length > 0) {
+      const id = stack.pop();
+      if (id === target) {
+        return true;
+      }
+      if (!seen.has(id)) {
+        seen.add(id);
+        node(id)?.dependsOn.forEach((next) => stack.push(next));
+      }
+    }
+    return false;
+  };
+
+  const missing = (dependencyIds) =>
+    dependencyIds.filter((id) => !node(id));
+
+  /**
+   * Longest chain of open tasks, each one depending on the previous: the
+   * work that bounds how soon the project can finish. Cached until the
+   * graph changes.
+   */
+  const longestOpenChain = () => {
+    if (criticalPath) {
+      return criticalPath;
+    }
+    const memo = new Map();
+    const visiting = new Set();
+    const chainTo = (current) => {
+      if (memo.has(current.id)) {
+        return memo.get(current.id);
+      }
+      visiting.add(current.id);
+      let best = [];
+      current.dependsOn.forEach((dependencyId) => {
+        const dependency = node(dependencyId);
+        // Skips completed work and any loop left over from older data
+        if (dependency && !dependency.completed && !visiting.has(dependency.id)) {
+          const chain = chainTo(dependency);
+          if (chain.length > best.length) {
+            best = chain;
+          }
+        }
+      });
+      visiting.delete(current.id);
+      const chain = [...best, current];
+      memo.set(current.id, chain);
+      return chain;
+    };
+
+    criticalPath = [];
+    nodes.forEach((current) => {
+      if (!current.completed) {
+        const chain = chainTo(current);
+        if (chain.length > criticalPath.length) {
+          criticalPath = chain;
+        }
+      }
+    });
+    return criticalPath;
+  };
+
+  return {
+    setTask,
+    setState,
+    remove,
+    blockers,
+    dependencies,
+    unblockedBy,
+    createsCycle,
+    missing,
+    longestOpenChain,
+  };
+};
+
+const loadGraph = async (projectId) => {
+  const tasks = await Task.find({ projectId, isActive: true })
+    .select("name state dueDate dependencies")
+    .lean();
+  return createGraph(tasks);
+};
+
+/**
+ * The project's graph, loading it on first use or after it expired.
+ * Concurrent callers share one load.
+ */
+const getDependencyGraph = (projectId) => {
+  const key = projectId.toString();
+  const entry = graphs.get(key);
+  if (entry && entry.expiresAt > Date.now()) {
+    graphs.delete(key);
+    graphs.set(key, entry);
+    return entry.graph;
+  }
+
+  const graph = loadGraph(key);
+  graphs.set(key, { graph, expiresAt: Date.now() + TTL_MS });
+  if (graphs.size > MAX_GRAPHS) {
+    graphs.delete(graphs.keys().next().value);
+  }
+  graph.catch(() => {
+    if (graphs.get(key)?.graph === graph) {
+      graphs.delete(key);
+    }
+  });
+  return graph;
+};
+
+// Applies a write to the project's graph if one is in memory, and has the
+// other server nodes reload theirs
+const whenLoaded = (projectId, apply) => {
+  const key = projectId.toString();
+  const entry = graphs.get(key);
+  if (entry) {
+    entry.graph.then(apply).catch(() => {});
+  }
+  if (channel) {
+    serverSideEmit(channel, INVALIDATE, key);
+  }
+};
+
+const taskSaved = (task) =>
+  whenLoaded(task.projectId, (graph) => graph.setTask(task));
+
+const taskStateChanged = (projectId, taskId, state) =>
+  whenLoaded(projectId, (graph) => graph.setState(taskId, state));
+
+const taskRemoved = (projectId, taskId) =>
+  whenLoaded(projectId, (graph) => graph.remove(taskId));
+
+/**
+ * Drops a project's graph when another server node writes to it; call once
+ * with the Socket.IO server.
+ */
+const registerGraphChannel = (io) => {
+  channel = io;
+  io.on(INVALIDATE, (projectId) => {
+    graphs.delete(projectId);
+  });
+};
+
+/**
+ * The stored dependencies of each task as { id, completed }, keyed by task
+ * id; two queries however many tasks. Inactive dependencies are left out,
+ * as in the graph.
+ */
+const storedDependencies = async (taskIds) => {
+  const tasks = await Task.find({ _id: { $in: taskIds } })
+    .select("dependencies")
+    .lean();
+  const dependencyIds = [
+    ...new Set(
+      tasks.flatMap((task) =>
+        (task.dependencies || []).map((id) => id.toString())
+      )
+    ),
+  ];
+  const states = new Map(
+    (dependencyIds.length > 0
+      ? await Task.find({ _id: { $in: dependencyIds }, isActive: true })
+          .select("state")
+          .lean()
+      : []
+    ).map((dependency) => [dependency._id.toString(), dependency.state])
+  );
+  return new Map(
+    tasks.map((task) => [
+      task._id.toString(),
+      (task.dependencies || [])
+        .map((id) => id.toString())
+        .filter((id) => states.has(id))
+        .map((id) => ({ id, completed: states.get(id) === COMPLETED })),
+    ])
+  );
+};
+
+/**
+ * Open dependencies that keep `taskId` from being completed. The graph
+ * answers when it knows of any; an empty answer is checked against the
+ * stored tasks, since the graph can lag writes made on another node.
+ */
+const completionBlockers = async (projectId, taskId) => {
+  const graph = await getDependencyGraph(projectId);
+  const blockers = graph.blockers(taskId);
+  if (blockers.length > 0) {
+    return blockers;
+  }
+  const stored = await storedDependencies([taskId]);
+  return (stored.get(taskId.toString()) || [])
+    .filter((dependency) => !dependency.completed)
+    .map((dependency) => dependency.id);
+};
+
+/**
+ * Why `dependencyIds` cannot be the dependencies of `taskId` (null for a new
+ * task), or null when they can: each must be an active task of the project
+ * and none may lead back to the task.
+ */
+const dependencyProblem = async (projectId, taskId, dependencyIds = []) => {
+  if (dependencyIds.length === 0) {
+    return null;
+  }
+  const graph = await getDependencyGraph(projectId);
+  if (graph.missing(dependencyIds).length > 0) {
+    return "Dependencies must be active tasks of the same project.";
+  }
+  if (
+    taskId &&
+    (dependencyIds.some((id) => id.toString() === taskId.toString()) ||
+      graph.createsCycle(taskId, dependencyIds))
+  ) {
+    return "These dependencies would create a dependency cycle.";
+  }
+  return null;
+};
+
+export {
+  getDependencyGraph,
+  registerGraphChannel,
+  storedDependencies,
+  completionBlockers,
+  taskSaved,
+  taskStateChanged,
+  taskRemoved,
+  dependencyProblem,
+};
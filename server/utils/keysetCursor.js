@@ -0,0 +1,31 @@
+import mongoose from "mongoose";
+
+// Opaque keyset cursor: "<createdAt ms>_<_id>" of the last row of a page
+const encodeCursor = (row) =>
+  Buffer.from(`${row.createdAt.getTime()}_${row._id}`).toString("base64url");
+
+const decodeCursor = (cursor) => {
+  const [time, id] = Buffer.from(String(cursor), "base64url")
+    .toString()
+    .split("_");
+  const createdAt = new Date(Number(time));
+  if (Number.isNaN(createdAt.getTime()) || !mongoose.isValidObjectId(id)) {
+    return null;
+  }
+  return { createdAt, _id: new mongoose.Types.ObjectId(id) };
+};
+
+// Rows strictly older than the decoded cursor in (createdAt, _id) order
+const olderThan = ({ createdAt, _id }) => ({
+  $or: [{ createdAt: { $lt: createdAt } }, { createdAt, _id: { $lt: _id } }],
+});
+
+const isOlderThan = (row, { createdAt, _id }) =>
+  row.createdAt < createdAt ||
+  (row.createdAt.getTime() === createdAt.getTime() &&
+    row._id.toString() < _id.toString());
+
+const newestFirst = (a, b) =>
+  b.createdAt - a.createdAt || (b._id.toString() < a._id.toString() ? -1 : 1);
+
+export { encodeCursor, decodeCursor, olderThan, isOlderThan, newestFirst };
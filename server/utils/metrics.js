@@ -0,0 +1,349 @@
+import mongoose from "mongoose";
+import { monitorEventLoopDelay, performance } from "perf_hooks";
+import v8 from "v8";
+
+/**
+ * In-process metrics in the Prometheus text format, served by GET /metrics.
+ *
+ * - Counters and histograms are created once at module level and updated on
+ *   the hot path with a Map lookup and an array increment; nothing is
+ *   formatted until a scrape.
+ * - Histograms use fixed log-linear buckets (1, 1.5, 2, 3, 5, 7 per decade),
+ *   so relative error stays bounded from sub-millisecond to tens of seconds
+ *   and histogram_quantile() gives a usable p99.
+ * - Gauges that already live elsewhere (queue depths, cache sizes, socket
+ *   counts) are read at scrape time through registerCollector().
+ */
+
+const STEPS = [1, 1.5, 2, 3, 5, 7];
+
+// Bucket upper bounds from `min` to `max` seconds, STEPS per decade
+const logLinearBuckets = (min, max) => {
+  const buckets = [];
+  for (let decade = min; decade <= max; decade *= 10) {
+    STEPS.forEach((step) => {
+      const bound = Number((decade * step).toPrecision(3));
+      if (bound <= max) {
+        buckets.push(bound);
+      }
+    });
+  }
+  return buckets;
+};
+
+const metrics = [];
+const collectors = [];
+
+const escapeLabel = (value) =>
+  String(value)
+    .replace(/\\/g, "\\\\")
+    .replace(/\n/g, "\\n")
+    .replace(/"/g, '\\"');
+
+const formatLabels = (names, values, extra = "") => {
+  const pairs = names.map((name, index) => `${name}="${escapeLabel(values[index])}"`);
+  if (extra) {
+    pairs.push(extra);
+  }
+  return pairs.length > 0 ? `{${pairs.join(",")}}` : "";
+};
+
+const header = (name, help, type) =>
+  `# HELP ${name} ${help}\n# TYPE ${name} ${type}\n`;
+
+// Series are keyed by their label values joined with a separator that label
+// values here never contain
+const seriesKey = (names, labels) =>
+  names.map((name) => labels[name] ?? "").join("\u0001");
+
+const createCounter = (name, help, labelNames = []) => {
+  const series = new Map();
+  const counter = {
+    inc(labels = {}, amount = 1) {
+      const key = seriesKey(labelNames, labels);
+      const current = series.get(key);
+      if (current) {
+        current.value += amount;
+      } else {
+        series.set(key, {
+          values: labelNames.map((label) => labels[label] ?? ""),
+          value: amount,
+        });
+      }
+    },
+    render() {
+      let text = header(name, help, "counter");
+      series.forEach(({ values, value }) => {
+        text += `${name}${formatLabels(labelNames, values)} ${value}\n`;
+      });
+      return text;
+    },
+  };
+  if (labelNames.length === 0) {
+    counter.inc({}, 0);
+  }
+  metrics.push(counter);
+  return counter;
+};
+
+const createHistogram = (name, help, labelNames, buckets) => {
+  const series = new Map();
+
+  // First bucket whose bound is >= value; buckets.length means +Inf
+  const bucketIndex = (value) => {
+    let low = 0;
+    let high = buckets.length;
+    while (low < high) {
+      const middle = (low + high) >> 1;
+      if (buckets[middle] < value) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  };
+
+  const histogram = {
+    observe(labels, seconds) {
+      const key = seriesKey(labelNames, labels);
+      let current = series.get(key);
+      if (!current) {
+        current = {
+          values: labelNames.map((label) => labels[label] ?? ""),
+          counts: new Array(buckets.length + 1).fill(0),
+          sum: 0,
+          count: 0,
+        };
+        series.set(key, current);
+      }
+      current.counts[bucketIndex(seconds)] += 1;
+      current.sum += seconds;
+      current.count += 1;
+    },
+    render() {
+      let text = header(name, help, "histogram");
+      series.forEach(({ values, counts, sum, count }) => {
+        let cumulative = 0;
+        buckets.forEach((bound, index) => {
+          cumulative += counts[index];
+          text += `${name}_bucket${formatLabels(labelNames, values, `le="${bound}"`)} ${cumulative}\n`;
+        });
+        text += `${name}_bucket${formatLabels(labelNames, values, 'le="+Inf"')} ${count}\n`;
+        text += `${name}_sum${formatLabels(labelNames, values)} ${sum}\n`;
+        text += `${name}_count${formatLabels(labelNames, values)} ${count}\n`;
+      });
+      return text;
+    },
+  };
+  metrics.push(histogram);
+  return histogram;
+};
+
+/**
+ * Registers a function that returns gauges read at scrape time:
+ *   [{ name, help, type?: "gauge" | "counter", samples: [{ labels?, value }] }]
+ * or a single value as { name, help, value }.
+ */
+const registerCollector = (collect) => {
+  collectors.push(collect);
+};
+
+const renderCollected = (family) => {
+  const samples = family.samples || [{ value: family.value }];
+  let text = header(family.name, family.help, family.type || "gauge");
+  samples.forEach(({ labels = {}, value }) => {
+    const names = Object.keys(labels);
+    text += `${family.name}${formatLabels(names, names.map((label) => labels[label]))} ${value}\n`;
+  });
+  return text;
+};
+
+const renderMetrics = () => {
+  let text = "";
+  collectors.forEach((collect) => {
+    try {
+      [].concat(collect()).forEach((family) => {
+        text += renderCollected(family);
+      });
+    } catch (error) {
+      console.error("Metrics: collector failed:", error);
+    }
+  });
+  metrics.forEach((metric) => {
+    text += metric.render();
+  });
+  return text;
+};
+
+const httpRequestDuration = createHistogram(
+  "http_request_duration_seconds",
+  "HTTP request latency by route template, method and status class",
+  ["method", "route", "status"],
+  logLinearBuckets(0.001, 30)
+);
+
+const mongoCommandDuration = createHistogram(
+  "mongodb_command_duration_seconds",
+  "MongoDB command latency by model and command",
+  ["model", "command"],
+  logLinearBuckets(0.0001, 30)
+);
+
+const mongoCommandFailures = createCounter(
+  "mongodb_command_failures_total",
+  "MongoDB commands that failed, by model and command",
+  ["model", "command"]
+);
+
+const socketEmits = createCounter(
+  "socketio_events_emitted_total",
+  "Socket.IO events emitted by the server, by event name",
+  ["event"]
+);
+
+const socketConnections = createCounter(
+  "socketio_connections_total",
+  "Socket.IO connections accepted since start"
+);
+
+/**
+ * Times MongoDB commands per model through the driver's command monitoring
+ * events; the client must be connected with `monitorCommands: true`.
+ * Collections that belong to no model are reported under their own name.
+ */
+const instrumentMongoClient = (client) => {
+  const modelByCollection = new Map();
+  const started = new Map();
+
+  const modelOf = (collection) => {
+    if (!collection) {
+      return "none";
+    }
+    if (!modelByCollection.has(collection)) {
+      const model = Object.values(mongoose.models).find(
+        (candidate) => candidate.collection.collectionName === collection
+      );
+      modelByCollection.set(collection, model ? model.modelName : collection);
+    }
+    return modelByCollection.get(collection);
+  };
+
+  const keyOf = (event) => `${event.connectionId}:${event.requestId}`;
+
+  client.on("commandStarted", (event) => {
+    // getMore names its collection separately; the others name it as the
+    // value of the command itself
+    const target = event.command[event.commandName];
+    const collection =
+      typeof target === "string" ? target : event.command.collection;
+    if (started.size > 10000) {
+      // Only reachable if finish events go missing; keep memory bounded
+      started.clear();
+    }
+    started.set(keyOf(event), modelOf(collection));
+  });
+
+  const finish = (failed) => (event) => {
+    const key = keyOf(event);
+    const model = started.get(key) || "none";
+    started.delete(key);
+    const labels = { model, command: event.commandName };
+    mongoCommandDuration.observe(labels, event.duration / 1000);
+    if (failed) {
+      mongoCommandFailures.inc(labels);
+    }
+  };
+  client.on("commandSucceeded", finish(false));
+  client.on("commandFailed", finish(true));
+};
+
+let loopDelay = null;
+let lastUtilization = null;
+
+/**
+ * Starts sampling event-loop delay and registers the process gauges: heap,
+ * RSS, CPU and event-loop lag and utilization. Lag and utilization cover
+ * the time since the previous scrape.
+ */
+const startRuntimeMetrics = () => {
+  if (loopDelay) {
+    return;
+  }
+  loopDelay = monitorEventLoopDelay({ resolution: 10 });
+  loopDelay.enable();
+  lastUtilization = performance.eventLoopUtilization();
+
+  registerCollector(() => {
+    const memory = process.memoryUsage();
+    const cpu = process.cpuUsage();
+    const utilization = performance.eventLoopUtilization(lastUtilization);
+    lastUtilization = performance.eventLoopUtilization();
+
+    // The delay histogram is in nanoseconds and never empty once enabled
+    const lag = (value) => (Number.isFinite(value) ? value / 1e9 : 0);
+    const families = [
+      {
+        name: "nodejs_eventloop_lag_seconds",
+        help: "Event-loop delay since the previous scrape",
+        samples: [
+          { labels: { quantile: "0.5" }, value: lag(loopDelay.percentile(50)) },
+          { labels: { quantile: "0.9" }, value: lag(loopDelay.percentile(90)) },
+          { labels: { quantile: "0.99" }, value: lag(loopDelay.percentile(99)) },
+          { labels: { quantile: "1" }, value: lag(loopDelay.max) },
+        ],
+      },
+      {
+        name: "nodejs_eventloop_utilization_ratio",
+        help: "Share of the time since the previous scrape the event loop was busy",
+        value: utilization.utilization,
+      },
+      {
+        name: "nodejs_heap_used_bytes",
+        help: "V8 heap in use",
+        value: memory.heapUsed,
+      },
+      {
+        name: "nodejs_heap_total_bytes",
+        help: "V8 heap allocated",
+        value: memory.heapTotal,
+      },
+      {
+        name: "nodejs_heap_size_limit_bytes",
+        help: "V8 heap size limit",
+        value: v8.getHeapStatistics().heap_size_limit,
+      },
+      {
+        name: "nodejs_external_memory_bytes",
+        help: "Memory held by buffers and other objects outside the V8 heap",
+        value: memory.external,
+      },
+      {
+        name: "process_resident_memory_bytes",
+        help: "Resident set size",
+        value: memory.rss,
+      },
+      {
+        name: "process_cpu_seconds_total",
+        help: "User and system CPU time spent",
+        type: "counter",
+        value: (cpu.user + cpu.system) / 1e6,
+      },
+    ];
+    loopDelay.reset();
+    return families;
+  });
+};
+
+export {
+  createCounter,
+  createHistogram,
+  registerCollector,
+  renderMetrics,
+  logLinearBuckets,
+  httpRequestDuration,
+  socketEmits,
+  socketConnections,
+  instrumentMongoClient,
+  startRuntimeMetrics,
+};
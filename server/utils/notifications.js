@@ -0,0 +1,141 @@
+import Notification from "../models/notifications.js";
+import NotificationCounter from "../models/notificationCounter.js";
+import { encodeCursor, olderThan } from "./keysetCursor.js";
+import { onceUpdate } from "./sideEffects.js";
+
+const UNREAD = 1;
+const READ = 2;
+const CLEARED = 0;
+const DAY_MS = 24 * 60 * 60 * 1000;
+const READ_RETENTION_MS =
+  (Number(process.env.NOTIFICATION_READ_RETENTION_DAYS) || 30) * DAY_MS;
+
+/**
+ * The writes that notify many users of one event: every notification in one
+ * insert and every recipient's unread counter in one bulk update. Spread into
+ * an enqueueSideEffects() job so they are batched with whatever else is queued
+ * and the job's `after` (e.g. the socket emit that triggers a refetch) runs
+ * once they are stored.
+ *
+ * `notices` is [{ userId, title, message }]. The counter $inc goes out as a
+ * onceUpdate(), so a retried batch never counts a notice twice.
+ */
+const notificationWrites = (notices) => {
+  const perUser = new Map();
+  notices.forEach(({ userId }) => {
+    const key = userId.toString();
+    perUser.set(key, (perUser.get(key) || 0) + 1);
+  });
+
+  return {
+    inserts: [{ model: Notification, docs: notices }],
+    updates: [
+      {
+        model: NotificationCounter,
+        operations: [...perUser].map(([userId, count]) =>
+          onceUpdate({
+            filter: { userId },
+            update: { $inc: { unread: count } },
+            upsert: true,
+          })
+        ),
+      },
+    ],
+  };
+};
+
+/**
+ * The user's unread count from their counter. Users without one (nothing
+ * received since counters were introduced) fall back to counting.
+ */
+const unreadCount = async (userId) => {
+  const counter = await NotificationCounter.findOne({ userId })
+    .select("unread")
+    .lean();
+  if (counter) {
+    return Math.max(counter.unread, 0);
+  }
+  return Notification.countDocuments({ userId, status: UNREAD });
+};
+
+/**
+ * Takes the entries a write just moved out of unread off the counter. A blind
+ * reset to 0 would also drop notices queued in between that are still unread;
+ * those add their own $inc whichever write lands first.
+ */
+const discountUnread = async (userId, count) => {
+  if (count > 0) {
+    await NotificationCounter.updateOne({ userId }, [
+      { $set: { unread: { $max: [{ $subtract: ["$unread", count] }, 0] } } },
+    ]);
+  }
+};
+
+/**
+ * One page of the user's feed, newest first, without the deleted entries.
+ * Returns the rows the navbar renders and the cursor for the next page.
+ */
+const fetchNotificationPage = async ({ userId, before, limit }) => {
+  const query = { userId, status: { $in: [UNREAD, READ] } };
+  if (before) {
+    Object.assign(query, olderThan(before));
+  }
+
+  const rows = await Notification.find(query)
+    .sort({ createdAt: -1, _id: -1 })
+    .limit(limit + 1)
+    .select("title message status createdAt")
+    .lean();
+
+  const hasMore = rows.length > limit;
+  const notifications = hasMore ? rows.slice(0, limit) : rows;
+  return {
+    notifications,
+    nextCursor: hasMore
+      ? encodeCursor(notifications[notifications.length - 1])
+      : null,
+  };
+};
+
+/**
+ * Marks every unread entry read and schedules it to expire after the read
+ * retention window.
+ */
+const markAllRead = async (userId) => {
+  const { modifiedCount } = await Notification.updateMany(
+    { userId, status: UNREAD },
+    {
+      $set: {
+        status: READ,
+        expiresAt: new Date(Date.now() + READ_RETENTION_MS),
+      },
+    }
+  );
+  await discountUnread(userId, modifiedCount);
+};
+
+/**
+ * Clears the feed. Cleared entries are never shown again, so they expire
+ * straight away instead of accumulating.
+ */
+const clearAll = async (userId) => {
+  const cleared = { $set: { status: CLEARED, expiresAt: new Date() } };
+  // Unread ones first, so their count is known apart from the read ones
+  const { modifiedCount } = await Notification.updateMany(
+    { userId, status: UNREAD },
+    cleared
+  );
+  await Promise.all([
+    Notification.updateMany({ userId, status: READ }, cleared),
+    discountUnread(userId, modifiedCount),
+  ]);
+};
+
+export {
+  notificationWrites,
+  unreadCount,
+  fetchNotificationPage,
+  markAllRead,
+  clearAll,
+  READ_RETENTION_MS,
+};
@@ -0,0 +1,196 @@
+import crypto from "crypto";
+import jwt from "jsonwebtoken";
+import Project from "../models/project.js";
+import User from "../models/user.js";
+import { registerCollector } from "./metrics.js";
+
+/**
+ * Authenticated principals, cached per bearer token.
+ *
+ * A principal is what authorization needs about the caller: the verified
+ * token claims, the user's role and the active projects they manage or belong to.
+ * Resolving one costs a jwt.verify plus a user and a project lookup; after
+ * that the same token is a map lookup until the entry expires.
+ *
+ * - Keyed by a SHA-256 of the token, so raw tokens are never kept in memory.
+ * - LRU-bounded by PRINCIPAL_CACHE_SIZE entries.
+ * - Entries live PRINCIPAL_TTL_MS (default 60s) and never past the token's
+ *   own exp. Changes made on this node (a user made manager, added to a
+ *   project) call invalidatePrincipals() so they apply immediately; the TTL
+ *   bounds staleness for changes made elsewhere, e.g. by makeAdmin.js.
+ */
+
+const MAX_PRINCIPALS = Number(process.env.PRINCIPAL_CACHE_SIZE) || 10000;
+const PRINCIPAL_TTL_MS = Number(process.env.PRINCIPAL_TTL_MS) || 60 * 1000;
+
+// tokenHash -> { principal (promise), userId, expiresAt }, least recent first
+const entries = new Map();
+// userId -> Set of tokenHash, for invalidation by user
+const keysByUser = new Map();
+let hits = 0;
+let misses = 0;
+
+const hashToken = (token) =>
+  crypto.createHash("sha256").update(token).digest("base64url");
+
+const forget = (key) => {
+  const entry = entries.get(key);
+  if (!entry) {
+    return;
+  }
+  entries.delete(key);
+  const keys = keysByUser.get(entry.userId);
+  keys?.delete(key);
+  if (keys?.size === 0) {
+    keysByUser.delete(entry.userId);
+  }
+};
+
+const remember = (key, entry) => {
+  entries.set(key, entry);
+  if (!keysByUser.has(entry.userId)) {
+    keysByUser.set(entry.userId, new Set());
+  }
+  keysByUser.get(entry.userId).add(key);
+  while (entries.size > MAX_PRINCIPALS) {
+    forget(entries.keys().next().value);
+  }
+};
+
+const loadPrincipal = async (claims) => {
+  const [user, projects] = await Promise.all([
+    User.findById(claims.id).select("role name").lean(),
+    Project.find({
+      isActive: true,
+      $or: [
+        { projectManager: claims.id },
+        { teamMembers: claims.id },
+        { createdBy: claims.id },
+      ],
+    })
+      .select("projectManager")
+      .lean(),
+  ]);
+  if (!user) {
+    return null;
+  }
+
+  return {
+    ...claims,
+    role: user.role,
+    name: user.name,
+    projects: new Set(projects.map((project) => project._id.toString())),
+    managedProjects: new Set(
+      projects
+        .filter((project) => project.projectManager?.toString() === claims.id)
+        .map((project) => project._id.toString())
+    ),
+  };
+};
+
+/**
+ * Resolves a bearer token to its principal, or null when the token is
+ * invalid or expired or its user no longer exists. Concurrent requests with
+ * the same token share one load.
+ */
+const resolvePrincipal = async (token) => {
+  if (!token) {
+    return null;
+  }
+  const key = hashToken(token);
+  const now = Date.now();
+
+  const cached = entries.get(key);
+  if (cached && cached.expiresAt > now) {
+    // Most recently used goes to the back of the eviction order
+    entries.delete(key);
+    entries.set(key, cached);
+    hits += 1;
+    return cached.principal;
+  }
+  forget(key);
+  misses += 1;
+
+  let claims;
+  try {
+    claims = jwt.verify(token, process.env.JWT_SECRET);
+  } catch (error) {
+    return null;
+  }
+  // Validly signed but not one of our login tokens
+  if (!claims?.id) {
+    return null;
+  }
+
+  const principal = loadPrincipal(claims);
+  const entry = {
+    principal,
+    userId: claims.id.toString(),
+    expiresAt: Math.min(
+      now + PRINCIPAL_TTL_MS,
+      claims.exp ? claims.exp * 1000 : Infinity
+    ),
+  };
+  remember(key, entry);
+
+  try {
+    const resolved = await principal;
+    if (!resolved && entries.get(key) === entry) {
+      forget(key);
+    }
+    return resolved;
+  } catch (error) {
+    if (entries.get(key) === entry) {
+      forget(key);
+    }
+    throw error;
+  }
+};
+
+/**
+ * Drops every cached principal of these users; call after changing their
+ * role or project memberships.
+ */
+const invalidatePrincipals = (userIds) => {
+  userIds.forEach((userId) => {
+    [...(keysByUser.get(userId.toString()) || [])].forEach(forget);
+  });
+};
+
+const canViewProject = (principal, projectId) =>
+  principal.role === "admin" || principal.projects.has(projectId.toString());
+
+const managesProject = (principal, projectId) =>
+  principal.managedProjects.has(projectId.toString());
+
+const principalCacheStats = () => ({
+  principals: entries.size,
+  users: keysByUser.size,
+  hits,
+  misses,
+});
+
+registerCollector(() => [
+  {
+    name: "principal_cache_entries",
+    help: "Cached principals (one per token)",
+    value: entries.size,
+  },
+  {
+    name: "principal_cache_lookups_total",
+    help: "Principal lookups by whether the cache answered them",
+    type: "counter",
+    samples: [
+      { labels: { result: "hit" }, value: hits },
+      { labels: { result: "miss" }, value: misses },
+    ],
+  },
+]);
+
+export {
+  resolvePrincipal,
+  invalidatePrincipals,
+  canViewProject,
+  managesProject,
+  principalCacheStats,
+};
@@ -0,0 +1,191 @@
+import mongoose from "mongoose";
+import ActivityLog from "../models/activityLog.js";
+import Chat from "../models/chat.js";
+import Conversation from "../models/conversation.js";
+import Column from "../models/column.js";
+import Comment from "../models/comment.js";
+import Notification from "../models/notifications.js";
+import NotificationCounter from "../models/notificationCounter.js";
+import Project from "../models/project.js";
+import ProjectSnapshot from "../models/projectSnapshot.js";
+import Task from "../models/task.js";
+
+const id = () => new mongoose.Types.ObjectId();
+
+// The filters and sorts our hot paths send, with placeholder ids. Keep this
+// in sync when a controller gains a new frequent query.
+const HOT_QUERY_SHAPES = [
+  {
+    name: "project task counts by state",
+    model: Task,
+    filter: { projectId: id(), isActive: true, state: "Completed" },
+  },
+  {
+    name: "board version",
+    model: Task,
+    filter: { projectId: id() },
+    sort: { updatedAt: -1 },
+  },
+  {
+    name: "column tasks in order",
+    model: Task,
+    filter: { columnId: id(), isActive: true },
+    sort: { order: 1 },
+  },
+  {
+    name: "tasks assigned to a user",
+    model: Task,
+    filter: { assignees: { $in: [id()] }, isActive: true },
+  },
+  {
+    name: "task typeahead",
+    model: Task,
+    filter: {
+      projectId: id(),
+      isActive: true,
+      searchPrefixes: { $all: ["de"] },
+    },
+  },
+  {
+    name: "attachment by stored name",
+    model: Task,
+    filter: { "attachments.fileName": "0".repeat(64) + ".png" },
+  },
+  {
+    name: "task comments",
+    model: Comment,
+    filter: { taskId: id() },
+    sort: { createdAt: -1, _id: -1 },
+  },
+  {
+    name: "comments mentioning a user",
+    model: Comment,
+    filter: { mentionedUsers: id() },
+    sort: { createdAt: -1, _id: -1 },
+  },
+  {
+    name: "project burndown series",
+    model: ProjectSnapshot,
+    filter: { projectId: id(), day: { $gte: new Date(0) } },
+    sort: { day: 1 },
+  },
+  {
+    name: "project columns",
+    model: Column,
+    filter: { projectId: id(), isActive: true },
+    sort: { order: 1 },
+  },
+  {
+    name: "projects of a manager",
+    model: Project,
+    filter: { projectManager: id(), isActive: true },
+  },
+  {
+    name: "projects of a member",
+    model: Project,
+    filter: { teamMembers: { $in: [id()] }, isActive: true },
+  },
+  {
+    name: "conversation history",
+    model: Chat,
+    filter: { sender: id(), receiver: id() },
+    sort: { createdAt: -1, _id: -1 },
+  },
+  {
+    name: "unread chats from a sender",
+    model: Chat,
+    filter: { receiver: id(), sender: id(), isRead: false },
+  },
+  {
+    name: "chat inbox",
+    model: Conversation,
+    filter: { $or: [{ userA: id() }, { userB: id() }] },
+    sort: { lastMessageAt: -1 },
+  },
+  {
+    name: "notification feed",
+    model: Notification,
+    filter: { userId: id(), status: { $in: [1, 2] } },
+    sort: { createdAt: -1, _id: -1 },
+  },
+  {
+    name: "unread notification count",
+    model: NotificationCounter,
+    filter: { userId: id() },
+  },
+  {
+    name: "project activity feed",
+    model: ActivityLog,
+    filter: { projectId: id() },
+    sort: { createdAt: -1, _id: -1 },
+  },
+  {
+    name: "project activity feed by entity",
+    model: ActivityLog,
+    filter: { projectId: id(), entity: "Task" },
+    sort: { createdAt: -1, _id: -1 },
+  },
+];
+
+// Explain output nests stages differently per server version and topology,
+// so look for the stage anywhere in the winning plan.
+const hasStage = (plan, stage) => {
+  if (!plan || typeof plan !== "object") {
+    return false;
+  }
+  if (plan.stage === stage) {
+    return true;
+  }
+  return Object.values(plan).some((value) =>
+    Array.isArray(value)
+      ? value.some((child) => hasStage(child, stage))
+      : hasStage(value, stage)
+  );
+};
+
+/**
+ * Runs explain on every hot query shape once the indexes are built and warns
+ * about any shape whose winning plan is a collection scan or, for sorted
+ * shapes, a blocking in-memory SORT. Never throws; set QUERY_AUDIT=false to
+ * skip it.
+ */
+const auditQueryShapes = async () => {
+  if (process.env.QUERY_AUDIT === "false") {
+    return;
+  }
+  try {
+    const models = [...new Set(HOT_QUERY_SHAPES.map((shape) => shape.model))];
+    await Promise.all(models.map((model) => model.init()));
+
+    const scans = [];
+    for (const shape of HOT_QUERY_SHAPES) {
+      const query = shape.model.find(shape.filter).limit(20);
+      if (shape.sort) {
+        query.sort(shape.sort);
+      }
+      const explain = await query.explain("queryPlanner");
+      const planner = (Array.isArray(explain) ? explain[0] : explain)
+        ?.queryPlanner;
+      if (hasStage(planner?.winningPlan, "COLLSCAN")) {
+        scans.push(`${shape.model.modelName}: ${shape.name} (COLLSCAN)`);
+      } else if (shape.sort && hasStage(planner?.winningPlan, "SORT")) {
+        scans.push(`${shape.model.modelName}: ${shape.name} (blocking SORT)`);
+      }
+    }
+
+    if (scans.length > 0) {
+      console.warn(
+        `Query audit: ${scans.length} hot query shape(s) miss their index:\n  ` +
+          scans.join("\n  ")
+      );
+    } else {
+      console.log(
+        `Query audit: all ${HOT_QUERY_SHAPES.length} hot query shapes use their indexes`
+      );
+    }
+  } catch (error) {
+    console.warn("Query audit skipped: " + error.message);
+  }
+};
+
+export { HOT_QUERY_SHAPES, auditQueryShapes };
@@ -0,0 +1,116 @@
+/**
+ * Lexicographic ranks for ordering board items (tasks within a column,
+ * columns within a project). A rank is a base-62 fraction written without
+ * the leading "0.", so plain string comparison (JS or MongoDB) gives the
+ * order, and there is always a rank between any two others: placing an item
+ * never renumbers its neighbours.
+ *
+ * Ranks never end in the lowest digit, which keeps a rank available below
+ * every other one. They grow longer as one gap is split again and again;
+ * past MAX_RANK_LENGTH the scope is respread with spreadRanks().
+ */
+
+const DIGITS =
+  "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+const BASE = DIGITS.length;
+const ZERO = DIGITS[0];
+const MAX_RANK_LENGTH = 12;
+
+const isRank = (value) =>
+  typeof value === "string" &&
+  value.length > 0 &&
+  !value.endsWith(ZERO) &&
+  [...value].every((char) => DIGITS.includes(char));
+
+// A rank strictly between a and b ("" is the bottom, null is the top)
+const midpoint = (a, b) => {
+  if (b !== null) {
+    let shared = 0;
+    while ((a[shared] || ZERO) === b[shared]) {
+      shared++;
+    }
+    if (shared > 0) {
+      return b.slice(0, shared) + midpoint(a.slice(shared), b.slice(shared));
+    }
+  }
+  const digitA = a ? DIGITS.indexOf(a[0]) : 0;
+  const digitB = b !== null ? DIGITS.indexOf(b[0]) : BASE;
+  if (digitB - digitA > 1) {
+    return DIGITS[Math.round((digitA + digitB) / 2)];
+  }
+  if (b !== null && b.length > 1) {
+    return b.slice(0, 1);
+  }
+  return DIGITS[digitA] + midpoint(a.slice(1), null);
+};
+
+// Steps the last digit with carry / borrow, so runs of appends (or
+// prepends) keep the length of the rank they start from
+const step = (rank, delta) => {
+  const digits = [...rank].map((char) => DIGITS.indexOf(char));
+  let i = digits.length - 1;
+  digits[i] += delta;
+  while (i > 0 && (digits[i] < 0 || digits[i] >= BASE)) {
+    digits[i] -= delta * BASE;
+    digits[--i] += delta;
+  }
+  if (digits[0] < 0 || digits[0] >= BASE) {
+    return null;
+  }
+  const stepped = digits.map((digit) => DIGITS[digit]).join("");
+  return stepped.replace(/0+$/, "") || null;
+};
+
+const rankAfter = (a) => step(a, 1) ?? midpoint(a, null);
+
+const rankBefore = (b) => step(b, -1) ?? midpoint("", b);
+
+/**
+ * A rank between `before` and `after`; either may be null for the ends of
+ * the list. Throws when the two are not valid ranks in ascending order.
+ */
+const rankBetween = (before, after) => {
+  if (before === null && after === null) {
+    return DIGITS[BASE / 2];
+  }
+  if ((before !== null && !isRank(before)) || (after !== null && !isRank(after))) {
+    throw new Error("Not a rank");
+  }
+  if (before !== null && after !== null && before >= after) {
+    throw new Error("Ranks out of order");
+  }
+  if (after === null) {
+    return rankAfter(before);
+  }
+  if (before === null) {
+    return rankBefore(after);
+  }
+  return midpoint(before, after);
+};
+
+/**
+ * `count` ascending ranks of equal length, evenly spaced over the middle of
+ * the range: about a full digit of room is left between neighbours, and a
+ * quarter of the range at each end for appends and prepends.
+ */
+const spreadRanks = (count) => {
+  let width = 1;
+  while (BASE ** width < 2 * (count + 1) * BASE) {
+    width++;
+  }
+  const space = BASE ** width;
+  const gap = Math.floor(space / 2 / (count + 1));
+  return Array.from({ length: count }, (_, index) => {
+    let value = space / 4 + (index + 1) * gap;
+    let rank = "";
+    for (let i = 0; i < width; i++) {
+      rank = DIGITS[Math.floor(value) % BASE] + rank;
+      value = Math.floor(value / BASE);
+    }
+    return rank.replace(/0+$/, "");
+  });
+};
+
+const needsRebalance = (rank) => !isRank(rank) || rank.length > MAX_RANK_LENGTH;
+
+export { rankBetween, spreadRanks, isRank, needsRebalance, MAX_RANK_LENGTH };
@@ -0,0 +1,133 @@
+import { Server } from "socket.io";
+import { resolvePrincipal } from "./principals.js";
+import { registerCollector, socketConnections, socketEmits } from "./metrics.js";
+
+const userRoom = (userId) => `user:${userId}`;
+const projectRoom = (projectId) => `project:${projectId}`;
+
+// True once rooms are shared with other server nodes through Redis
+let clustered = false;
+
+/**
+ * Picks the Socket.IO adapter rooms are shared through.
+ *
+ * SOCKET_ADAPTER=redis (with REDIS_URL) plugs in @socket.io/redis-adapter so
+ * emits reach sockets on every server node; install it and `redis` on the
+ * nodes that use it. Anything else keeps Socket.IO's in-process adapter,
+ * which is what a single node and the tests run on. Both implement the same
+ * adapter interface, so nothing else changes.
+ */
+const attachAdapter = async (io) => {
+  if (process.env.SOCKET_ADAPTER !== "redis") {
+    return "in-process";
+  }
+  try {
+    const [{ createAdapter }, { createClient }] = await Promise.all([
+      import("@socket.io/redis-adapter"),
+      import("redis"),
+    ]);
+    const pubClient = createClient({ url: process.env.REDIS_URL });
+    const subClient = pubClient.duplicate();
+    await Promise.all([pubClient.connect(), subClient.connect()]);
+    io.adapter(createAdapter(pubClient, subClient));
+    return "redis";
+  } catch (error) {
+    console.warn(
+      `Socket adapter: Redis unavailable (${error.message}), using in-process`
+    );
+    return "in-process";
+  }
+};
+
+// Same token the REST API takes, sent as io(url, { auth: { token } })
+const authenticate = async (socket, next) => {
+  try {
+    const principal = await resolvePrincipal(socket.handshake.auth?.token);
+    if (!principal) {
+      return next(new Error("Unauthorised user!"));
+    }
+    socket.data.userId = principal.id;
+    socket.data.projects = [...principal.projects];
+    next();
+  } catch (error) {
+    next(new Error("Unauthorised user!"));
+  }
+};
+
+// Memberships come from the principal resolved at handshake
+const joinRooms = (socket) => {
+  const { userId, projects } = socket.data;
+  socket.join(userRoom(userId));
+  socket.join(projects.map(projectRoom));
+};
+
+/**
+ * Creates the Socket.IO server. Only authenticated sockets connect; each one
+ * joins its user room and the rooms of the projects it belongs to, so events
+ * go to the people they concern instead of to every connection.
+ */
+const createRealtime = (httpServer, options) => {
+  const io = new Server(httpServer, options);
+
+  attachAdapter(io).then((adapter) => {
+    clustered = adapter === "redis";
+    console.log(`Socket adapter: ${adapter}`);
+  });
+
+  io.use(authenticate);
+
+  registerCollector(() => ({
+    name: "socketio_connected_sockets",
+    help: "Socket.IO clients connected to this node",
+    value: io.engine.clientsCount,
+  }));
+
+  io.on("connection", (socket) => {
+    socketConnections.inc();
+    joinRooms(socket);
+  });
+
+  return io;
+};
+
+const emitToUsers = (io, userIds, event, payload) => {
+  const rooms = [...new Set(userIds.map((id) => userRoom(id.toString())))];
+  if (rooms.length > 0) {
+    io.to(rooms).emit(event, payload);
+    socketEmits.inc({ event });
+  }
+};
+
+const emitToProject = (io, projectId, event, payload) => {
+  io.to(projectRoom(projectId.toString())).emit(event, payload);
+  socketEmits.inc({ event });
+};
+
+// Tells the other server nodes about a local write (e.g. to drop a cache);
+// nothing to tell on a single node, whose adapter would only warn
+const serverSideEmit = (io, event, ...args) => {
+  if (clustered) {
+    io.serverSideEmit(event, ...args);
+  }
+};
+
+const isClustered = () => clustered;
+
+// Adds the users' open sockets (on any node) to a project room
+const joinProjectRoom = (io, userIds, projectId) => {
+  const rooms = [...new Set(userIds.map((id) => userRoom(id.toString())))];
+  if (rooms.length > 0) {
+    io.in(rooms).socketsJoin(projectRoom(projectId.toString()));
+  }
+};
+
+export {
+  createRealtime,
+  emitToUsers,
+  emitToProject,
+  joinProjectRoom,
+  serverSideEmit,
+  isClustered,
+  userRoom,
+  projectRoom,
+};
@@ -0,0 +1,46 @@
+/**
+ * Word and prefix helpers behind task search. Kept free of model imports so
+ * the Task schema can use them to maintain its searchPrefixes field.
+ */
+
+// Longest prefix stored per word; longer search words are cut to this length
+const MAX_PREFIX = 15;
+// Caps how many description words feed the prefix index of one task
+const MAX_DESCRIPTION_WORDS = 60;
+
+/**
+ * Lower-cased, de-duplicated words of a text (letters and digits only).
+ */
+const tokenize = (text = "") => [
+  ...new Set(text.toLowerCase().match(/[\p{L}\p{N}]+/gu) || []),
+];
+
+/**
+ * Edge n-grams ("d", "de", "des", ...) of the task's words, stored on the
+ * task so typeahead is an indexed equality match instead of a RegExp scan.
+ */
+const buildSearchPrefixes = (name, description) => {
+  const words = [
+    ...tokenize(name),
+    ...tokenize(description).slice(0, MAX_DESCRIPTION_WORDS),
+  ];
+  const prefixes = new Set();
+  words.forEach((word) => {
+    const limit = Math.min(word.length, MAX_PREFIX);
+    for (let i = 1; i <= limit; i++) {
+      prefixes.add(word.slice(0, i));
+    }
+  });
+  return [...prefixes];
+};
+
+/**
+ * Query fragment matching tasks that contain a word starting with every
+ * search word, or null when the search has no words.
+ */
+const prefixQuery = (search) => {
+  const words = tokenize(search).map((word) => word.slice(0, MAX_PREFIX));
+  return words.length > 0 ? { searchPrefixes: { $all: words } } : null;
+};
+
+export { MAX_PREFIX, tokenize, buildSearchPrefixes, prefixQuery };
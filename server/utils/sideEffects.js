@@ -0,0 +1,280 @@
+import mongoose from "mongoose";
+import ActivityLog from "../models/activityLog.js";
+import { registerCollector } from "./metrics.js";
+
+/**
+ * In-process write-behind queue for the side effects of a write: activity
+ * logs, notifications, user back-references and the socket events that
+ * announce them. Requests enqueue and return after their primary write;
+ * the queue flushes in batches with one insertMany / bulkWrite per model.
+ *
+ * - Bounded: past SIDE_EFFECT_QUEUE_LIMIT pending jobs, enqueue() waits for
+ *   room, so a slow database slows writers down instead of growing memory.
+ * - Retried: a failed batch is retried with backoff. Inserted docs get their
+ *   _id up front and duplicate-key errors count as done, so a retry never
+ *   inserts twice; bulk updates must be idempotent ($set / $addToSet), or
+ *   be built with onceUpdate() (e.g. an $inc).
+ * - Failed per job: a job counts as failed (and skips `after`) only when
+ *   one of its own writes gave up or one of its docs fails validation;
+ *   the other jobs in the batch go on as normal.
+ * - Ordered per job: a job's `after` callback (e.g. a socket emit) runs once
+ *   its writes are stored, so clients that react by refetching see them.
+ * - Drained on shutdown via drainSideEffects().
+ */
+
+const FLUSH_INTERVAL_MS = Number(process.env.SIDE_EFFECT_FLUSH_MS) || 50;
+const BATCH_SIZE = Number(process.env.SIDE_EFFECT_BATCH_SIZE) || 500;
+const QUEUE_LIMIT = Number(process.env.SIDE_EFFECT_QUEUE_LIMIT) || 10000;
+const MAX_ATTEMPTS = 5;
+// Write ids a document remembers for onceUpdate(); far more than can land on
+// one document between a batch's first attempt and its last retry
+const APPLIED_WRITES_KEPT = 1000;
+const DUPLICATE_KEY = 11000;
+
+const pending = [];
+const waitingForRoom = [];
+let timer = null;
+let flushing = null;
+let failedJobs = 0;
+
+const sleep = (ms) => new Promise((resolve) => setTimeout(resolve, ms));
+
+const onlyDuplicates = (error) => {
+  const writeErrors = error.writeErrors || error.result?.getWriteErrors?.();
+  return (
+    error.code === DUPLICATE_KEY ||
+    (Array.isArray(writeErrors) &&
+      writeErrors.length > 0 &&
+      writeErrors.every((writeError) => writeError.code === DUPLICATE_KEY))
+  );
+};
+
+const withRetry = async (label, write) => {
+  for (let attempt = 1; ; attempt++) {
+    try {
+      return await write();
+    } catch (error) {
+      if (onlyDuplicates(error)) {
+        return undefined;
+      }
+      if (attempt >= MAX_ATTEMPTS) {
+        throw error;
+      }
+      console.warn(
+        `Side effects: ${label} failed (attempt ${attempt}), retrying`
+      );
+      await sleep(100 * 2 ** attempt);
+    }
+  }
+};
+
+const releaseWaiters = () => {
+  while (waitingForRoom.length > 0 && pending.length < QUEUE_LIMIT) {
+    waitingForRoom.shift()();
+  }
+};
+
+// A doc that fails validation would be skipped by an unordered insertMany
+// without an error; find them first so only their own job counts as failed
+const invalidDoc = (model, docs) =>
+  docs.some((doc) => new model(doc).validateSync());
+
+const runAfter = (job) => {
+  try {
+    job.after?.();
+  } catch (error) {
+    console.error("Side effects: after-write callback failed:", error);
+  }
+};
+
+const writeBatch = async (jobs) => {
+  const invalid = new Set(
+    jobs.filter((job) =>
+      job.inserts.some(({ model, docs }) => invalidDoc(model, docs))
+    )
+  );
+  if (invalid.size > 0) {
+    failedJobs += invalid.size;
+    console.error(
+      `Side effects: dropped ${invalid.size} job(s) with invalid documents`
+    );
+  }
+  const valid = jobs.filter((job) => !invalid.has(job));
+
+  const inserts = new Map();
+  const updates = new Map();
+  valid.forEach((job) => {
+    job.inserts.forEach(({ model, docs }) => {
+      inserts.set(model, [...(inserts.get(model) || []), ...docs]);
+    });
+    job.updates.forEach(({ model, operations }) => {
+      updates.set(model, [...(updates.get(model) || []), ...operations]);
+    });
+  });
+
+  const writes = [
+    ...[...inserts].map(([model, docs]) => ({
+      key: `insert:${model.modelName}`,
+      write: withRetry(`${model.modelName}.insertMany`, () =>
+        model.insertMany(docs, { ordered: false, throwOnValidationError: true })
+      ),
+    })),
+    ...[...updates].map(([model, operations]) => ({
+      key: `update:${model.modelName}`,
+      write: withRetry(`${model.modelName}.bulkWrite`, () =>
+        model.bulkWrite(operations, { ordered: false })
+      ),
+    })),
+  ];
+  const results = await Promise.allSettled(writes.map(({ write }) => write));
+  const failedWrites = new Map();
+  results.forEach((result, index) => {
+    if (result.status === "rejected") {
+      failedWrites.set(writes[index].key, result.reason);
+    }
+  });
+
+  // A job fails only with a write of its own; the rest still get `after`
+  const touchesFailedWrite = (job) =>
+    job.inserts.some(({ model }) => failedWrites.has(`insert:${model.modelName}`)) ||
+    job.updates.some(({ model }) => failedWrites.has(`update:${model.modelName}`));
+  const failed = new Set(valid.filter(touchesFailedWrite));
+  if (failed.size > 0) {
+    failedJobs += failed.size;
+    console.error(
+      `Side effects: dropped ${failed.size} job(s) after ${[...failedWrites.keys()].join(", ")} failed:`,
+      [...failedWrites.values()][0]
+    );
+  }
+
+  valid.filter((job) => !failed.has(job)).forEach(runAfter);
+};
+
+const flush = () => {
+  if (!flushing) {
+    flushing = (async () => {
+      try {
+        while (pending.length > 0) {
+          const jobs = pending.splice(0, BATCH_SIZE);
+          releaseWaiters();
+          await writeBatch(jobs);
+        }
+      } finally {
+        flushing = null;
+      }
+    })();
+  }
+  return flushing;
+};
+
+const scheduleFlush = () => {
+  if (pending.length >= BATCH_SIZE) {
+    clearTimeout(timer);
+    timer = null;
+    flush();
+  } else if (!timer) {
+    timer = setTimeout(() => {
+      timer = null;
+      flush();
+    }, FLUSH_INTERVAL_MS);
+  }
+};
+
+/**
+ * Queues one job:
+ *   inserts: [{ model, docs }]        -> model.insertMany
+ *   updates: [{ model, operations }]  -> model.bulkWrite (idempotent ops)
+ *   after:   () => void               -> runs once the writes are stored
+ * Resolves as soon as the job is queued; waits first when the queue is full.
+ */
+const enqueueSideEffects = async ({ inserts = [], updates = [], after }) => {
+  while (pending.length >= QUEUE_LIMIT) {
+    await new Promise((resolve) => waitingForRoom.push(resolve));
+  }
+
+  pending.push({
+    inserts: inserts
+      .filter(({ docs }) => docs.length > 0)
+      .map(({ model, docs }) => ({
+        model,
+        docs: docs.map((doc) => ({
+          _id: new mongoose.Types.ObjectId(),
+          ...doc,
+        })),
+      })),
+    updates: updates.filter(({ operations }) => operations.length > 0),
+    after,
+  });
+  scheduleFlush();
+};
+
+/**
+ * A bulkWrite updateOne for an update that is not idempotent by itself, such
+ * as an $inc: it carries a fresh write id, is skipped by a document that
+ * already recorded that id, and records it, so a retried batch applies it
+ * once. On an upsert, the retry's skipped match turns into a duplicate-key
+ * error, which the queue counts as done. The model needs an
+ * `appliedWrites: [ObjectId]` field (select: false).
+ */
+const onceUpdate = ({ filter, update, upsert = false }) => {
+  const writeId = new mongoose.Types.ObjectId();
+  return {
+    updateOne: {
+      filter: { ...filter, appliedWrites: { $ne: writeId } },
+      update: {
+        ...update,
+        $push: {
+          appliedWrites: { $each: [writeId], $slice: -APPLIED_WRITES_KEPT },
+        },
+      },
+      upsert,
+    },
+  };
+};
+
+const recordActivity = (entry) =>
+  enqueueSideEffects({ inserts: [{ model: ActivityLog, docs: [entry] }] });
+
+/**
+ * Flushes everything queued so far; call before the process exits.
+ */
+const drainSideEffects = async () => {
+  clearTimeout(timer);
+  timer = null;
+  while (pending.length > 0 || flushing) {
+    await flush();
+  }
+};
+
+const sideEffectStats = () => ({
+  queued: pending.length,
+  waitingWriters: waitingForRoom.length,
+  failedJobs,
+});
+
+registerCollector(() => [
+  {
+    name: "side_effect_queue_jobs",
+    help: "Side-effect jobs waiting to be written",
+    value: pending.length,
+  },
+  {
+    name: "side_effect_queue_waiting_writers",
+    help: "Requests waiting for room in the full side-effect queue",
+    value: waitingForRoom.length,
+  },
+  {
+    name: "side_effect_failed_jobs_total",
+    help: "Side-effect jobs dropped after their retries ran out",
+    type: "counter",
+    value: failedJobs,
+  },
+]);
+
+export {
+  enqueueSideEffects,
+  onceUpdate,
+  recordActivity,
+  drainSideEffects,
+  sideEffectStats,
+};
@@ -0,0 +1,46 @@
+/**
+ * Short-lived in-process snapshot cache.
+ *
+ * get(key, loader) returns the cached value while it is fresh, otherwise runs
+ * loader() once (concurrent callers share the same pending promise) and keeps
+ * the result for ttlMs. Writers call invalidate()/clear() so readers never see
+ * a snapshot older than the last write on this node; the TTL bounds staleness
+ * for writes made on other nodes.
+ */
+export const createSnapshotCache = ({ ttlMs = 5000, maxEntries = 10000 } = {}) => {
+  const entries = new Map();
+
+  const get = async (key, loader) => {
+    const now = Date.now();
+    const entry = entries.get(key);
+    if (entry && entry.expiresAt > now) {
+      return entry.value;
+    }
+
+    const value = loader();
+    // Cache the promise itself so a burst of requests triggers one load
+    entries.set(key, { value, expiresAt: now + ttlMs });
+    if (entries.size > maxEntries) {
+      entries.delete(entries.keys().next().value);
+    }
+
+    try {
+      return await value;
+    } catch (error) {
+      if (entries.get(key)?.value === value) {
+        entries.delete(key);
+      }
+      throw error;
+    }
+  };
+
+  const invalidate = (key) => {
+    entries.delete(key);
+  };
+
+  const clear = () => {
+    entries.clear();
+  };
+
+  return { get, invalidate, clear };
+};
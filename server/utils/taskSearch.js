@@ -0,0 +1,153 @@
+import mongoose from "mongoose";
+import Comment from "../models/comment.js";
+import Task from "../models/task.js";
+import { prefixQuery, tokenize } from "./searchTerms.js";
+
+const MAX_RESULTS = 50;
+
+const scopeQuery = ({ projectId, assigneeId }) => {
+  const query = { projectId, isActive: true };
+  if (assigneeId) {
+    query.assignees = { $in: [assigneeId] };
+  }
+  return query;
+};
+
+// Name hits first, then description hits, newest first on ties
+const rankByPrefix = (tasks, search) => {
+  const words = tokenize(search);
+  const score = (task) => {
+    const nameWords = tokenize(task.name);
+    const descriptionWords = tokenize(task.description);
+    return words.reduce((total, word) => {
+      if (nameWords.some((nameWord) => nameWord.startsWith(word))) {
+        return total + 2;
+      }
+      return descriptionWords.some((d) => d.startsWith(word))
+        ? total + 1
+        : total;
+    }, 0);
+  };
+  return tasks
+    .map((task) => ({ ...task, score: score(task) }))
+    .sort((a, b) => b.score - a.score || b.updatedAt - a.updatedAt);
+};
+
+/**
+ * Text search over the project's comments, best score per task. Comment
+ * scores have weight 1, against 10 for name and 3 for description, as when
+ * comments were indexed on the task.
+ */
+const commentTextScores = async (projectId, q, limit) => {
+  const rows = await Comment.aggregate([
+    {
+      $match: {
+        projectId: new mongoose.Types.ObjectId(projectId.toString()),
+        $text: { $search: q },
+      },
+    },
+    { $group: { _id: "$taskId", score: { $max: { $meta: "textScore" } } } },
+    { $sort: { score: -1 } },
+    { $limit: limit },
+  ]);
+  return new Map(rows.map((row) => [row._id.toString(), row.score]));
+};
+
+/**
+ * Text matches on the task itself plus tasks with matching comments, each
+ * task scored by the sum of both.
+ */
+const textSearch = async ({ scope, q, fields, size }) => {
+  const [tasks, commentScores] = await Promise.all([
+    Task.find(
+      { ...scope, $text: { $search: q } },
+      { score: { $meta: "textScore" } }
+    )
+      .select(fields)
+      .sort({ score: { $meta: "textScore" } })
+      .limit(size)
+      .lean(),
+    commentTextScores(scope.projectId, q, size),
+  ]);
+
+  const found = new Set(tasks.map((task) => task._id.toString()));
+  const commentOnly = [...commentScores.keys()].filter((id) => !found.has(id));
+  const commentTasks = commentOnly.length
+    ? await Task.find({ ...scope, _id: { $in: commentOnly } })
+        .select(fields)
+        .lean()
+    : [];
+
+  return [...tasks, ...commentTasks]
+    .map((task) => ({
+      ...task,
+      score: (task.score || 0) + (commentScores.get(task._id.toString()) || 0),
+    }))
+    .sort((a, b) => b.score - a.score)
+    .slice(0, size);
+};
+
+/**
+ * Ranked task search within one project, optionally limited to an assignee.
+ *
+ * mode "prefix" (typeahead) matches word prefixes through the searchPrefixes
+ * index. mode "text" uses the text indexes over name and description and over
+ * comments, and ranks by text score. mode "auto" tries text first and falls
+ * back to prefix when the last word is still being typed and nothing matched.
+ */
+const searchTasks = async ({
+  projectId,
+  assigneeId,
+  q,
+  mode = "auto",
+  limit = 20,
+}) => {
+  const size = Math.min(Math.max(Number(limit) || 20, 1), MAX_RESULTS);
+  const scope = scopeQuery({ projectId, assigneeId });
+  const fields = "name description state priority columnId dueDate updatedAt";
+
+  if (mode !== "prefix") {
+    const tasks = await textSearch({ scope, q, fields, size });
+    if (tasks.length > 0 || mode === "text") {
+      return tasks;
+    }
+  }
+
+  const prefix = prefixQuery(q);
+  if (!prefix) {
+    return [];
+  }
+  // Rank a bounded candidate set in memory; the index does the filtering
+  const candidates = await Task.find({ ...scope, ...prefix })
+    .select(fields)
+    .sort({ updatedAt: -1 })
+    .limit(size * 4)
+    .lean();
+  return rankByPrefix(candidates, q).slice(0, size);
+};
+
+/**
+ * Shared search handler body for the role controllers.
+ */
+const sendSearchResults = async (req, res, { assigneeId } = {}) => {
+  const { projectId, q, mode, limit } = req.query;
+  if (!projectId || !mongoose.isValidObjectId(projectId)) {
+    return res
+      .status(400)
+      .json({ success: false, message: "A valid projectId is required" });
+  }
+  if (typeof q !== "string" || !q.trim()) {
+    return res.status(200).json({ success: true, tasks: [] });
+  }
+
+  const tasks = await searchTasks({
+    projectId,
+    assigneeId: assigneeId || req.query.assignee,
+    q: q.trim().slice(0, 200),
+    mode,
+    limit,
+  });
+  res.status(200).json({ success: true, tasks });
+};
+
+export { searchTasks, sendSearchResults };